@@ -0,0 +1,55 @@
+package gr.codelearn.showcase.airline.benchmark;
+
+import gr.codelearn.showcase.airline.api.transfer.TimeOrderedTransactionIdGenerator;
+import gr.codelearn.showcase.airline.api.transfer.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Compares what every ApiResponse used to pay for its transaction id and timestamp with what it pays now.
+ * Run with -prof gc for the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(2)
+public class ApiResponseEnvelopeBenchmark {
+	private final Clock clock = Clock.systemUTC();
+	private final TransactionIdGenerator transactionIds = new TimeOrderedTransactionIdGenerator(clock);
+
+	@Benchmark
+	public String randomUuidTransactionId() {
+		return UUID.randomUUID().toString().toUpperCase();
+	}
+
+	@Benchmark
+	public String timeOrderedTransactionId() {
+		return transactionIds.next();
+	}
+
+	@Benchmark
+	public ZonedDateTime systemDefaultZoneNow() {
+		return ZonedDateTime.now();
+	}
+
+	@Benchmark
+	public ZonedDateTime sharedClockNow() {
+		return ZonedDateTime.now(clock);
+	}
+}
@@ -0,0 +1,61 @@
+package gr.codelearn.showcase.airline.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.codelearn.showcase.airline.api.resource.response.ReservationResource;
+import gr.codelearn.showcase.airline.api.transfer.ApiResponse;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Envelope creation, serialisation and both together are measured separately, the last being what a controller pays
+ * per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ApiResponseSerializationBenchmark {
+	// Configured the way Spring Boot configures the MVC message converter, java.time types included
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private final ReservationResource resource = new ReservationResource(10L, 1L, "john@doe.com", "3A", SeatClass.BUSINESS,
+																		 BookingStatus.CONFIRMED);
+
+	private ApiResponse<ReservationResource> response;
+
+	@Setup
+	public void setup() {
+		response = envelope();
+	}
+
+	@Benchmark
+	public ApiResponse<ReservationResource> envelope() {
+		return ApiResponse.<ReservationResource>builder().data(resource).build();
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public byte[] envelopeAndSerialize() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(envelope());
+	}
+}
@@ -0,0 +1,48 @@
+package gr.codelearn.showcase.airline.benchmark;
+
+import gr.codelearn.showcase.airline.api.resource.mapper.ReservationMapper;
+import gr.codelearn.showcase.airline.api.resource.mapper.ReservationMapperImpl;
+import gr.codelearn.showcase.airline.api.resource.response.ReservationResource;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Customer;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReservationMapperBenchmark {
+	private final ReservationMapper mapper = new ReservationMapperImpl();
+
+	private Reservation reservation;
+
+	@Setup
+	public void setup() {
+		var departure = ZonedDateTime.parse("2030-01-03T08:00:00Z");
+		reservation = new Reservation(10L, new Flight(1L, "ATH", "LHR", departure, departure.plusHours(4), 180),
+									  new Customer(7L, "John Doe", "john@doe.com"), SeatClass.BUSINESS, "3A", BookingStatus.CONFIRMED, 1,
+									  departure.minusDays(2));
+	}
+
+	@Benchmark
+	public ReservationResource toResource() {
+		return mapper.toResource(reservation);
+	}
+}
@@ -0,0 +1,118 @@
+package gr.codelearn.showcase.airline.benchmark;
+
+import gr.codelearn.showcase.airline.component.CustomerCache;
+import gr.codelearn.showcase.airline.component.FlightLocks;
+import gr.codelearn.showcase.airline.component.SeatInventory;
+import gr.codelearn.showcase.airline.config.CustomerCacheProperties;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.service.ReservationServiceImpl;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeCustomerRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightInventoryRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeOutboxEventRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeReservationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Each iteration runs a fixed batch of operations on fresh fake repositories, so they never grow beyond one batch.
+ * Scores are per batch, divide by BATCH for the cost of a single operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = ReservationServiceBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = ReservationServiceBenchmark.BATCH)
+@Fork(2)
+public class ReservationServiceBenchmark {
+	static final int BATCH = 1_000;
+	private static final int FLIGHTS = 10;
+	private static final int SEATS_PER_ROW = 6;
+
+	private final Clock clock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+	private ReservationServiceImpl service;
+	private List<Flight> flights;
+	private List<Reservation> pending;
+	private int next;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		var flightRepo = new FakeFlightRepository();
+		var customerRepo = new FakeCustomerRepository();
+		var reservationRepo = new FakeReservationRepository();
+		service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), clock, new SeatInventory(), new FlightLocks(),
+											 new CustomerCache(clock, new CustomerCacheProperties(BATCH, Duration.ofMinutes(10))),
+											 new FakeOutboxEventRepository().outbox(clock));
+
+		// Twice the batch in capacity, half of it taken by the pending reservations confirm and cancel work on
+		flights = new ArrayList<>(FLIGHTS);
+		for (int i = 0; i < FLIGHTS; i++) {
+			var departure = ZonedDateTime.now(clock).plusDays(2);
+			flights.add(flightRepo.save(new Flight(null, "ATH", "LHR", departure, departure.plusHours(4), 2 * BATCH / FLIGHTS)));
+		}
+		pending = new ArrayList<>(BATCH);
+		for (int i = 0; i < BATCH; i++) {
+			pending.add(service.reserve(flightOf(i).getId(), customerOf(i), SeatClass.ECONOMY, seatOf(i)));
+		}
+		next = 0;
+	}
+
+	@Benchmark
+	public Reservation reserve() {
+		int i = BATCH + next++;
+		return service.reserve(flightOf(i).getId(), customerOf(i), SeatClass.ECONOMY, seatOf(i));
+	}
+
+	@Benchmark
+	public Reservation confirm() {
+		return service.confirm(pending.get(next++).getId());
+	}
+
+	@Benchmark
+	public Reservation cancel() {
+		var reservation = pending.get(next++);
+		service.cancel(reservation.getId());
+		return reservation;
+	}
+
+	@Benchmark
+	public Optional<Reservation> get() {
+		return service.get(pending.get(next++).getId());
+	}
+
+	private Flight flightOf(final int i) {
+		return flights.get(i % FLIGHTS);
+	}
+
+	private static String seatOf(final int i) {
+		int seat = i / FLIGHTS;
+		return (seat / SEATS_PER_ROW + 1) + String.valueOf((char) ('A' + seat % SEATS_PER_ROW));
+	}
+
+	// One in four bookings comes from a returning customer
+	private static String customerOf(final int i) {
+		return "customer" + (i % 4 == 0 ? i / 4 : i) + "@benchmark.com";
+	}
+}
@@ -2,8 +2,10 @@ package gr.codelearn.showcase.airline;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 class AirlineApplication {
 	void main(String[] args) {
 		SpringApplication.run(AirlineApplication.class, args);
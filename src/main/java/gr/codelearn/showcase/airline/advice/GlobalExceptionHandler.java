@@ -5,9 +5,14 @@ import gr.codelearn.showcase.airline.api.transfer.ApiResponse;
 import gr.codelearn.showcase.airline.component.BaseComponent;
 import gr.codelearn.showcase.airline.exception.BusinessException;
 import gr.codelearn.showcase.airline.exception.NotFoundException;
+import gr.codelearn.showcase.airline.exception.ServiceOverloadedException;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
@@ -27,6 +32,7 @@ import org.springframework.web.multipart.support.MissingServletRequestPartExcept
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = Type.SERVLET)
 public class GlobalExceptionHandler extends BaseComponent {
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<ApiResponse<?>> handleException(final Exception ex, final WebRequest request) {
@@ -81,6 +87,25 @@ public class GlobalExceptionHandler extends BaseComponent {
 				HttpStatus.NOT_ACCEPTABLE);
 	}
 
+	@ExceptionHandler(ConcurrencyFailureException.class)
+	public final ResponseEntity<ApiResponse<?>> handleException(final ConcurrencyFailureException ex, final WebRequest request) {
+		// Only reached once the conflict retries are used up
+		var customMessage = "The resource was modified concurrently, please retry the operation.";
+		logger.warn(customMessage, ex);
+		return new ResponseEntity<>(
+				ApiResponse.builder().apiError(getApiError(ex, HttpStatus.CONFLICT, request, customMessage)).build(),
+				HttpStatus.CONFLICT);
+	}
+
+	@ExceptionHandler(ServiceOverloadedException.class)
+	public ResponseEntity<ApiResponse<?>> handleException(final ServiceOverloadedException ex, final WebRequest request) {
+		// Expected under load spikes, the admission metrics tell more than a stack trace per rejected request
+		logger.warn("Request rejected by admission control: {}", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+							 .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+							 .body(ApiResponse.builder().apiError(getApiError(ex, HttpStatus.SERVICE_UNAVAILABLE, request)).build());
+	}
+
 	@ExceptionHandler(DataIntegrityViolationException.class)
 	public final ResponseEntity<ApiResponse<?>> handleException(final DataIntegrityViolationException ex, final WebRequest request) {
 		var customMessage = """
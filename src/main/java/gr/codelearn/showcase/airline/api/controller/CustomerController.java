@@ -0,0 +1,37 @@
+package gr.codelearn.showcase.airline.api.controller;
+
+import gr.codelearn.showcase.airline.api.resource.mapper.ReservationMapper;
+import gr.codelearn.showcase.airline.api.resource.response.ReservationResource;
+import gr.codelearn.showcase.airline.api.transfer.ApiResponse;
+import gr.codelearn.showcase.airline.api.transfer.CursorPage;
+import gr.codelearn.showcase.airline.service.ReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequestMapping("/api/customers")
+public class CustomerController {
+	private final ReservationService reservationService;
+	private final ReservationMapper reservationMapper;
+
+	@GetMapping("/{email}/reservations")
+	public ResponseEntity<ApiResponse<CursorPage<ReservationResource>>> reservations(
+			@PathVariable String email,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size) {
+		var page = reservationService.listByCustomer(email, cursor, size);
+		return ResponseEntity.ok(ApiResponse.<CursorPage<ReservationResource>>builder()
+											.data(new CursorPage<>(reservationMapper.toResources(page.reservations()),
+																   page.nextCursor()))
+											.build());
+	}
+}
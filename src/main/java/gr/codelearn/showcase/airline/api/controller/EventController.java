@@ -0,0 +1,38 @@
+package gr.codelearn.showcase.airline.api.controller;
+
+import gr.codelearn.showcase.airline.api.resource.mapper.ReservationEventMapper;
+import gr.codelearn.showcase.airline.api.resource.response.ReservationEventResource;
+import gr.codelearn.showcase.airline.api.transfer.ApiResponse;
+import gr.codelearn.showcase.airline.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequestMapping("/api/events")
+public class EventController {
+	private final OutboxService service;
+	private final ReservationEventMapper mapper;
+
+	// Consumers pass the position of the last event they handled as after, wait is in seconds and capped by airline.outbox.max-wait
+	@GetMapping
+	public ResponseEntity<ApiResponse<List<ReservationEventResource>>> events(
+			@RequestParam(defaultValue = "0") long after,
+			@RequestParam(defaultValue = "100") int limit,
+			@RequestParam(defaultValue = "30") long wait) {
+		var events = service.eventsAfter(after, limit, Duration.ofSeconds(Math.max(wait, 0)));
+		return ResponseEntity.ok(ApiResponse.<List<ReservationEventResource>>builder()
+											.data(mapper.toResources(events))
+											.build());
+	}
+}
@@ -0,0 +1,117 @@
+package gr.codelearn.showcase.airline.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.codelearn.showcase.airline.api.export.ManifestFormat;
+import gr.codelearn.showcase.airline.api.resource.mapper.FlightMapper;
+import gr.codelearn.showcase.airline.api.resource.response.FlightAvailabilityResource;
+import gr.codelearn.showcase.airline.api.resource.response.FlightResource;
+import gr.codelearn.showcase.airline.api.resource.response.SeatResource;
+import gr.codelearn.showcase.airline.api.transfer.ApiResponse;
+import gr.codelearn.showcase.airline.repository.projection.ManifestEntry;
+import gr.codelearn.showcase.airline.service.FlightService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequestMapping("/api/flights")
+public class FlightController {
+	private final FlightService service;
+	private final FlightMapper mapper;
+	private final ObjectMapper objectMapper;
+
+	@GetMapping
+	public ResponseEntity<ApiResponse<List<FlightResource>>> search(
+			@RequestParam String origin,
+			@RequestParam String destination,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+			@RequestParam(required = false) Integer seats) {
+		var flights = seats == null
+					  ? service.search(origin, destination, from, to)
+					  : service.searchAvailable(origin, destination, from, to, seats);
+		return ResponseEntity.ok(ApiResponse.<List<FlightResource>>builder()
+											.data(mapper.toResources(flights))
+											.build());
+	}
+
+	@GetMapping("/{id}/availability")
+	public ResponseEntity<ApiResponse<FlightAvailabilityResource>> availability(@PathVariable Long id) {
+		return ResponseEntity.ok(ApiResponse.<FlightAvailabilityResource>builder()
+											.data(mapper.toResource(service.availability(id)))
+											.build());
+	}
+
+	@GetMapping("/{id}/seats")
+	public ResponseEntity<ApiResponse<List<SeatResource>>> seats(@PathVariable Long id, WebRequest request) {
+		// Unknown flights are rejected first, unchanged seat maps are then answered with 304 before the seats are read
+		service.get(id);
+		var version = service.seatMapVersion(id);
+		if (request.checkNotModified(version)) {
+			return null;
+		}
+		return ResponseEntity.ok()
+							 .eTag(version)
+							 .body(ApiResponse.<List<SeatResource>>builder()
+											  .data(mapper.toSeatResources(service.seatMap(id)))
+											  .build());
+	}
+
+	@GetMapping("/{id}/manifest")
+	public ResponseEntity<StreamingResponseBody> manifest(@PathVariable Long id,
+														  @RequestParam(defaultValue = "NDJSON") ManifestFormat format) {
+		// Unknown flights are rejected before the response is committed to a streaming body
+		service.get(id);
+		return manifest(format, "manifest-flight-" + id, sink -> service.manifest(id, sink));
+	}
+
+	@GetMapping("/manifest")
+	public ResponseEntity<StreamingResponseBody> manifest(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+			@RequestParam(defaultValue = "NDJSON") ManifestFormat format) {
+		return manifest(format, "manifest-" + from.toLocalDate() + "-" + to.toLocalDate(), sink -> service.manifest(from, to, sink));
+	}
+
+	private ResponseEntity<StreamingResponseBody> manifest(ManifestFormat format, String fileName,
+														   Consumer<Consumer<ManifestEntry>> source) {
+		StreamingResponseBody body = out -> {
+			try (var writer = format.open(out, objectMapper)) {
+				source.accept(entry -> {
+					try {
+						writer.write(mapper.toResource(entry));
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+		return ResponseEntity.ok()
+							 .contentType(MediaType.parseMediaType(format.contentType()))
+							 .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+																						.filename(fileName + "." + format.extension())
+																						.build()
+																						.toString())
+							 .body(body);
+	}
+}
@@ -1,45 +1,101 @@
 package gr.codelearn.showcase.airline.api.controller;
 
 import gr.codelearn.showcase.airline.api.resource.mapper.ReservationMapper;
+import gr.codelearn.showcase.airline.api.resource.request.BulkReservationResource;
+import gr.codelearn.showcase.airline.api.resource.request.CreateReservationBatchResource;
 import gr.codelearn.showcase.airline.api.resource.request.CreateReservationResource;
+import gr.codelearn.showcase.airline.api.resource.response.BulkOutcomeResource;
+import gr.codelearn.showcase.airline.api.resource.response.ReservationOutcomeResource;
 import gr.codelearn.showcase.airline.api.resource.response.ReservationResource;
 import gr.codelearn.showcase.airline.api.transfer.ApiResponse;
+import gr.codelearn.showcase.airline.service.IdempotencyService;
 import gr.codelearn.showcase.airline.service.ReservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RequiredArgsConstructor
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequestMapping("/api/reservations")
 public class ReservationController {
+	static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+	static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
 	private final ReservationService service;
+	private final IdempotencyService idempotencyService;
 	private final ReservationMapper mapper;
 
+	/*
+	 * With an Idempotency-Key the first response is stored and returned as is for every retry of the same request, so a
+	 * client retrying after a timeout neither books twice nor gets "Seat already reserved".
+	 */
 	@PostMapping
-	public ResponseEntity<ApiResponse<ReservationResource>> reserve(@RequestBody CreateReservationResource resource) {
+	public ResponseEntity<?> reserve(@RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+									 @RequestBody CreateReservationResource resource) {
+		if (idempotencyKey == null) {
+			return ResponseEntity.ok(book(resource));
+		}
+		var response = idempotencyService.execute(idempotencyKey, resource, () -> book(resource));
+		return ResponseEntity.ok()
+							 .contentType(MediaType.APPLICATION_JSON)
+							 .header(IDEMPOTENCY_KEY, idempotencyKey)
+							 .header(IDEMPOTENT_REPLAYED, String.valueOf(response.replayed()))
+							 .body(response.body());
+	}
+
+	private ApiResponse<ReservationResource> book(CreateReservationResource resource) {
 		var reservation = service.reserve(
 				resource.flightId(),
 				resource.customerEmail(),
 				resource.seatClass(),
 				resource.seatNumber()
 										 );
-		return ResponseEntity.ok(ApiResponse.<ReservationResource>builder()
-											.data(mapper.toResource(reservation))
+		return ApiResponse.<ReservationResource>builder()
+						  .data(mapper.toResource(reservation))
+						  .build();
+	}
+
+	@PostMapping("/batch")
+	public ResponseEntity<ApiResponse<List<ReservationOutcomeResource>>> reserveAll(
+			@RequestBody CreateReservationBatchResource resource) {
+		var outcomes = service.reserveAll(mapper.toRequests(resource.reservations()), resource.allOrNothing());
+		return ResponseEntity.ok(ApiResponse.<List<ReservationOutcomeResource>>builder()
+											.data(mapper.toOutcomeResources(outcomes))
+											.build());
+	}
+
+	@PostMapping(value = "/bulk", headers = "action=confirm")
+	public ResponseEntity<ApiResponse<List<BulkOutcomeResource>>> confirmAll(@RequestBody BulkReservationResource resource) {
+		return ResponseEntity.ok(ApiResponse.<List<BulkOutcomeResource>>builder()
+											.data(mapper.toBulkOutcomeResources(service.confirmAll(mapper.toSelection(resource))))
+											.build());
+	}
+
+	@PostMapping(value = "/bulk", headers = "action=cancel")
+	public ResponseEntity<ApiResponse<List<BulkOutcomeResource>>> cancelAll(@RequestBody BulkReservationResource resource) {
+		return ResponseEntity.ok(ApiResponse.<List<BulkOutcomeResource>>builder()
+											.data(mapper.toBulkOutcomeResources(service.cancelAll(mapper.toSelection(resource))))
 											.build());
 	}
 
 	@GetMapping("/{id}")
 	public ResponseEntity<ApiResponse<ReservationResource>> get(@PathVariable Long id) {
 		return ResponseEntity.of(
-				service.get(id)
+				service.view(id)
 					   .map(mapper::toResource)
 					   .map(resource -> ApiResponse.<ReservationResource>builder()
 												   .data(resource)
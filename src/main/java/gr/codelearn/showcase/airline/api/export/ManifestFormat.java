@@ -0,0 +1,119 @@
+package gr.codelearn.showcase.airline.api.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import gr.codelearn.showcase.airline.api.resource.response.ManifestEntryResource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+/*
+ * Rows are written to the response as they are read, buffered and flushed once when the writer closes.
+ */
+public enum ManifestFormat {
+	NDJSON("application/x-ndjson", "ndjson") {
+		@Override
+		public ManifestWriter open(final OutputStream out, final ObjectMapper objectMapper) throws IOException {
+			ObjectWriter writer = objectMapper.writerFor(ManifestEntryResource.class)
+											  .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+			// Lines are terminated explicitly, the default space between root values would lead every following line
+			JsonGenerator generator = objectMapper.getFactory().createGenerator(out).setRootValueSeparator(null);
+			return new ManifestWriter() {
+				@Override
+				public void write(final ManifestEntryResource entry) throws IOException {
+					writer.writeValue(generator, entry);
+					generator.writeRaw('\n');
+				}
+
+				@Override
+				public void close() throws IOException {
+					generator.close();
+				}
+			};
+		}
+	},
+	CSV("text/csv", "csv") {
+		private static final String HEADER =
+				"reservation_id,flight_id,departure_at,seat_number,seat_class,status,customer_name,customer_email,created_at";
+
+		@Override
+		public ManifestWriter open(final OutputStream out, final ObjectMapper objectMapper) throws IOException {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			writer.write(HEADER);
+			writer.write('\n');
+			return new ManifestWriter() {
+				@Override
+				public void write(final ManifestEntryResource entry) throws IOException {
+					writer.write(String.valueOf(entry.reservationId()));
+					writer.write(',');
+					writer.write(String.valueOf(entry.flightId()));
+					writer.write(',');
+					writer.write(ISO_OFFSET_DATE_TIME.format(entry.departureAt()));
+					writer.write(',');
+					writeField(writer, entry.seatNumber());
+					writer.write(',');
+					writer.write(entry.seatClass().name());
+					writer.write(',');
+					writer.write(entry.status().name());
+					writer.write(',');
+					writeField(writer, entry.customerName());
+					writer.write(',');
+					writeField(writer, entry.customerEmail());
+					writer.write(',');
+					writer.write(ISO_OFFSET_DATE_TIME.format(entry.createdAt()));
+					writer.write('\n');
+				}
+
+				@Override
+				public void close() throws IOException {
+					writer.close();
+				}
+			};
+		}
+	};
+
+	private final String contentType;
+	private final String extension;
+
+	ManifestFormat(final String contentType, final String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String contentType() {
+		return contentType;
+	}
+
+	public String extension() {
+		return extension;
+	}
+
+	public abstract ManifestWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException;
+
+	// RFC 4180, fields holding a separator, quote or line break are quoted and their quotes doubled
+	private static void writeField(final Writer writer, final String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
@@ -0,0 +1,10 @@
+package gr.codelearn.showcase.airline.api.export;
+
+import gr.codelearn.showcase.airline.api.resource.response.ManifestEntryResource;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface ManifestWriter extends Closeable {
+	void write(ManifestEntryResource entry) throws IOException;
+}
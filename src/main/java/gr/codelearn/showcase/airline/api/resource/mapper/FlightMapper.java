@@ -0,0 +1,28 @@
+package gr.codelearn.showcase.airline.api.resource.mapper;
+
+import gr.codelearn.showcase.airline.api.resource.response.FlightAvailabilityResource;
+import gr.codelearn.showcase.airline.api.resource.response.FlightResource;
+import gr.codelearn.showcase.airline.api.resource.response.ManifestEntryResource;
+import gr.codelearn.showcase.airline.api.resource.response.SeatResource;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.repository.projection.ManifestEntry;
+import gr.codelearn.showcase.airline.service.FlightAvailability;
+import gr.codelearn.showcase.airline.service.SeatView;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring", config = IgnoreUnmappedMapperConfig.class)
+public interface FlightMapper {
+	FlightResource toResource(Flight flight);
+
+	List<FlightResource> toResources(List<Flight> flights);
+
+	SeatResource toResource(SeatView seat);
+
+	List<SeatResource> toSeatResources(List<SeatView> seats);
+
+	ManifestEntryResource toResource(ManifestEntry entry);
+
+	FlightAvailabilityResource toResource(FlightAvailability availability);
+}
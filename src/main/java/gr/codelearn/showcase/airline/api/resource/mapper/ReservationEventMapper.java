@@ -0,0 +1,16 @@
+package gr.codelearn.showcase.airline.api.resource.mapper;
+
+import gr.codelearn.showcase.airline.api.resource.response.ReservationEventResource;
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring", config = IgnoreUnmappedMapperConfig.class)
+public interface ReservationEventMapper {
+	@Mapping(target = "position", source = "feedPosition")
+	ReservationEventResource toResource(OutboxEvent event);
+
+	List<ReservationEventResource> toResources(List<OutboxEvent> events);
+}
@@ -1,13 +1,42 @@
 package gr.codelearn.showcase.airline.api.resource.mapper;
 
+import gr.codelearn.showcase.airline.api.resource.request.BulkReservationResource;
+import gr.codelearn.showcase.airline.api.resource.request.CreateReservationResource;
+import gr.codelearn.showcase.airline.api.resource.response.BulkOutcomeResource;
+import gr.codelearn.showcase.airline.api.resource.response.ReservationOutcomeResource;
 import gr.codelearn.showcase.airline.api.resource.response.ReservationResource;
 import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
+import gr.codelearn.showcase.airline.service.BulkOutcome;
+import gr.codelearn.showcase.airline.service.BulkSelection;
+import gr.codelearn.showcase.airline.service.ReservationOutcome;
+import gr.codelearn.showcase.airline.service.ReservationRequest;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring", config = IgnoreUnmappedMapperConfig.class)
 public interface ReservationMapper {
 	@Mapping(target = "flightId", source = "flight.id")
 	@Mapping(target = "customerEmail", source = "customer.email")
 	ReservationResource toResource(Reservation reservation);
+
+	ReservationResource toResource(ReservationView view);
+
+	List<ReservationResource> toResources(List<ReservationView> views);
+
+	ReservationRequest toRequest(CreateReservationResource resource);
+
+	List<ReservationRequest> toRequests(List<CreateReservationResource> resources);
+
+	@Mapping(target = "flightId", source = "request.flightId")
+	@Mapping(target = "seatNumber", source = "request.seatNumber")
+	ReservationOutcomeResource toResource(ReservationOutcome outcome);
+
+	List<ReservationOutcomeResource> toOutcomeResources(List<ReservationOutcome> outcomes);
+
+	BulkSelection toSelection(BulkReservationResource resource);
+
+	List<BulkOutcomeResource> toBulkOutcomeResources(List<BulkOutcome> outcomes);
 }
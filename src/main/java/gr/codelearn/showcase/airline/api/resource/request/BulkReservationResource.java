@@ -0,0 +1,9 @@
+package gr.codelearn.showcase.airline.api.resource.request;
+
+import java.util.List;
+
+public record BulkReservationResource(
+		List<Long> reservationIds,
+		Long flightId
+) {
+}
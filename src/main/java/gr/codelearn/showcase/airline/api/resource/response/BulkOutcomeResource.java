@@ -0,0 +1,11 @@
+package gr.codelearn.showcase.airline.api.resource.response;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+
+public record BulkOutcomeResource(
+		Long reservationId,
+		BookingStatus status,
+		boolean changed,
+		String error
+) {
+}
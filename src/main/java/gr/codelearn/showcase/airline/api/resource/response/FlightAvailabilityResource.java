@@ -0,0 +1,11 @@
+package gr.codelearn.showcase.airline.api.resource.response;
+
+import java.util.List;
+
+public record FlightAvailabilityResource(
+		Long flightId,
+		int capacity,
+		long available,
+		List<SeatClassAvailabilityResource> seatClasses
+) {
+}
@@ -0,0 +1,13 @@
+package gr.codelearn.showcase.airline.api.resource.response;
+
+import java.time.ZonedDateTime;
+
+public record FlightResource(
+		Long id,
+		String origin,
+		String destination,
+		ZonedDateTime departureAt,
+		ZonedDateTime arrivalAt,
+		int capacity
+) {
+}
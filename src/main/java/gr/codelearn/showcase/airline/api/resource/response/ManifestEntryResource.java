@@ -0,0 +1,19 @@
+package gr.codelearn.showcase.airline.api.resource.response;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+import java.time.ZonedDateTime;
+
+public record ManifestEntryResource(
+		Long reservationId,
+		Long flightId,
+		ZonedDateTime departureAt,
+		String seatNumber,
+		SeatClass seatClass,
+		BookingStatus status,
+		String customerName,
+		String customerEmail,
+		ZonedDateTime createdAt
+) {
+}
@@ -0,0 +1,18 @@
+package gr.codelearn.showcase.airline.api.resource.response;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+import java.time.ZonedDateTime;
+
+public record ReservationEventResource(
+		Long position,
+		Long reservationId,
+		Long flightId,
+		SeatClass seatClass,
+		String seatNumber,
+		BookingStatus previousStatus,
+		BookingStatus status,
+		ZonedDateTime occurredAt
+) {
+}
@@ -0,0 +1,9 @@
+package gr.codelearn.showcase.airline.api.resource.response;
+
+public record ReservationOutcomeResource(
+		Long flightId,
+		String seatNumber,
+		ReservationResource reservation,
+		String error
+) {
+}
@@ -0,0 +1,11 @@
+package gr.codelearn.showcase.airline.api.resource.response;
+
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+public record SeatClassAvailabilityResource(
+		SeatClass seatClass,
+		long pending,
+		long confirmed,
+		long cancelled
+) {
+}
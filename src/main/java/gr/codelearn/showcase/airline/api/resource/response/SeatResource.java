@@ -0,0 +1,11 @@
+package gr.codelearn.showcase.airline.api.resource.response;
+
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.domain.SeatState;
+
+public record SeatResource(
+		String seatNumber,
+		SeatState state,
+		SeatClass seatClass
+) {
+}
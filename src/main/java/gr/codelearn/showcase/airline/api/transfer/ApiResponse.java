@@ -5,13 +5,12 @@ import lombok.Value;
 
 import java.io.Serializable;
 import java.time.ZonedDateTime;
-import java.util.UUID;
 
 @Value
 @Builder
 public class ApiResponse<T> implements Serializable {
-	String transactionId = UUID.randomUUID().toString().toUpperCase();
-	ZonedDateTime createdAt = ZonedDateTime.now();
+	String transactionId = ApiResponseDefaults.transactionId();
+	ZonedDateTime createdAt = ApiResponseDefaults.now();
 	T data;
 	ApiError apiError;
 }
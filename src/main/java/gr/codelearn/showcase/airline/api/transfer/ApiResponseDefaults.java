@@ -0,0 +1,29 @@
+package gr.codelearn.showcase.airline.api.transfer;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+
+/*
+ * ApiResponse instances are built with plain builders, outside of Spring. Their transaction id and timestamp sources
+ * are kept here and replaced once at startup by ApiResponseConfig.
+ */
+public final class ApiResponseDefaults {
+	private static volatile Clock clock = Clock.systemUTC();
+	private static volatile TransactionIdGenerator transactionIds = new TimeOrderedTransactionIdGenerator(clock);
+
+	private ApiResponseDefaults() {
+	}
+
+	public static void configure(final Clock clock, final TransactionIdGenerator transactionIds) {
+		ApiResponseDefaults.clock = clock;
+		ApiResponseDefaults.transactionIds = transactionIds;
+	}
+
+	static String transactionId() {
+		return transactionIds.next();
+	}
+
+	static ZonedDateTime now() {
+		return ZonedDateTime.now(clock);
+	}
+}
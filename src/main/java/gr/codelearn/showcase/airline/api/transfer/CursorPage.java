@@ -0,0 +1,10 @@
+package gr.codelearn.showcase.airline.api.transfer;
+
+import java.util.List;
+
+/*
+ * One page of a keyset paginated listing. nextCursor is an opaque token to pass back as ?cursor= for the following
+ * page, it is null on the last one.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
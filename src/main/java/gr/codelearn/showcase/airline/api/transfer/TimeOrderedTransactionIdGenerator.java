@@ -0,0 +1,44 @@
+package gr.codelearn.showcase.airline.api.transfer;
+
+import java.time.Clock;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Response ids from the current millisecond, a per-instance node and one shared sequence, written straight into a char
+ * buffer. Ids sort in creation order, unlike random UUIDs.
+ *
+ * Layout, 24 upper-case hex digits: 12 for the epoch millisecond, 4 for the node, 8 for the sequence.
+ */
+public class TimeOrderedTransactionIdGenerator implements TransactionIdGenerator {
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private final Clock clock;
+	private final int node;
+	private final AtomicLong sequence = new AtomicLong();
+
+	public TimeOrderedTransactionIdGenerator(final Clock clock) {
+		this(clock, ThreadLocalRandom.current().nextInt(0x10000));
+	}
+
+	TimeOrderedTransactionIdGenerator(final Clock clock, final int node) {
+		this.clock = clock;
+		this.node = node & 0xFFFF;
+	}
+
+	@Override
+	public String next() {
+		char[] id = new char[24];
+		write(id, 0, clock.millis(), 12);
+		write(id, 12, node, 4);
+		write(id, 16, sequence.getAndIncrement(), 8);
+		return new String(id);
+	}
+
+	private static void write(final char[] target, final int offset, long value, final int digits) {
+		for (int i = offset + digits - 1; i >= offset; i--) {
+			target[i] = HEX[(int) (value & 0xF)];
+			value >>>= 4;
+		}
+	}
+}
@@ -0,0 +1,6 @@
+package gr.codelearn.showcase.airline.api.transfer;
+
+@FunctionalInterface
+public interface TransactionIdGenerator {
+	String next();
+}
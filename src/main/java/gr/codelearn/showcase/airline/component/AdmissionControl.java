@@ -0,0 +1,112 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.AdmissionControlProperties;
+import gr.codelearn.showcase.airline.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * Fair semaphore with one permit per pooled connection, at most queue-size calls wait up to max-wait and the rest get a
+ * 503 at once. Nested calls run on their thread's permit, airline.admission.* meters show the load.
+ */
+@Component
+public class AdmissionControl extends BaseComponent {
+	private final AdmissionControlProperties properties;
+	private final Semaphore permits;
+	private final AtomicInteger queued = new AtomicInteger();
+	private final ThreadLocal<Boolean> holding = new ThreadLocal<>();
+	private final Timer waitTimer;
+	private final Counter queueFull;
+	private final Counter timedOut;
+
+	public AdmissionControl(final AdmissionControlProperties properties, final MeterRegistry registry) {
+		this.properties = properties;
+		this.permits = new Semaphore(properties.permits(), true);
+		waitTimer = Timer.builder("airline.admission.wait")
+						 .description("Time reservation service calls waited for a permit")
+						 .register(registry);
+		queueFull = rejections(registry, "queue-full");
+		timedOut = rejections(registry, "timeout");
+		Gauge.builder("airline.admission.queue", queued, AtomicInteger::get)
+			 .description("Reservation service calls waiting for a permit")
+			 .register(registry);
+		Gauge.builder("airline.admission.active", this, AdmissionControl::active)
+			 .description("Permits held by running reservation service calls")
+			 .register(registry);
+	}
+
+	private static Counter rejections(final MeterRegistry registry, final String reason) {
+		return Counter.builder("airline.admission.rejected")
+					  .description("Reservation service calls turned away without running")
+					  .tag("reason", reason)
+					  .register(registry);
+	}
+
+	public <T> T call(final Supplier<T> action) {
+		if (!properties.enabled() || holding.get() != null) {
+			return action.get();
+		}
+		acquire();
+		holding.set(Boolean.TRUE);
+		try {
+			return action.get();
+		} finally {
+			holding.remove();
+			permits.release();
+		}
+	}
+
+	public void run(final Runnable action) {
+		call(() -> {
+			action.run();
+			return null;
+		});
+	}
+
+	public int queued() {
+		return queued.get();
+	}
+
+	public int active() {
+		return properties.permits() - permits.availablePermits();
+	}
+
+	private void acquire() {
+		try {
+			// Timed tryAcquire, unlike the untimed one, honours the fairness of the semaphore
+			if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+				waitTimer.record(0, TimeUnit.NANOSECONDS);
+				return;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServiceOverloadedException("Interrupted while waiting for the service.", properties.retryAfter());
+		}
+		if (queued.incrementAndGet() > properties.queueSize()) {
+			queued.decrementAndGet();
+			queueFull.increment();
+			throw new ServiceOverloadedException("Too many requests are waiting, please retry later.", properties.retryAfter());
+		}
+		long start = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(properties.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+				timedOut.increment();
+				throw new ServiceOverloadedException("The service is busy, please retry later.", properties.retryAfter());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServiceOverloadedException("Interrupted while waiting for the service.", properties.retryAfter());
+		} finally {
+			queued.decrementAndGet();
+			waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package gr.codelearn.showcase.airline.component;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+ * Publishes every event as a Spring application event. @EventListener methods run inside the relay transaction,
+ * @TransactionalEventListener ones once the batch has committed.
+ */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "airline.outbox.in-process-sink", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ApplicationEventOutboxSink implements OutboxSink {
+	private final ApplicationEventPublisher publisher;
+
+	@Override
+	public void publish(final List<ReservationStatusChanged> events) {
+		events.forEach(publisher::publishEvent);
+	}
+}
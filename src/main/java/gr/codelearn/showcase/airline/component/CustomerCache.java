@@ -0,0 +1,97 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.CustomerCacheProperties;
+import gr.codelearn.showcase.airline.domain.Customer;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Id and name of repeat customers by email, enough for a detached reference. Bounded by LRU eviction and a time
+ * to live.
+ */
+@Component
+public class CustomerCache extends BaseComponent {
+	private final Clock clock;
+	private final int maximumSize;
+	private final long timeToLiveMillis;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private final Map<String, Entry> entries;
+
+	public CustomerCache(final Clock clock, final CustomerCacheProperties properties) {
+		this.clock = clock;
+		this.maximumSize = properties.maximumSize();
+		this.timeToLiveMillis = properties.timeToLive().toMillis();
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+				if (size() > maximumSize) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/*
+	 * Returns a detached customer carrying the cached id. Hibernate writes it as a plain foreign key, and unlike a
+	 * lazy proxy it can still be read once the transaction has closed.
+	 */
+	public Optional<Customer> find(final String email) {
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(email);
+			if (entry != null && entry.expiresAt() <= clock.millis()) {
+				entries.remove(email);
+				evictions.increment();
+				entry = null;
+			}
+		}
+		if (entry == null) {
+			misses.increment();
+			return Optional.empty();
+		}
+		hits.increment();
+		return Optional.of(new Customer(entry.id(), entry.fullName(), email));
+	}
+
+	public void put(final Customer customer) {
+		if (customer.getId() == null || maximumSize <= 0) {
+			return;
+		}
+		var entry = new Entry(customer.getId(), customer.getFullName(), clock.millis() + timeToLiveMillis);
+		synchronized (entries) {
+			entries.put(customer.getEmail(), entry);
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	public long evictions() {
+		return evictions.sum();
+	}
+
+	private record Entry(Long id, String fullName, long expiresAt) {
+	}
+}
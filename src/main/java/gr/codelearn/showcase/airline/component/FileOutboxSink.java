@@ -0,0 +1,50 @@
+package gr.codelearn.showcase.airline.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.codelearn.showcase.airline.config.OutboxProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/*
+ * Appends events to a local file, one JSON object per line, for tests and local runs. Redelivered batches are appended
+ * again, readers skip positions they have already seen.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(prefix = "airline.outbox.file-sink", name = "enabled", havingValue = "true")
+public class FileOutboxSink implements OutboxSink {
+	private final Path path;
+	private final ObjectMapper objectMapper;
+
+	public FileOutboxSink(final OutboxProperties properties, final ObjectMapper objectMapper) {
+		this.path = properties.fileSink().path();
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public synchronized void publish(final List<ReservationStatusChanged> events) {
+		try {
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+			try (var writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+													  StandardOpenOption.APPEND)) {
+				for (var event : events) {
+					writer.write(objectMapper.writeValueAsString(event));
+					writer.newLine();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
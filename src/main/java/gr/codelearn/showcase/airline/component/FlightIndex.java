@@ -0,0 +1,86 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.domain.Flight;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/*
+ * Detached copies of upcoming flights in departure-ordered skip lists per route. Flights are only written outside this
+ * application, FlightIndexLoader picks their changes up by reloading the index every refresh interval.
+ */
+@Component
+public class FlightIndex extends BaseComponent {
+	private final Map<String, NavigableMap<DepartureKey, Flight>> routes = new ConcurrentHashMap<>();
+	private final Map<Long, Flight> flights = new ConcurrentHashMap<>();
+	private volatile Instant coveredFrom;
+
+	public synchronized void load(final Collection<Flight> departures, final ZonedDateTime from) {
+		var current = departures.stream().map(Flight::getId).collect(Collectors.toSet());
+		List.copyOf(flights.keySet()).stream().filter(id -> !current.contains(id)).forEach(this::remove);
+		departures.forEach(this::put);
+		coveredFrom = from.toInstant();
+	}
+
+	public boolean covers(final ZonedDateTime from) {
+		var covered = coveredFrom;
+		return covered != null && !from.toInstant().isBefore(covered);
+	}
+
+	public Optional<Flight> find(final Long flightId) {
+		return Optional.ofNullable(flights.get(flightId));
+	}
+
+	public List<Flight> search(final String origin, final String destination, final ZonedDateTime from, final ZonedDateTime to) {
+		var route = routes.get(routeKey(origin, destination));
+		if (route == null || from.isAfter(to)) {
+			return List.of();
+		}
+		return List.copyOf(route.subMap(new DepartureKey(from.toInstant(), Long.MIN_VALUE), true,
+										new DepartureKey(to.toInstant(), Long.MAX_VALUE), true).values());
+	}
+
+	public synchronized void put(final Flight flight) {
+		remove(flight.getId());
+		var copy = new Flight(flight.getId(), flight.getOrigin(), flight.getDestination(), flight.getDepartureAt(),
+							  flight.getArrivalAt(), flight.getCapacity());
+		flights.put(copy.getId(), copy);
+		routes.computeIfAbsent(routeKey(copy.getOrigin(), copy.getDestination()), key -> new ConcurrentSkipListMap<>())
+			  .put(DepartureKey.of(copy), copy);
+	}
+
+	public synchronized void remove(final Long flightId) {
+		var previous = flights.remove(flightId);
+		if (previous != null) {
+			var route = routes.get(routeKey(previous.getOrigin(), previous.getDestination()));
+			if (route != null) {
+				route.remove(DepartureKey.of(previous));
+			}
+		}
+	}
+
+	private static String routeKey(final String origin, final String destination) {
+		return origin + '>' + destination;
+	}
+
+	private record DepartureKey(Instant departureAt, long flightId) implements Comparable<DepartureKey> {
+		static DepartureKey of(final Flight flight) {
+			return new DepartureKey(flight.getDepartureAt().toInstant(), flight.getId());
+		}
+
+		@Override
+		public int compareTo(final DepartureKey other) {
+			int byDeparture = departureAt.compareTo(other.departureAt);
+			return byDeparture != 0 ? byDeparture : Long.compare(flightId, other.flightId);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.repository.FlightRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+
+@Component
+@RequiredArgsConstructor
+public class FlightIndexLoader extends BaseComponent {
+	private final FlightRepository flightRepo;
+	private final FlightIndex flightIndex;
+	private final Clock clock;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		logger.info("Flight index warmed up with {} upcoming flights.", reload());
+	}
+
+	// Catches up with changed flights and drops the ones that have departed or are gone
+	@Scheduled(initialDelayString = "${airline.flight-index.refresh-interval:1m}",
+			   fixedDelayString = "${airline.flight-index.refresh-interval:1m}")
+	public void refresh() {
+		try {
+			logger.debug("Flight index refreshed with {} upcoming flights.", reload());
+		} catch (RuntimeException e) {
+			logger.warn("Flight index refresh failed.", e);
+		}
+	}
+
+	private int reload() {
+		var now = ZonedDateTime.now(clock);
+		var departures = flightRepo.findByDepartureAtGreaterThanEqual(now);
+		flightIndex.load(departures, now);
+		return departures.size();
+	}
+}
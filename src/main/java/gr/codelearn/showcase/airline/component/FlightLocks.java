@@ -0,0 +1,71 @@
+package gr.codelearn.showcase.airline.component;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+ * Serializes capacity checks per flight. Flights hash onto a fixed set of lock stripes, and inside a transaction a stripe
+ * is held until the transaction completes, so the next booking never reads counts that are not committed yet.
+ */
+@Component
+public class FlightLocks {
+	private static final int STRIPES = 64;
+
+	private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+	public FlightLocks() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	public <T> T withLock(final Long flightId, final Supplier<T> action) {
+		var lock = stripes[stripeIndex(flightId)];
+		lock.lock();
+		boolean deferred = false;
+		try {
+			deferred = TransactionCallbacks.afterCompletion(lock::unlock);
+			return action.get();
+		} finally {
+			if (!deferred) {
+				lock.unlock();
+			}
+		}
+	}
+
+	/*
+	 * Stripes are always acquired in ascending index order, so two batches touching overlapping flights cannot
+	 * deadlock on each other.
+	 */
+	public <T> T withLocks(final Collection<Long> flightIds, final Supplier<T> action) {
+		int[] indices = flightIds.stream().mapToInt(FlightLocks::stripeIndex).distinct().sorted().toArray();
+		int locked = 0;
+		boolean deferred = false;
+		try {
+			for (int index : indices) {
+				stripes[index].lock();
+				locked++;
+			}
+			deferred = TransactionCallbacks.afterCompletion(() -> unlock(indices, indices.length));
+			return action.get();
+		} finally {
+			if (!deferred) {
+				unlock(indices, locked);
+			}
+		}
+	}
+
+	private void unlock(final int[] indices, final int count) {
+		for (int i = count - 1; i >= 0; i--) {
+			stripes[indices[i]].unlock();
+		}
+	}
+
+	private static int stripeIndex(final Long flightId) {
+		int hash = flightId.hashCode();
+		return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+	}
+}
@@ -0,0 +1,81 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.IdempotencyProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Recent idempotent responses in memory, LRU-bounded and expiring with their retention. Evicted ones are still found
+ * in idempotency_keys.
+ */
+@Component
+public class IdempotencyCache extends BaseComponent {
+	private final Clock clock;
+	private final int maximumSize;
+	private final long retentionMillis;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	private final Map<String, StoredResponse> entries;
+
+	public IdempotencyCache(final Clock clock, final IdempotencyProperties properties) {
+		this.clock = clock;
+		this.maximumSize = properties.maximumSize();
+		this.retentionMillis = properties.retention().toMillis();
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, StoredResponse> eldest) {
+				return size() > maximumSize;
+			}
+		};
+	}
+
+	public Optional<StoredResponse> find(final String key) {
+		StoredResponse entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if (entry != null && entry.createdAt() + retentionMillis <= clock.millis()) {
+				entries.remove(key);
+				entry = null;
+			}
+		}
+		if (entry == null) {
+			misses.increment();
+			return Optional.empty();
+		}
+		hits.increment();
+		return Optional.of(entry);
+	}
+
+	public void put(final String key, final StoredResponse response) {
+		if (maximumSize <= 0) {
+			return;
+		}
+		synchronized (entries) {
+			entries.put(key, response);
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	public record StoredResponse(String requestHash, String body, long createdAt) {
+	}
+}
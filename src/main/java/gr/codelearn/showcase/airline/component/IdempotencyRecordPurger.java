@@ -0,0 +1,35 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.IdempotencyProperties;
+import gr.codelearn.showcase.airline.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+
+/*
+ * Deletes idempotency keys past their retention, clients are not expected to retry that late.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyRecordPurger extends BaseComponent {
+	private final IdempotencyService idempotencyService;
+	private final IdempotencyProperties properties;
+	private final Clock clock;
+
+	@Scheduled(initialDelayString = "${airline.idempotency.purge-interval:1h}",
+			   fixedDelayString = "${airline.idempotency.purge-interval:1h}")
+	public void purge() {
+		var cutoff = ZonedDateTime.now(clock).minus(properties.retention());
+		try {
+			int purged = idempotencyService.purgeCreatedBefore(cutoff);
+			if (purged > 0) {
+				logger.info("Purged {} idempotency keys created before {}.", purged, cutoff);
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Idempotency key purge failed.", e);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.OutboxProperties;
+import gr.codelearn.showcase.airline.service.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+
+/*
+ * Publishes outbox rows to the sinks in bounded batches, SKIP LOCKED lets every node share the backlog. Published rows
+ * are purged after the retention period.
+ */
+@Component
+@ConditionalOnProperty(prefix = "airline.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay extends BaseComponent {
+	private final OutboxService outboxService;
+	private final OutboxProperties properties;
+	private final Clock clock;
+	private final Counter published;
+	private final Counter failed;
+
+	public OutboxRelay(final OutboxService outboxService, final OutboxProperties properties, final Clock clock,
+					   final MeterRegistry registry) {
+		this.outboxService = outboxService;
+		this.properties = properties;
+		this.clock = clock;
+		published = Counter.builder("airline.outbox.published")
+						   .description("Reservation events delivered to the outbox sinks")
+						   .register(registry);
+		failed = Counter.builder("airline.outbox.failed")
+						.description("Relay runs that stopped on an error, their batch is delivered again")
+						.register(registry);
+	}
+
+	@Scheduled(initialDelayString = "${airline.outbox.poll-interval:200ms}", fixedDelayString = "${airline.outbox.poll-interval:200ms}")
+	public void relay() {
+		try {
+			// A short batch means the backlog is drained, later events wait for the next run
+			for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+				int count = outboxService.publishPending(properties.batchSize());
+				published.increment(count);
+				if (count < properties.batchSize()) {
+					return;
+				}
+			}
+		} catch (RuntimeException e) {
+			failed.increment();
+			logger.warn("Outbox relay run failed.", e);
+		}
+	}
+
+	@Scheduled(initialDelayString = "${airline.outbox.purge-interval:1h}", fixedDelayString = "${airline.outbox.purge-interval:1h}")
+	public void purge() {
+		var cutoff = ZonedDateTime.now(clock).minus(properties.retention());
+		try {
+			int purged = outboxService.purgePublishedBefore(cutoff);
+			if (purged > 0) {
+				logger.info("Purged {} outbox events published before {}.", purged, cutoff);
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Outbox purge failed.", e);
+		}
+	}
+}
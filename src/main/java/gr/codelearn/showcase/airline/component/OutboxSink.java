@@ -0,0 +1,12 @@
+package gr.codelearn.showcase.airline.component;
+
+import java.util.List;
+
+/*
+ * Where the outbox relay delivers events, every sink bean receives every batch in feed order. A sink is called inside
+ * the relay transaction, throwing rolls the batch back and it is delivered again on the next run, to every sink.
+ * Delivery is therefore at least once, consumers deduplicate by position.
+ */
+public interface OutboxSink {
+	void publish(List<ReservationStatusChanged> events);
+}
@@ -0,0 +1,77 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.ReservationReaperProperties;
+import gr.codelearn.showcase.airline.service.ReservationExpiryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Expires PENDING reservations older than the hold time, oldest first, in bounded batches of one transaction each.
+ * SKIP LOCKED lets every node run it without queueing on each other.
+ */
+@Component
+@ConditionalOnProperty(prefix = "airline.reservation-reaper", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PendingReservationReaper extends BaseComponent {
+	private final ReservationExpiryService expiryService;
+	private final ReservationReaperProperties properties;
+	private final Clock clock;
+	private final Counter reclaimed;
+	private final Timer succeeded;
+	private final Timer failed;
+
+	public PendingReservationReaper(final ReservationExpiryService expiryService, final ReservationReaperProperties properties,
+									final Clock clock, final MeterRegistry registry) {
+		this.expiryService = expiryService;
+		this.properties = properties;
+		this.clock = clock;
+		reclaimed = Counter.builder("airline.reservations.expired")
+						   .description("Seats reclaimed from PENDING reservations past their hold time")
+						   .tag("action", properties.action().name().toLowerCase(Locale.ROOT))
+						   .register(registry);
+		succeeded = runTimer(registry, "success");
+		failed = runTimer(registry, "error");
+	}
+
+	private static Timer runTimer(final MeterRegistry registry, final String outcome) {
+		return Timer.builder("airline.reservations.reaper")
+					.description("Reaper runs, from the first batch to the last")
+					.tag("outcome", outcome)
+					.register(registry);
+	}
+
+	@Scheduled(initialDelayString = "${airline.reservation-reaper.interval:1m}",
+			   fixedDelayString = "${airline.reservation-reaper.interval:1m}")
+	public void reap() {
+		var cutoff = ZonedDateTime.now(clock).minus(properties.holdTime());
+		long start = System.nanoTime();
+		int total = 0;
+		try {
+			// A short batch means nothing older is left, the next run picks up whatever expires meanwhile
+			for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+				int expired = expiryService.expirePending(cutoff, properties.batchSize(), properties.action());
+				total += expired;
+				reclaimed.increment(expired);
+				if (expired < properties.batchSize()) {
+					break;
+				}
+			}
+			succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		} catch (RuntimeException e) {
+			failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			logger.warn("Reservation reaper stopped after {} expired reservations.", total, e);
+			return;
+		}
+		if (total > 0) {
+			logger.info("Expired {} PENDING reservations created before {}.", total, cutoff);
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+import java.time.Instant;
+
+// A PENDING reservation accepted by the write-behind ring, everything its row is inserted from
+public record QueuedReservation(Long id, Long flightId, String customerEmail, SeatClass seatClass, String seatNumber,
+								Instant createdAt) {
+}
@@ -0,0 +1,92 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.domain.FlightInventory;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.repository.FlightInventoryRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+ * Inserts a write-behind batch as one multi-row statement, after creating missing customers in email order. Rows
+ * already there are skipped, only the ids actually inserted are counted in flight_inventory.
+ */
+@Component
+public class ReservationBatchWriter {
+	private static final String INSERT_CUSTOMERS = """
+												   insert into customers (id, full_name, email)
+												   select nextval('customers_seq'), e.email, e.email
+												   from (select distinct unnest(?::text[]) as email order by 1) e
+												   where not exists (select 1 from customers c where c.email = e.email)
+												   on conflict (email) do nothing""";
+	private static final String INSERT_RESERVATIONS = """
+													  insert into reservations (id, flight_id, customer_id, seat_class, seat_number, status, version, created_at)
+													  select v.id, v.flight_id, c.id, v.seat_class, v.seat_number, 'PENDING', 0, v.created_at
+													  from (values %s) as v(id, flight_id, email, seat_class, seat_number, created_at)
+													  join customers c on c.email = v.email
+													  on conflict do nothing
+													  returning id, flight_id, seat_class""";
+	private static final String ROW = "(?::bigint, ?::bigint, ?, ?, ?, ?::timestamptz)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final FlightInventoryRepository inventoryRepo;
+	private final ReservationOutbox outbox;
+	private final TransactionTemplate transactionTemplate;
+
+	public ReservationBatchWriter(final JdbcTemplate jdbcTemplate, final FlightInventoryRepository inventoryRepo,
+								  final ReservationOutbox outbox, final PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.inventoryRepo = inventoryRepo;
+		this.outbox = outbox;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	// Inserts the batch in one transaction and returns the ids of the rows that were not already taken
+	public Set<Long> insert(final List<QueuedReservation> reservations) {
+		if (reservations.isEmpty()) {
+			return Set.of();
+		}
+		return transactionTemplate.execute(status -> {
+			var emails = reservations.stream().map(QueuedReservation::customerEmail).distinct().toArray();
+			jdbcTemplate.update(INSERT_CUSTOMERS, ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", emails)));
+
+			var sql = INSERT_RESERVATIONS.formatted(String.join(", ", Collections.nCopies(reservations.size(), ROW)));
+			List<Inserted> inserted = jdbcTemplate.query(sql, ps -> bind(ps, reservations),
+														 (rs, row) -> new Inserted(rs.getLong(1), rs.getLong(2),
+																				   SeatClass.valueOf(rs.getString(3))));
+
+			// One counter increment per flight and seat class of the rows that made it in
+			inserted.stream()
+					.collect(Collectors.groupingBy(i -> new FlightInventory.Key(i.flightId(), i.seatClass()), Collectors.counting()))
+					.forEach((key, count) -> inventoryRepo.reserved(key.getFlightId(), key.getSeatClass(), count));
+			var ids = inserted.stream().map(Inserted::id).toList();
+			outbox.createdByIds(ids);
+			return new HashSet<>(ids);
+		});
+	}
+
+	private static void bind(final PreparedStatement ps, final List<QueuedReservation> reservations) throws SQLException {
+		int index = 1;
+		for (QueuedReservation reservation : reservations) {
+			ps.setLong(index++, reservation.id());
+			ps.setLong(index++, reservation.flightId());
+			ps.setString(index++, reservation.customerEmail());
+			ps.setString(index++, reservation.seatClass().name());
+			ps.setString(index++, reservation.seatNumber());
+			ps.setObject(index++, reservation.createdAt().atOffset(ZoneOffset.UTC));
+		}
+	}
+
+	private record Inserted(Long id, Long flightId, SeatClass seatClass) {
+	}
+}
@@ -0,0 +1,245 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/*
+ * Segment files of write-behind bookings, forced to disk once per ring batch. Replay stops at the first record failing
+ * its CRC32 and skips those up to the persisted checkpoint, segments are deleted once fully persisted.
+ */
+public class ReservationJournal implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(ReservationJournal.class);
+	private static final String SUFFIX = ".journal";
+	private static final String CHECKPOINT = "persisted.checkpoint";
+	private static final int MAX_RECORD_SIZE = 64 * 1024;
+
+	private final Path directory;
+	private final long segmentSize;
+	private final boolean fsync;
+	private final Deque<Segment> closed = new ConcurrentLinkedDeque<>();
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+	private final DataOutputStream recordOut = new DataOutputStream(record);
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+	private final DataOutputStream bufferOut = new DataOutputStream(buffer);
+	private final CRC32 crc = new CRC32();
+	private final long openedAt = System.currentTimeMillis();
+	private long nextIndex;
+	private Path current;
+	private FileChannel channel;
+	private long lastSequence = -1;
+	private long checkpointed = -1;
+
+	private ReservationJournal(final Path directory, final long segmentSize, final boolean fsync) {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.fsync = fsync;
+	}
+
+	// Segment names start with the time the journal was opened, segments of earlier runs are expected to be replayed by then
+	public static ReservationJournal open(final Path directory, final long segmentSize, final boolean fsync) throws IOException {
+		Files.createDirectories(directory);
+		var journal = new ReservationJournal(directory, segmentSize, fsync);
+		journal.startSegment();
+		return journal;
+	}
+
+	public static List<Path> segmentsIn(final Path directory) throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return List.of();
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+		}
+	}
+
+	public static List<QueuedReservation> read(final Path segment) throws IOException {
+		return read(segment, -1);
+	}
+
+	// The segment's reservations past the checkpoint left in its directory, when the checkpoint is of the same run
+	public static List<QueuedReservation> unpersisted(final Path segment) throws IOException {
+		var checkpoint = segment.resolveSibling(CHECKPOINT);
+		if (!Files.exists(checkpoint)) {
+			return read(segment);
+		}
+		var fields = Files.readString(checkpoint, StandardCharsets.US_ASCII).trim().split(" ");
+		if (fields.length != 2 || !segment.getFileName().toString().startsWith(fields[0] + "-")) {
+			return read(segment);
+		}
+		return read(segment, Long.parseLong(fields[1]));
+	}
+
+	private static List<QueuedReservation> read(final Path segment, final long persistedSequence) throws IOException {
+		List<QueuedReservation> reservations = new ArrayList<>();
+		try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+			var crc = new CRC32();
+			while (true) {
+				int length;
+				try {
+					length = in.readInt();
+				} catch (EOFException e) {
+					return reservations;
+				}
+				if (length <= 0 || length > MAX_RECORD_SIZE) {
+					logger.warn("Journal segment {} is corrupt after {} records, ignoring the rest.", segment, reservations.size());
+					return reservations;
+				}
+				var payload = new byte[length];
+				try {
+					in.readFully(payload);
+					crc.reset();
+					crc.update(payload);
+					if ((int) crc.getValue() != in.readInt()) {
+						logger.warn("Journal segment {} is corrupt after {} records, ignoring the rest.", segment,
+									reservations.size());
+						return reservations;
+					}
+				} catch (EOFException e) {
+					logger.warn("Journal segment {} ends with a partial record after {} records.", segment, reservations.size());
+					return reservations;
+				}
+				var record = new DataInputStream(new ByteArrayInputStream(payload));
+				if (record.readLong() > persistedSequence) {
+					reservations.add(decode(record));
+				}
+			}
+		}
+	}
+
+	public void append(final QueuedReservation reservation, final long sequence) {
+		try {
+			record.reset();
+			recordOut.writeLong(sequence);
+			recordOut.writeLong(reservation.id());
+			recordOut.writeLong(reservation.flightId());
+			recordOut.writeUTF(reservation.customerEmail());
+			recordOut.writeUTF(reservation.seatClass().name());
+			recordOut.writeUTF(reservation.seatNumber());
+			recordOut.writeLong(reservation.createdAt().getEpochSecond());
+			recordOut.writeInt(reservation.createdAt().getNano());
+			crc.reset();
+			crc.update(record.toByteArray());
+			bufferOut.writeInt(record.size());
+			record.writeTo(bufferOut);
+			bufferOut.writeInt((int) crc.getValue());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		lastSequence = sequence;
+	}
+
+	// Writes everything appended since the last flush, the ring calls it at the end of each of its batches
+	public void flush() {
+		try {
+			if (buffer.size() > 0) {
+				var bytes = ByteBuffer.wrap(buffer.toByteArray());
+				while (bytes.hasRemaining()) {
+					channel.write(bytes);
+				}
+				buffer.reset();
+				if (fsync) {
+					channel.force(false);
+				}
+			}
+			if (channel.size() >= segmentSize) {
+				closeSegment();
+				startSegment();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * Records that every reservation up to and including the given ring sequence was inserted: the checkpoint is
+	 * rewritten and closed segments holding nothing later are deleted.
+	 */
+	public void release(final long persistedSequence) {
+		checkpoint(persistedSequence);
+		Segment segment;
+		while ((segment = closed.peekFirst()) != null && segment.lastSequence() <= persistedSequence) {
+			closed.pollFirst();
+			try {
+				Files.deleteIfExists(segment.path());
+			} catch (IOException e) {
+				logger.warn("Could not delete journal segment {}, it will be replayed on the next start.", segment.path(), e);
+			}
+		}
+	}
+
+	private synchronized void checkpoint(final long persistedSequence) {
+		if (persistedSequence <= checkpointed) {
+			return;
+		}
+		var target = directory.resolve(CHECKPOINT);
+		var temporary = directory.resolve(CHECKPOINT + ".tmp");
+		try {
+			try (var out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+											StandardOpenOption.TRUNCATE_EXISTING)) {
+				out.write(ByteBuffer.wrap("%013d %d".formatted(openedAt, persistedSequence).getBytes(StandardCharsets.US_ASCII)));
+				if (fsync) {
+					out.force(false);
+				}
+			}
+			Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			checkpointed = persistedSequence;
+		} catch (IOException e) {
+			// Without it a crash replays more than needed, the previous checkpoint still holds
+			logger.warn("Could not write the write-behind journal checkpoint.", e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+		closeSegment();
+	}
+
+	private void startSegment() throws IOException {
+		current = directory.resolve("%013d-%06d%s".formatted(openedAt, nextIndex++, SUFFIX));
+		channel = FileChannel.open(current, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+	}
+
+	private void closeSegment() throws IOException {
+		boolean empty = channel.size() == 0;
+		channel.close();
+		if (empty) {
+			Files.deleteIfExists(current);
+		} else {
+			closed.addLast(new Segment(current, lastSequence));
+		}
+	}
+
+	private static QueuedReservation decode(final DataInputStream in) throws IOException {
+		return new QueuedReservation(in.readLong(), in.readLong(), in.readUTF(), SeatClass.valueOf(in.readUTF()), in.readUTF(),
+									 Instant.ofEpochSecond(in.readLong(), in.readInt()));
+	}
+
+	private record Segment(Path path, long lastSequence) {
+	}
+}
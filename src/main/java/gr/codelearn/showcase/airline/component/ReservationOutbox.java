@@ -0,0 +1,81 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.OutboxProperties;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.repository.OutboxEventRepository;
+import gr.codelearn.showcase.airline.repository.projection.ExpiredReservation;
+import gr.codelearn.showcase.airline.repository.projection.ReservationState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Records reservation status changes as outbox_events rows for OutboxRelay. Must be called inside the transaction
+ * making the change, nothing is written with airline.outbox.enabled off.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationOutbox {
+	private final OutboxEventRepository outboxRepo;
+	private final OutboxProperties properties;
+	private final Clock clock;
+
+	public void created(final Collection<Reservation> reservations) {
+		if (!properties.enabled() || reservations.isEmpty()) {
+			return;
+		}
+		var now = ZonedDateTime.now(clock);
+		outboxRepo.saveAll(reservations.stream()
+									   .map(r -> event(r, null, BookingStatus.PENDING, now))
+									   .toList());
+	}
+
+	// Reservations inserted by plain SQL in the current transaction, read back by id
+	public void createdByIds(final List<Long> reservationIds) {
+		if (properties.enabled() && !reservationIds.isEmpty()) {
+			outboxRepo.insertCreatedByReservationIdIn(reservationIds);
+		}
+	}
+
+	public void changed(final Reservation reservation, final BookingStatus previous) {
+		if (!properties.enabled() || previous == reservation.getStatus()) {
+			return;
+		}
+		outboxRepo.saveAll(List.of(event(reservation, previous, reservation.getStatus(), ZonedDateTime.now(clock))));
+	}
+
+	public void changed(final Collection<ReservationState> states, final BookingStatus from, final BookingStatus to) {
+		if (!properties.enabled() || from == to || states.isEmpty()) {
+			return;
+		}
+		var now = ZonedDateTime.now(clock);
+		outboxRepo.saveAll(states.stream()
+								 .map(s -> new OutboxEvent(null, s.getId(), s.getFlightId(), s.getSeatClass(), s.getSeatNumber(), from,
+														   to, now, null, null))
+								 .toList());
+	}
+
+	// Expired reservations lose their seat whether their row is cancelled or deleted, both are reported as cancelled
+	public void expired(final Collection<ExpiredReservation> expired) {
+		if (!properties.enabled() || expired.isEmpty()) {
+			return;
+		}
+		var now = ZonedDateTime.now(clock);
+		outboxRepo.saveAll(expired.stream()
+								  .map(e -> new OutboxEvent(null, e.getId(), e.getFlightId(), e.getSeatClass(), e.getSeatNumber(),
+															BookingStatus.PENDING, BookingStatus.CANCELLED, now, null, null))
+								  .toList());
+	}
+
+	private static OutboxEvent event(final Reservation reservation, final BookingStatus previous, final BookingStatus status,
+									 final ZonedDateTime now) {
+		return new OutboxEvent(null, reservation.getId(), reservation.getFlight().getId(), reservation.getSeatClass(),
+							   reservation.getSeatNumber(), previous, status, now, null, null);
+	}
+}
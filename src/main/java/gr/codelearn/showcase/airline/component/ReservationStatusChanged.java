@@ -0,0 +1,17 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+import java.time.ZonedDateTime;
+
+// A published outbox event, position orders the feed and previousStatus is null for newly created reservations
+public record ReservationStatusChanged(long position, Long reservationId, Long flightId, SeatClass seatClass, String seatNumber,
+									   BookingStatus previousStatus, BookingStatus status, ZonedDateTime occurredAt) {
+	public static ReservationStatusChanged of(final OutboxEvent event) {
+		return new ReservationStatusChanged(event.getFeedPosition(), event.getReservationId(), event.getFlightId(),
+											event.getSeatClass(), event.getSeatNumber(), event.getPreviousStatus(), event.getStatus(),
+											event.getOccurredAt());
+	}
+}
@@ -0,0 +1,375 @@
+package gr.codelearn.showcase.airline.component;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import gr.codelearn.showcase.airline.config.WriteBehindProperties;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.exception.ServiceOverloadedException;
+import gr.codelearn.showcase.airline.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Accepted bookings go through a Disruptor ring, one consumer journals them and a second inserts them in batches. The
+ * journal is replayed on start, a full ring answers 503 and failed batches are retried until they succeed.
+ */
+@Component
+public class ReservationWriteBehind extends BaseComponent implements SmartLifecycle {
+	private static final long RETRY_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+	private final WriteBehindProperties properties;
+	private final ReservationBatchWriter batchWriter;
+	private final ReservationRepository reservationRepo;
+	private final SeatInventory seatInventory;
+	private final SeatInventoryLoader seatInventoryLoader;
+	private final Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+	private final Sequence journaled = new Sequence(-1);
+	private final Sequence persisted = new Sequence(-1);
+	private final ReentrantLock progressLock = new ReentrantLock();
+	private final Condition progressed = progressLock.newCondition();
+	private final ReentrantLock idLock = new ReentrantLock();
+	private final Counter rejected;
+	private final Counter persistedCount;
+	private final Counter dropped;
+	private final Timer batchTimer;
+	private long nextId;
+	private long idLimit;
+	private Disruptor<Slot> disruptor;
+	private RingBuffer<Slot> ringBuffer;
+	private ReservationJournal journal;
+	private volatile boolean running;
+	private volatile boolean journalFailed;
+
+	public ReservationWriteBehind(final WriteBehindProperties properties, final ReservationBatchWriter batchWriter,
+								  final ReservationRepository reservationRepo, final SeatInventory seatInventory,
+								  final SeatInventoryLoader seatInventoryLoader, final MeterRegistry registry) {
+		this.properties = properties;
+		this.batchWriter = batchWriter;
+		this.reservationRepo = reservationRepo;
+		this.seatInventory = seatInventory;
+		this.seatInventoryLoader = seatInventoryLoader;
+		rejected = Counter.builder("airline.write-behind.rejected")
+						  .description("Bookings turned away because the write-behind ring was full")
+						  .register(registry);
+		persistedCount = Counter.builder("airline.write-behind.persisted")
+								.description("Write-behind bookings inserted into reservations")
+								.register(registry);
+		dropped = Counter.builder("airline.write-behind.dropped")
+						 .description("Write-behind bookings that could not be inserted")
+						 .register(registry);
+		batchTimer = Timer.builder("airline.write-behind.batch")
+						  .description("Time taken to insert one write-behind batch")
+						  .register(registry);
+		Gauge.builder("airline.write-behind.backlog", this, ReservationWriteBehind::backlog)
+			 .description("Bookings accepted but not inserted yet")
+			 .register(registry);
+	}
+
+	public boolean isEnabled() {
+		return properties.enabled();
+	}
+
+	public long nextId() {
+		idLock.lock();
+		try {
+			if (nextId >= idLimit) {
+				nextId = reservationRepo.nextIdBlock();
+				idLimit = nextId + Reservation.ID_ALLOCATION_SIZE;
+			}
+			return nextId++;
+		} finally {
+			idLock.unlock();
+		}
+	}
+
+	/*
+	 * Hands the booking to the ring and, with fsync on, returns once it is on disk however long that takes. Throws
+	 * ServiceOverloadedException when no slot frees up within publish-timeout or the journal cannot be written, the
+	 * booking is then never inserted and the caller, still owning the seat it claimed, has to give it back.
+	 */
+	public void publish(final QueuedReservation reservation) {
+		if (!running || journalFailed) {
+			throw new ServiceOverloadedException("Bookings are not being accepted right now.", properties.retryAfter());
+		}
+		long sequence = claim();
+		inFlight.put(reservation.id(), sequence);
+		try {
+			ringBuffer.get(sequence).reservation = reservation;
+		} finally {
+			ringBuffer.publish(sequence);
+		}
+		if (properties.fsync()) {
+			awaitJournaled(sequence);
+		}
+	}
+
+	// Waits until the reservation is in the database, if it is still on its way there
+	public void awaitPersisted(final Long reservationId) {
+		var sequence = inFlight.get(reservationId);
+		if (sequence != null && !await(persisted, sequence)) {
+			throw new ServiceOverloadedException("Reservation is still being saved, please retry later.", properties.retryAfter());
+		}
+	}
+
+	// Waits until every reservation published so far is in the database, for operations selecting by flight
+	public void awaitPersisted() {
+		if (running && !await(persisted, ringBuffer.getCursor())) {
+			throw new ServiceOverloadedException("Reservations are still being saved, please retry later.", properties.retryAfter());
+		}
+	}
+
+	public long backlog() {
+		return ringBuffer == null ? 0 : ringBuffer.getCursor() - persisted.get();
+	}
+
+	@Override
+	public void start() {
+		if (!properties.enabled()) {
+			return;
+		}
+		try {
+			recover();
+			seatInventoryLoader.load();
+			journal = ReservationJournal.open(properties.journalDirectory(), properties.segmentSize().toBytes(), properties.fsync());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not open the write-behind journal", e);
+		}
+		disruptor = new Disruptor<>(Slot::new, properties.ringSize(), Thread.ofPlatform().name("write-behind-", 0).daemon().factory(),
+									ProducerType.MULTI, new BlockingWaitStrategy());
+		disruptor.handleEventsWith(new JournalHandler()).then(new PersistHandler());
+		ringBuffer = disruptor.start();
+		running = true;
+		logger.info("Write-behind booking started, ring of {} slots, journal in {}.", properties.ringSize(),
+					properties.journalDirectory().toAbsolutePath());
+	}
+
+	@Override
+	public void stop() {
+		if (disruptor == null) {
+			return;
+		}
+		running = false;
+		try {
+			// Anything the ring still holds is in the journal, if it cannot be inserted now it is on the next start
+			disruptor.shutdown(properties.persistTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			logger.warn("{} bookings were left in the write-behind journal for the next start.", backlog());
+			disruptor.halt();
+		}
+		try {
+			journal.close();
+			journal.release(persisted.get());
+		} catch (IOException e) {
+			logger.warn("Could not close the write-behind journal.", e);
+		}
+		disruptor = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return disruptor != null;
+	}
+
+	// Started before and stopped after the web server, no request sees the ring before recovery or after it is drained
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 4096;
+	}
+
+	private void recover() throws IOException {
+		var segments = ReservationJournal.segmentsIn(properties.journalDirectory());
+		int journaled = 0;
+		int replayed = 0;
+		for (var segment : segments) {
+			var reservations = ReservationJournal.unpersisted(segment);
+			journaled += reservations.size();
+			for (int from = 0; from < reservations.size(); from += properties.batchSize()) {
+				var batch = reservations.subList(from, Math.min(reservations.size(), from + properties.batchSize()));
+				replayed += insert(batch, true);
+			}
+			Files.delete(segment);
+		}
+		if (!segments.isEmpty()) {
+			logger.info("Replayed {} journaled bookings from {} segments, {} of them were not in the database yet.", journaled,
+						segments.size(), replayed);
+		}
+	}
+
+	private long claim() {
+		long deadline = System.nanoTime() + properties.publishTimeout().toNanos();
+		while (true) {
+			try {
+				return ringBuffer.tryNext();
+			} catch (InsufficientCapacityException e) {
+				if (System.nanoTime() - deadline >= 0) {
+					rejected.increment();
+					throw new ServiceOverloadedException("Too many bookings are waiting to be saved, please retry later.",
+														 properties.retryAfter());
+				}
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+			}
+		}
+	}
+
+	private boolean await(final Sequence sequence, final long target) {
+		if (sequence.get() >= target) {
+			return true;
+		}
+		long remaining = properties.persistTimeout().toNanos();
+		progressLock.lock();
+		try {
+			while (sequence.get() < target) {
+				if (remaining <= 0) {
+					return false;
+				}
+				remaining = progressed.awaitNanos(remaining);
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			progressLock.unlock();
+		}
+	}
+
+	// Unlike the other waits this one has no timeout, a booking whose journal write is in progress cannot be turned down
+	private void awaitJournaled(final long sequence) {
+		progressLock.lock();
+		try {
+			while (journaled.get() < sequence) {
+				if (journalFailed) {
+					throw new ServiceOverloadedException("Bookings cannot be saved right now.", properties.retryAfter());
+				}
+				progressed.awaitUninterruptibly();
+			}
+		} finally {
+			progressLock.unlock();
+		}
+	}
+
+	private void advance(final Sequence sequence, final long value) {
+		sequence.set(value);
+		progressLock.lock();
+		try {
+			progressed.signalAll();
+		} finally {
+			progressLock.unlock();
+		}
+	}
+
+	/*
+	 * Inserts the batch, retrying for as long as the database is unavailable. Returns how many rows were inserted, rows
+	 * skipped as duplicates are only expected while replaying the journal.
+	 */
+	private int insert(final List<QueuedReservation> batch, final boolean replay) {
+		while (true) {
+			try {
+				long start = System.nanoTime();
+				var inserted = batchWriter.insert(batch);
+				batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				persistedCount.increment(inserted.size());
+				if (!replay && inserted.size() < batch.size()) {
+					batch.stream().filter(r -> !inserted.contains(r.id())).forEach(r -> {
+						// Only another node booking the same seat gets here, its row holds the seat now
+						dropped.increment();
+						logger.warn("Reservation {} lost seat {} of flight {} to a conflicting booking.", r.id(), r.seatNumber(),
+									r.flightId());
+					});
+				}
+				return inserted.size();
+			} catch (DataIntegrityViolationException e) {
+				if (batch.size() == 1) {
+					var reservation = batch.getFirst();
+					dropped.increment();
+					logger.error("Reservation {} could not be inserted and was dropped.", reservation.id(), e);
+					if (!replay) {
+						seatInventory.released(reservation.flightId(), reservation.seatNumber());
+					}
+					return 0;
+				}
+				return batch.stream().mapToInt(reservation -> insert(List.of(reservation), replay)).sum();
+			} catch (RuntimeException e) {
+				// Replays run before the application is up and stopping leaves the batch to the journal
+				if (replay || !running) {
+					throw e;
+				}
+				logger.error("Inserting {} write-behind bookings failed, retrying.", batch.size(), e);
+				LockSupport.parkNanos(RETRY_BACKOFF_NANOS);
+			}
+		}
+	}
+
+	private static final class Slot {
+		private QueuedReservation reservation;
+	}
+
+	private final class JournalHandler implements EventHandler<Slot> {
+		@Override
+		public void onEvent(final Slot slot, final long sequence, final boolean endOfBatch) {
+			try {
+				journal.append(slot.reservation, sequence);
+				if (endOfBatch) {
+					journal.flush();
+					advance(journaled, sequence);
+				}
+			} catch (RuntimeException e) {
+				// Nothing past this point reaches the database, waiting publishers fail instead of hanging
+				journalFailed = true;
+				advance(journaled, journaled.get());
+				throw e;
+			}
+		}
+	}
+
+	private final class PersistHandler implements EventHandler<Slot> {
+		private final List<QueuedReservation> batch = new ArrayList<>();
+		private boolean abandoned;
+
+		@Override
+		public void onEvent(final Slot slot, final long sequence, final boolean endOfBatch) {
+			batch.add(slot.reservation);
+			slot.reservation = null;
+			if (batch.size() < properties.batchSize() && !endOfBatch) {
+				return;
+			}
+			try {
+				// Once a batch is left to the journal, later ones are too, their segments must not be released
+				if (!abandoned) {
+					insert(batch, false);
+					batch.forEach(reservation -> inFlight.remove(reservation.id()));
+					advance(persisted, sequence);
+					journal.release(sequence);
+				}
+			} catch (RuntimeException e) {
+				abandoned = true;
+				logger.warn("Stopped while bookings could not be inserted, they stay in the journal for the next start.", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.repository.projection.SeatOccupancy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Seats taken per flight, one bit per row/letter seat ("12C"), and confirmed counts. Bookings reject from it only while
+ * SeatInventorySync keeps it current with the changes of every node, uk_flight_seat_active stays the final authority.
+ * In write-behind mode seats are claimed by test-and-set on the bitmap, which assumes a single booking node.
+ */
+@Component
+public class SeatInventory extends BaseComponent {
+	private static final int SEATS_PER_ROW = 26;
+
+	private final Map<Long, FlightSeats> flights = new ConcurrentHashMap<>();
+	private volatile long feedPosition = -1;
+	private volatile long currentUntil = System.nanoTime();
+
+	// Outbox feed position the loaded seats are known to include, -1 until they are loaded
+	public long feedPosition() {
+		return feedPosition;
+	}
+
+	// Changes up to the feed position are applied, rejections are trusted for validFor from now
+	public void synced(final long feedPosition, final Duration validFor) {
+		this.feedPosition = feedPosition;
+		this.currentUntil = System.nanoTime() + validFor.toNanos();
+	}
+
+	public boolean isCurrent() {
+		return feedPosition >= 0 && System.nanoTime() - currentUntil < 0;
+	}
+
+	public void track(final Flight flight) {
+		flights.computeIfAbsent(flight.getId(), id -> new FlightSeats(flight.getCapacity()));
+	}
+
+	public void load(final SeatOccupancy occupancy) {
+		var seats = flights.computeIfAbsent(occupancy.getFlightId(), id -> new FlightSeats(occupancy.getCapacity()));
+		seats.take(occupancy.getSeatNumber());
+		if (occupancy.getStatus() == BookingStatus.CONFIRMED) {
+			seats.confirm();
+		}
+	}
+
+	public boolean isSeatTaken(final Long flightId, final String seatNumber) {
+		var seats = flights.get(flightId);
+		return seats != null && seats.isTaken(seatNumber);
+	}
+
+	public boolean isFull(final Long flightId) {
+		var seats = flights.get(flightId);
+		return seats != null && seats.isFull();
+	}
+
+	public void seatTaken(final Long flightId, final String seatNumber) {
+		var seats = flights.get(flightId);
+		if (seats != null) {
+			seats.take(seatNumber);
+		}
+	}
+
+	public void seatFree(final Long flightId, final String seatNumber) {
+		var seats = flights.get(flightId);
+		if (seats != null) {
+			seats.free(seatNumber);
+		}
+	}
+
+	public void confirmedCount(final Long flightId, final long confirmed) {
+		var seats = flights.get(flightId);
+		if (seats != null) {
+			seats.confirmed((int) confirmed);
+		}
+	}
+
+	public void reserved(final Reservation reservation) {
+		if (reservation.getFlight() != null) {
+			reserved(reservation.getFlight().getId(), reservation.getSeatNumber());
+		}
+	}
+
+	public void reserved(final Long flightId, final String seatNumber) {
+		var seats = flights.get(flightId);
+		if (seats != null) {
+			seats.take(seatNumber);
+		}
+	}
+
+	public boolean tryReserve(final Flight flight, final String seatNumber) {
+		var seats = flights.computeIfAbsent(flight.getId(), id -> new FlightSeats(flight.getCapacity()));
+		return seats.tryTake(seatNumber);
+	}
+
+	public void confirmed(final Reservation reservation, final BookingStatus previous) {
+		if (reservation.getFlight() != null) {
+			confirmed(reservation.getFlight().getId(), previous);
+		}
+	}
+
+	public void confirmed(final Long flightId, final BookingStatus previous) {
+		var seats = flights.get(flightId);
+		if (seats != null && previous != BookingStatus.CONFIRMED) {
+			seats.confirm();
+		}
+	}
+
+	public void cancelled(final Reservation reservation, final BookingStatus previous) {
+		if (reservation.getFlight() != null) {
+			cancelled(reservation.getFlight().getId(), reservation.getSeatNumber(), previous);
+		}
+	}
+
+	public void cancelled(final Long flightId, final String seatNumber, final BookingStatus previous) {
+		var seats = flights.get(flightId);
+		if (seats == null || previous == BookingStatus.CANCELLED) {
+			return;
+		}
+		seats.free(seatNumber);
+		if (previous == BookingStatus.CONFIRMED) {
+			seats.release();
+		}
+	}
+
+	public void released(final Long flightId, final String seatNumber) {
+		var seats = flights.get(flightId);
+		if (seats != null) {
+			seats.free(seatNumber);
+		}
+	}
+
+	/*
+	 * Maps "12C" to ((12 - 1) * 26) + 2. Anything that does not follow the row/letter convention returns -1 and is
+	 * kept in a small overflow set instead.
+	 */
+	static int seatIndex(final String seatNumber) {
+		if (seatNumber == null) {
+			return -1;
+		}
+		int length = seatNumber.length();
+		if (length < 2 || length > 4) {
+			return -1;
+		}
+		char letter = seatNumber.charAt(length - 1);
+		if (letter < 'A' || letter > 'Z') {
+			return -1;
+		}
+		int row = 0;
+		for (int i = 0; i < length - 1; i++) {
+			char digit = seatNumber.charAt(i);
+			if (digit < '0' || digit > '9') {
+				return -1;
+			}
+			row = row * 10 + (digit - '0');
+		}
+		return row == 0 ? -1 : (row - 1) * SEATS_PER_ROW + (letter - 'A');
+	}
+
+	private static final class FlightSeats {
+		private final int capacity;
+		private final BitSet taken;
+		private final Set<String> overflow = new HashSet<>();
+		private int confirmed;
+
+		private FlightSeats(final int capacity) {
+			this.capacity = capacity;
+			this.taken = new BitSet(capacity);
+		}
+
+		synchronized boolean isTaken(final String seatNumber) {
+			int index = seatIndex(seatNumber);
+			return index >= 0 ? taken.get(index) : overflow.contains(seatNumber);
+		}
+
+		synchronized void take(final String seatNumber) {
+			int index = seatIndex(seatNumber);
+			if (index >= 0) {
+				taken.set(index);
+			} else if (seatNumber != null) {
+				overflow.add(seatNumber);
+			}
+		}
+
+		synchronized boolean tryTake(final String seatNumber) {
+			if (isTaken(seatNumber)) {
+				return false;
+			}
+			take(seatNumber);
+			return true;
+		}
+
+		synchronized void free(final String seatNumber) {
+			int index = seatIndex(seatNumber);
+			if (index >= 0) {
+				taken.clear(index);
+			} else {
+				overflow.remove(seatNumber);
+			}
+		}
+
+		synchronized boolean isFull() {
+			return confirmed >= capacity;
+		}
+
+		synchronized void confirm() {
+			confirmed++;
+		}
+
+		synchronized void release() {
+			if (confirmed > 0) {
+				confirmed--;
+			}
+		}
+
+		synchronized void confirmed(final int confirmed) {
+			this.confirmed = confirmed;
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.repository.ReservationRepository;
+import gr.codelearn.showcase.airline.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+@Component
+@RequiredArgsConstructor
+public class SeatInventoryLoader extends BaseComponent {
+	private final ReservationRepository reservationRepo;
+	private final SeatInventory seatInventory;
+	private final OutboxService outboxService;
+	private final Clock clock;
+	private boolean loaded;
+
+	// Write-behind mode loads it before taking bookings, the second call is then a no-op
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void load() {
+		if (loaded) {
+			return;
+		}
+		// Read first, changes published while the seats are read are applied again by SeatInventorySync
+		long position = outboxService.lastPosition();
+		var occupancies = reservationRepo.findSeatOccupancyByDepartureAfter(ZonedDateTime.now(clock));
+		occupancies.forEach(seatInventory::load);
+		seatInventory.synced(position, Duration.ZERO);
+		loaded = true;
+		logger.info("Seat inventory warmed up with {} reserved seats.", occupancies.size());
+	}
+}
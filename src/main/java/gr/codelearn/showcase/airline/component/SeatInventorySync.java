@@ -0,0 +1,78 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.SeatInventoryProperties;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
+import gr.codelearn.showcase.airline.repository.FlightInventoryRepository;
+import gr.codelearn.showcase.airline.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Applies the seat changes of every node, read from the outbox feed, to the seat inventory. The inventory is only
+ * trusted for rejections while these runs succeed and the relay keeps up, otherwise bookings go to the database.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "airline.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SeatInventorySync extends BaseComponent {
+	private static final int BATCH_SIZE = 1000;
+
+	private final OutboxService outboxService;
+	private final FlightInventoryRepository inventoryRepo;
+	private final SeatInventory seatInventory;
+	private final SeatInventoryProperties properties;
+	private final Clock clock;
+
+	@Scheduled(initialDelayString = "${airline.seat-inventory.sync-interval:500ms}",
+			   fixedDelayString = "${airline.seat-inventory.sync-interval:500ms}")
+	public void sync() {
+		long position = seatInventory.feedPosition();
+		if (position < 0) {
+			return;
+		}
+		try {
+			// Checked first, events the relay publishes meanwhile are read below and the next run sees the rest
+			boolean behind = outboxService.isBehind(ZonedDateTime.now(clock).minus(properties.maxLag()));
+			Set<Long> flightIds = new HashSet<>();
+			List<OutboxEvent> events;
+			do {
+				events = outboxService.eventsAfter(position, BATCH_SIZE, Duration.ZERO);
+				for (OutboxEvent event : events) {
+					apply(event);
+					flightIds.add(event.getFlightId());
+					position = event.getFeedPosition();
+				}
+			} while (events.size() == BATCH_SIZE);
+
+			if (!flightIds.isEmpty()) {
+				inventoryRepo.sumConfirmedByFlightIdIn(flightIds)
+							 .forEach(confirmed -> seatInventory.confirmedCount(confirmed.getKey(), confirmed.getValue()));
+			}
+			if (behind) {
+				logger.warn("Outbox relay is behind, seat inventory rejections are suspended.");
+			}
+			seatInventory.synced(position, behind ? Duration.ZERO : properties.maxLag());
+		} catch (RuntimeException e) {
+			logger.warn("Seat inventory sync failed.", e);
+		}
+	}
+
+	// Setting and clearing bits is idempotent, events already applied on this node by its own callbacks do no harm
+	private void apply(OutboxEvent event) {
+		if (event.getStatus() == BookingStatus.CANCELLED) {
+			seatInventory.seatFree(event.getFlightId(), event.getSeatNumber());
+		} else if (event.getPreviousStatus() == null) {
+			seatInventory.seatTaken(event.getFlightId(), event.getSeatNumber());
+		}
+	}
+}
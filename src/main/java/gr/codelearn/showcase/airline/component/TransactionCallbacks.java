@@ -0,0 +1,43 @@
+package gr.codelearn.showcase.airline.component;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionCallbacks {
+	private TransactionCallbacks() {
+	}
+
+	/*
+	 * In-memory state must only reflect what the database has actually accepted. When a transaction is active the
+	 * action is deferred until it commits, otherwise (plain unit tests, non-transactional callers) it runs immediately.
+	 */
+	public static void afterCommit(final Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	/*
+	 * Registers the action to run once the active transaction has either committed or rolled back and returns true,
+	 * or returns false without running it when there is no transaction to wait for.
+	 */
+	public static boolean afterCompletion(final Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return false;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(final int status) {
+				action.run();
+			}
+		});
+		return true;
+	}
+}
@@ -0,0 +1,14 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("airline.admission-control")
+public record AdmissionControlProperties(@DefaultValue("true") boolean enabled,
+										 @DefaultValue("50") int permits,
+										 @DefaultValue("200") int queueSize,
+										 @DefaultValue("2s") Duration maxWait,
+										 @DefaultValue("1s") Duration retryAfter) {
+}
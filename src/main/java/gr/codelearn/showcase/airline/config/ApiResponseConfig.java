@@ -0,0 +1,26 @@
+package gr.codelearn.showcase.airline.config;
+
+import gr.codelearn.showcase.airline.api.transfer.ApiResponseDefaults;
+import gr.codelearn.showcase.airline.api.transfer.TimeOrderedTransactionIdGenerator;
+import gr.codelearn.showcase.airline.api.transfer.TransactionIdGenerator;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ApiResponseConfig {
+	/*
+	 * Response ids come from a cheap time-ordered generator, a @Primary bean can replace it (e.g. with an inbound trace id).
+	 */
+	@Bean
+	TransactionIdGenerator transactionIdGenerator(final Clock clock) {
+		return new TimeOrderedTransactionIdGenerator(clock);
+	}
+
+	@Bean
+	InitializingBean apiResponseDefaults(final Clock clock, final TransactionIdGenerator transactionIdGenerator) {
+		return () -> ApiResponseDefaults.configure(clock, transactionIdGenerator);
+	}
+}
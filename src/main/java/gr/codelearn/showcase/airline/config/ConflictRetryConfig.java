@@ -0,0 +1,78 @@
+package gr.codelearn.showcase.airline.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.retry.interceptor.RetryInterceptorBuilder;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+import org.springframework.retry.support.RetryTemplate;
+
+/*
+ * Re-runs @Retryable(interceptor = CONFLICT_RETRY) methods on optimistic lock, serialization and deadlock failures,
+ * ordered before the transaction advice so every attempt is a new transaction. Backoff has jitter, retries are counted.
+ */
+@Configuration
+@EnableRetry
+public class ConflictRetryConfig {
+	public static final String CONFLICT_RETRY = "conflictRetryInterceptor";
+
+	@Bean(CONFLICT_RETRY)
+	RetryOperationsInterceptor conflictRetryInterceptor(final ConflictRetryProperties properties, final MeterRegistry registry) {
+		var template = RetryTemplate.builder()
+									.maxAttempts(properties.maxAttempts())
+									.exponentialBackoff(properties.initialBackoff(), properties.multiplier(),
+														properties.maxBackoff(), true)
+									.retryOn(ConcurrencyFailureException.class)
+									.traversingCauses()
+									.withListener(new MeteredRetryListener(registry, properties.maxAttempts()))
+									.build();
+		return RetryInterceptorBuilder.stateless().retryOperations(template).build();
+	}
+
+	static final class MeteredRetryListener implements RetryListener {
+		private final MeterRegistry registry;
+		private final int maxAttempts;
+
+		MeteredRetryListener(final MeterRegistry registry, final int maxAttempts) {
+			this.registry = registry;
+			this.maxAttempts = maxAttempts;
+		}
+
+		@Override
+		public <T, E extends Throwable> void onError(final RetryContext context, final RetryCallback<T, E> callback,
+													 final Throwable throwable) {
+			// Also called for the last failed attempt, which is not retried
+			if (throwable instanceof ConcurrencyFailureException && context.getRetryCount() < maxAttempts) {
+				counter("airline.retries", "Calls re-run after a concurrency conflict", callback, throwable).increment();
+			}
+		}
+
+		@Override
+		public <T, E extends Throwable> void close(final RetryContext context, final RetryCallback<T, E> callback,
+												   final Throwable throwable) {
+			if (throwable instanceof ConcurrencyFailureException) {
+				counter("airline.retries.exhausted", "Calls still failing on a concurrency conflict after the last attempt",
+						callback, throwable).increment();
+			}
+		}
+
+		private Counter counter(final String name, final String description, final RetryCallback<?, ?> callback,
+								final Throwable throwable) {
+			var method = callback instanceof MethodInvocationRetryCallback<?, ?> invocation
+						 ? invocation.getInvocation().getMethod().getName()
+						 : "unknown";
+			return Counter.builder(name)
+						  .description(description)
+						  .tag("method", method)
+						  .tag("exception", throwable.getClass().getSimpleName())
+						  .register(registry);
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("airline.conflict-retry")
+public record ConflictRetryProperties(@DefaultValue("4") int maxAttempts,
+									  @DefaultValue("20ms") Duration initialBackoff,
+									  @DefaultValue("2") double multiplier,
+									  @DefaultValue("200ms") Duration maxBackoff) {
+}
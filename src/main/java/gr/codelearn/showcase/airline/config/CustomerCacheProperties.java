@@ -0,0 +1,11 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("airline.customer-cache")
+public record CustomerCacheProperties(@DefaultValue("10000") int maximumSize,
+									  @DefaultValue("10m") Duration timeToLive) {
+}
@@ -0,0 +1,12 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("airline.idempotency")
+public record IdempotencyProperties(@DefaultValue("10000") int maximumSize,
+									@DefaultValue("24h") Duration retention,
+									@DefaultValue("1h") Duration purgeInterval) {
+}
@@ -0,0 +1,30 @@
+package gr.codelearn.showcase.airline.config;
+
+import gr.codelearn.showcase.airline.component.CustomerCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+	/*
+	 * Meters read the cache's own counters when scraped, the cache itself knows nothing about the registry.
+	 */
+	@Bean
+	MeterBinder customerCacheMetrics(final CustomerCache cache) {
+		return registry -> {
+			FunctionCounter.builder("airline.customer.cache.requests", cache, CustomerCache::hits)
+						   .tag("result", "hit")
+						   .register(registry);
+			FunctionCounter.builder("airline.customer.cache.requests", cache, CustomerCache::misses)
+						   .tag("result", "miss")
+						   .register(registry);
+			FunctionCounter.builder("airline.customer.cache.evictions", cache, CustomerCache::evictions)
+						   .register(registry);
+			Gauge.builder("airline.customer.cache.size", cache, CustomerCache::size)
+				 .register(registry);
+		};
+	}
+}
@@ -0,0 +1,25 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties("airline.outbox")
+public record OutboxProperties(@DefaultValue("true") boolean enabled,
+							   @DefaultValue("200ms") Duration pollInterval,
+							   @DefaultValue("500") int batchSize,
+							   @DefaultValue("20") int maxBatchesPerRun,
+							   @DefaultValue("7d") Duration retention,
+							   @DefaultValue("1h") Duration purgeInterval,
+							   @DefaultValue("30s") Duration maxWait,
+							   @DefaultValue InProcessSink inProcessSink,
+							   @DefaultValue FileSink fileSink) {
+	public record InProcessSink(@DefaultValue("true") boolean enabled) {
+	}
+
+	public record FileSink(@DefaultValue("false") boolean enabled,
+						   @DefaultValue("data/outbox-events.ndjson") Path path) {
+	}
+}
@@ -0,0 +1,21 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("airline.reservation-reaper")
+public record ReservationReaperProperties(@DefaultValue("true") boolean enabled,
+										  @DefaultValue("15m") Duration holdTime,
+										  @DefaultValue("1m") Duration interval,
+										  @DefaultValue("500") int batchSize,
+										  @DefaultValue("20") int maxBatchesPerRun,
+										  @DefaultValue("CANCEL") Action action) {
+	public enum Action {
+		// Expired reservations are kept as CANCELLED, for auditing
+		CANCEL,
+		// Expired reservations are removed, keeping the reservations table small
+		DELETE
+	}
+}
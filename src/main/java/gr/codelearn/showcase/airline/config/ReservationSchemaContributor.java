@@ -0,0 +1,41 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.hibernate.boot.ResourceStreamLocator;
+import org.hibernate.boot.model.relational.SimpleAuxiliaryDatabaseObject;
+import org.hibernate.boot.spi.AdditionalMappingContributions;
+import org.hibernate.boot.spi.AdditionalMappingContributor;
+import org.hibernate.boot.spi.InFlightMetadataCollector;
+import org.hibernate.boot.spi.MetadataBuildingContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+
+import java.util.Set;
+
+/*
+ * Partial indexes JPA cannot declare, contributed to Hibernate's schema tooling through META-INF/services. The creates
+ * are idempotent and no drop is given, so schema updates leave existing indexes alone.
+ */
+public class ReservationSchemaContributor implements AdditionalMappingContributor {
+	static final String ACTIVE_SEAT_INDEX = """
+											create unique index if not exists uk_flight_seat_active
+											on reservations (flight_id, seat_number) where status <> 'CANCELLED'""";
+	static final String PENDING_RESERVATIONS_INDEX = """
+													 create index if not exists idx_reservations_pending_created_at
+													 on reservations (created_at) where status = 'PENDING'""";
+	static final String UNPUBLISHED_EVENTS_INDEX = """
+												   create index if not exists idx_outbox_events_unpublished_occurred_at
+												   on outbox_events (occurred_at, id) where published_at is null""";
+
+	@Override
+	public String getContributorName() {
+		return "airline-reservations";
+	}
+
+	@Override
+	public void contribute(final AdditionalMappingContributions contributions, final InFlightMetadataCollector metadata,
+						   final ResourceStreamLocator resourceStreamLocator, final MetadataBuildingContext buildingContext) {
+		contributions.contributeAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+				metadata.getDatabase().getDefaultNamespace(),
+				new String[]{ACTIVE_SEAT_INDEX, PENDING_RESERVATIONS_INDEX, UNPUBLISHED_EVENTS_INDEX}, new String[0],
+				Set.of(PostgreSQLDialect.class.getName())));
+	}
+}
@@ -0,0 +1,12 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*
+ * Background jobs run on Spring's auto-configured scheduler, on virtual threads with spring.threads.virtual.enabled.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,11 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("airline.seat-inventory")
+public record SeatInventoryProperties(@DefaultValue("500ms") Duration syncInterval,
+									  @DefaultValue("5s") Duration maxLag) {
+}
@@ -0,0 +1,79 @@
+package gr.codelearn.showcase.airline.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import gr.codelearn.showcase.airline.config.SecondLevelCacheProperties.Region;
+import gr.codelearn.showcase.airline.domain.Customer;
+import gr.codelearn.showcase.airline.domain.Flight;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/*
+ * Opt-in Hibernate second-level cache regions per entity (airline.second-level-cache.<entity>), a local JCache over
+ * Caffeine with a maximum size and time to live each.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+	static final String FLIGHT_REGION = "flights";
+	static final String CUSTOMER_REGION = "customers";
+
+	@Bean(destroyMethod = "close")
+	CacheManager secondLevelCacheManager(final SecondLevelCacheProperties properties) {
+		// Each application context gets its own manager, so several contexts in one JVM (e.g. tests) do not share regions
+		var cacheManager = new CaffeineCachingProvider().getCacheManager(URI.create("airline-" + UUID.randomUUID()),
+																		   getClass().getClassLoader());
+		regions(properties).forEach((name, region) -> cacheManager.createCache(name, configuration(region)));
+		return cacheManager;
+	}
+
+	@Bean
+	HibernatePropertiesCustomizer secondLevelCacheCustomizer(final SecondLevelCacheProperties properties,
+															 final CacheManager secondLevelCacheManager) {
+		return hibernateProperties -> {
+			var regions = regions(properties);
+			hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, !regions.isEmpty());
+			if (regions.isEmpty()) {
+				return;
+			}
+			hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+			hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+			// Regions are created above, anything else asking for one is a mistake
+			hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+			if (properties.flight().enabled()) {
+				hibernateProperties.put(AvailableSettings.CLASS_CACHE_PREFIX + "." + Flight.class.getName(), "read-write," + FLIGHT_REGION);
+			}
+			if (properties.customer().enabled()) {
+				hibernateProperties.put(AvailableSettings.CLASS_CACHE_PREFIX + "." + Customer.class.getName(), "read-write," + CUSTOMER_REGION);
+			}
+		};
+	}
+
+	private static Map<String, Region> regions(final SecondLevelCacheProperties properties) {
+		Map<String, Region> regions = new LinkedHashMap<>();
+		if (properties.flight().enabled()) {
+			regions.put(FLIGHT_REGION, properties.flight());
+		}
+		if (properties.customer().enabled()) {
+			regions.put(CUSTOMER_REGION, properties.customer());
+		}
+		return regions;
+	}
+
+	private static CaffeineConfiguration<Object, Object> configuration(final Region region) {
+		var configuration = new CaffeineConfiguration<>();
+		configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+		configuration.setExpireAfterWrite(OptionalLong.of(region.timeToLive().toNanos()));
+		configuration.setStatisticsEnabled(true);
+		return configuration;
+	}
+}
@@ -0,0 +1,15 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("airline.second-level-cache")
+public record SecondLevelCacheProperties(@DefaultValue Region flight,
+										 @DefaultValue Region customer) {
+	public record Region(@DefaultValue("false") boolean enabled,
+						 @DefaultValue("10000") long maximumSize,
+						 @DefaultValue("10m") Duration timeToLive) {
+	}
+}
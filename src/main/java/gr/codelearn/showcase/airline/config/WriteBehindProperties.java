@@ -0,0 +1,20 @@
+package gr.codelearn.showcase.airline.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties("airline.write-behind")
+public record WriteBehindProperties(@DefaultValue("false") boolean enabled,
+									@DefaultValue("16384") int ringSize,
+									@DefaultValue("500") int batchSize,
+									@DefaultValue("data/write-behind") Path journalDirectory,
+									@DefaultValue("64MB") DataSize segmentSize,
+									@DefaultValue("true") boolean fsync,
+									@DefaultValue("100ms") Duration publishTimeout,
+									@DefaultValue("5s") Duration persistTimeout,
+									@DefaultValue("1s") Duration retryAfter) {
+}
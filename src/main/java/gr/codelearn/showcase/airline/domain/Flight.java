@@ -5,6 +5,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -20,10 +22,12 @@ import java.time.ZonedDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "flights")
+@Table(name = "flights",
+	   indexes = @Index(name = "idx_flights_route_departure", columnList = "origin, destination, departure_at"))
 public class Flight {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flights_seq")
+	@SequenceGenerator(name = "flights_seq", sequenceName = "flights_seq", allocationSize = 100)
 	private Long id;
 
 	@Column(nullable = false, length = 3)
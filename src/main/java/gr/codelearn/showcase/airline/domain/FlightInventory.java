@@ -0,0 +1,65 @@
+package gr.codelearn.showcase.airline.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+
+/*
+ * Reservation counters per flight and seat class, read by capacity checks instead of counting reservations. Only ever
+ * changed by relative increments in the database (FlightInventoryRepository.adjust), which also bump changes, the
+ * flight's seat map version.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(FlightInventory.Key.class)
+@Table(name = "flight_inventory")
+public class FlightInventory {
+	@Id
+	@Column(name = "flight_id")
+	private Long flightId;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(name = "seat_class")
+	private SeatClass seatClass;
+
+	@Column(nullable = false)
+	private long pending;
+
+	@Column(nullable = false)
+	private long confirmed;
+
+	@Column(nullable = false)
+	private long cancelled;
+
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private long changes;
+
+	@Getter
+	@Setter
+	@EqualsAndHashCode
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+		private Long flightId;
+		private SeatClass seatClass;
+	}
+}
@@ -0,0 +1,40 @@
+package gr.codelearn.showcase.airline.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.ZonedDateTime;
+
+/*
+ * First response to a request carrying an Idempotency-Key, with a hash of the request so that a reused key can be told
+ * apart from a retry.
+ */
+@Getter
+@Setter
+@ToString(exclude = "response")
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+public class IdempotencyRecord {
+	@Id
+	@Column(name = "idempotency_key")
+	private String idempotencyKey;
+
+	@Column(nullable = false, length = 64)
+	private String requestHash;
+
+	@Column(nullable = false, columnDefinition = "text")
+	private String response;
+
+	@Column(nullable = false)
+	private ZonedDateTime createdAt;
+}
@@ -0,0 +1,70 @@
+package gr.codelearn.showcase.airline.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.ZonedDateTime;
+
+/*
+ * A reservation status change, written by the transaction making it. The relay assigns the gap-free feed position
+ * consumers follow when it publishes the event, ids come from pooled blocks and say nothing about order.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_events",
+	   indexes = {@Index(name = "uk_outbox_events_feed_position", columnList = "feed_position", unique = true),
+				  @Index(name = "idx_outbox_events_published_at", columnList = "published_at")})
+public class OutboxEvent {
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+	@SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 100)
+	private Long id;
+
+	@Column(name = "reservation_id", nullable = false)
+	private Long reservationId;
+
+	@Column(name = "flight_id", nullable = false)
+	private Long flightId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "seat_class", nullable = false)
+	private SeatClass seatClass;
+
+	@Column(name = "seat_number", nullable = false)
+	private String seatNumber;
+
+	// Null for newly created reservations
+	@Enumerated(EnumType.STRING)
+	@Column(name = "previous_status")
+	private BookingStatus previousStatus;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private BookingStatus status;
+
+	@Column(name = "occurred_at", nullable = false)
+	private ZonedDateTime occurredAt;
+
+	@Column(name = "feed_position")
+	private Long feedPosition;
+
+	@Column(name = "published_at")
+	private ZonedDateTime publishedAt;
+}
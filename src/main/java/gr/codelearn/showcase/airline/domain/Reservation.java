@@ -8,10 +8,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -21,6 +22,10 @@ import lombok.ToString;
 
 import java.time.ZonedDateTime;
 
+/*
+ * Seats are unique among PENDING and CONFIRMED reservations only, through the partial index uk_flight_seat_active
+ * (see ReservationSchemaContributor), so cancelled seats can be booked again.
+ */
 @Getter
 @Setter
 @ToString(callSuper = true)
@@ -28,10 +33,14 @@ import java.time.ZonedDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "reservations",
-	   uniqueConstraints = @UniqueConstraint(name = "uk_flight_seat", columnNames = {"flight_id", "seat_number"}))
+	   indexes = @Index(name = "idx_reservations_customer_created_at", columnList = "customer_id, created_at, id"))
 public class Reservation {
+	// Ids handed out per reservations_seq value, the sequence is created with the same increment
+	public static final int ID_ALLOCATION_SIZE = 100;
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+	@SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 
 	@ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -0,0 +1,7 @@
+package gr.codelearn.showcase.airline.domain;
+
+public enum SeatState {
+	FREE,
+	PENDING,
+	CONFIRMED
+}
@@ -1,7 +1,24 @@
 package gr.codelearn.showcase.airline.exception;
 
+import lombok.Getter;
+
+@Getter
 public class BusinessException extends RuntimeException {
+	private final Reason reason;
+
 	public BusinessException(String message) {
+		this(Reason.OTHER, message);
+	}
+
+	public BusinessException(Reason reason, String message) {
 		super(message);
+		this.reason = reason;
+	}
+
+	public enum Reason {
+		SEAT_TAKEN,
+		CAPACITY_FULL,
+		DEPARTED,
+		OTHER
 	}
 }
@@ -0,0 +1,21 @@
+package gr.codelearn.showcase.airline.exception;
+
+import java.time.Duration;
+
+public class ServiceOverloadedException extends RuntimeException {
+	private final Duration retryAfter;
+
+	public ServiceOverloadedException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+	// Retry-After only carries whole seconds, anything shorter still asks for one
+	public long getRetryAfterSeconds() {
+		return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+	}
+}
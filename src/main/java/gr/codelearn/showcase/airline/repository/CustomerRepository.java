@@ -2,9 +2,49 @@ package gr.codelearn.showcase.airline.repository;
 
 import gr.codelearn.showcase.airline.domain.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 	Optional<Customer> findByEmail(String email);
+
+	/*
+	 * Returns the existing customer or inserts it, in one statement. A concurrent first booking of the same email waits
+	 * on the conflicting insert instead of failing on the unique email constraint. DO UPDATE rather than DO NOTHING,
+	 * because only rows touched by the statement are returned. The insert is skipped for known emails, so they do not
+	 * draw a customers_seq value, which under the pooled optimizer would waste a whole block of ids.
+	 */
+	@Query(value = """
+				   with existing as (select * from customers where email = :email),
+				        inserted as (insert into customers (id, full_name, email)
+				                     select nextval('customers_seq'), :fullName, :email
+				                     where not exists (select 1 from existing)
+				                     on conflict (email) do update set email = excluded.email
+				                     returning *)
+				   select * from existing
+				   union all
+				   select * from inserted""", nativeQuery = true)
+	Customer upsert(@Param("email") String email, @Param("fullName") String fullName);
+
+	/*
+	 * Same as upsert for a set of emails, new customers get their email as full name. Rows are inserted in email order
+	 * so that two overlapping batches lock them in the same order.
+	 */
+	@Query(value = """
+				   with requested as (select distinct unnest(array[:emails]) as email),
+				        existing as (select c.* from customers c join requested r on r.email = c.email),
+				        inserted as (insert into customers (id, full_name, email)
+				                     select nextval('customers_seq'), r.email, r.email
+				                     from (select email from requested order by 1) r
+				                     where not exists (select 1 from existing x where x.email = r.email)
+				                     on conflict (email) do update set email = excluded.email
+				                     returning *)
+				   select * from existing
+				   union all
+				   select * from inserted""", nativeQuery = true)
+	List<Customer> upsertAll(@Param("emails") Collection<String> emails);
 }
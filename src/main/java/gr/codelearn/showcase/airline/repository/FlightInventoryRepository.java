@@ -0,0 +1,74 @@
+package gr.codelearn.showcase.airline.repository;
+
+import gr.codelearn.showcase.airline.api.transfer.ResultPair;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.FlightInventory;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface FlightInventoryRepository extends Repository<FlightInventory, FlightInventory.Key> {
+	List<FlightInventory> findByFlightId(Long flightId);
+
+	@Query("select coalesce(sum(i.confirmed), 0) from FlightInventory i where i.flightId = :flightId")
+	long sumConfirmedByFlightId(Long flightId);
+
+	@Query("""
+		   select i.flightId as key, sum(i.confirmed) as value
+		   from FlightInventory i
+		   where i.flightId in :flightIds
+		   group by i.flightId
+		   """)
+	List<ResultPair<Long, Long>> sumConfirmedByFlightIdIn(Collection<Long> flightIds);
+
+	// Only ever grows, any booking, confirmation, cancellation or expiry of the flight changes it
+	@Query("select coalesce(sum(i.changes), 0) from FlightInventory i where i.flightId = :flightId")
+	long sumChangesByFlightId(Long flightId);
+
+	/*
+	 * Adds the given deltas to the counters of one flight and seat class, creating the row on first use. The increment
+	 * happens inside the database, so concurrent bookings of other nodes are never lost, and each call counts as one
+	 * change of the flight's seat map. Declaring flight_inventory as the only table touched keeps Hibernate from
+	 * evicting every second-level cache region after the native statement.
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "flight_inventory"))
+	@Query(value = """
+				   insert into flight_inventory (flight_id, seat_class, pending, confirmed, cancelled, changes)
+				   values (:flightId, :seatClass, :pending, :confirmed, :cancelled, 1)
+				   on conflict (flight_id, seat_class) do update
+				   set pending = flight_inventory.pending + excluded.pending,
+				       confirmed = flight_inventory.confirmed + excluded.confirmed,
+				       cancelled = flight_inventory.cancelled + excluded.cancelled,
+				       changes = flight_inventory.changes + 1""", nativeQuery = true)
+	void adjust(@Param("flightId") Long flightId, @Param("seatClass") String seatClass, @Param("pending") long pending,
+				@Param("confirmed") long confirmed, @Param("cancelled") long cancelled);
+
+	default void reserved(Long flightId, SeatClass seatClass, long count) {
+		adjust(flightId, seatClass.name(), count, 0, 0);
+	}
+
+	default void moved(Long flightId, SeatClass seatClass, BookingStatus from, BookingStatus to) {
+		moved(flightId, seatClass, from, to, 1);
+	}
+
+	default void moved(Long flightId, SeatClass seatClass, BookingStatus from, BookingStatus to, long count) {
+		if (from == to || count == 0) {
+			return;
+		}
+		adjust(flightId, seatClass.name(), count * delta(BookingStatus.PENDING, from, to),
+			   count * delta(BookingStatus.CONFIRMED, from, to), count * delta(BookingStatus.CANCELLED, from, to));
+	}
+
+	private static long delta(BookingStatus counter, BookingStatus from, BookingStatus to) {
+		return (counter == to ? 1 : 0) - (counter == from ? 1 : 0);
+	}
+}
@@ -2,6 +2,7 @@ package gr.codelearn.showcase.airline.repository;
 
 import gr.codelearn.showcase.airline.domain.Flight;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -9,4 +10,14 @@ import java.util.List;
 public interface FlightRepository extends JpaRepository<Flight, Long> {
 	List<Flight> findByOriginAndDestinationAndDepartureAtBetween(
 			String origin, String destination, ZonedDateTime from, ZonedDateTime to);
+
+	List<Flight> findByDepartureAtGreaterThanEqual(ZonedDateTime from);
+
+	@Query("""
+		   select f from Flight f
+		   where f.origin = :origin and f.destination = :destination and f.departureAt between :from and :to
+		     and f.capacity - coalesce((select sum(i.confirmed) from FlightInventory i where i.flightId = f.id), 0) >= :seats
+		   order by f.departureAt
+		   """)
+	List<Flight> findAvailable(String origin, String destination, ZonedDateTime from, ZonedDateTime to, long seats);
 }
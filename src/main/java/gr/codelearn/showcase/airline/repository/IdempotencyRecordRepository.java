@@ -0,0 +1,34 @@
+package gr.codelearn.showcase.airline.repository;
+
+import gr.codelearn.showcase.airline.domain.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends Repository<IdempotencyRecord, String> {
+	Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+	/*
+	 * Returns 0 when the key is already stored. A concurrent insert of the same key waits for the other transaction
+	 * to complete first, so by then its record can be read back.
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+	@Query(value = """
+				   insert into idempotency_keys (idempotency_key, request_hash, response, created_at)
+				   values (:key, :requestHash, :response, :createdAt)
+				   on conflict (idempotency_key) do nothing""", nativeQuery = true)
+	int insert(@Param("key") String key, @Param("requestHash") String requestHash, @Param("response") String response,
+			   @Param("createdAt") ZonedDateTime createdAt);
+
+	@Modifying
+	@Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+	int deleteCreatedBefore(@Param("cutoff") ZonedDateTime cutoff);
+}
@@ -0,0 +1,69 @@
+package gr.codelearn.showcase.airline.repository;
+
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends Repository<OutboxEvent, Long> {
+	<S extends OutboxEvent> List<S> saveAll(Iterable<S> events);
+
+	/*
+	 * The oldest unpublished events, locked for the caller's transaction. Rows already claimed by a relay on another
+	 * node are skipped rather than waited for, so relays split the backlog between them. Ids come from per-node pooled
+	 * blocks and say nothing about which change happened first, events are taken by the time they occurred instead.
+	 */
+	@Query(value = """
+				   select * from outbox_events
+				   where published_at is null
+				   order by occurred_at, id
+				   limit :limit
+				   for update skip locked""", nativeQuery = true)
+	List<OutboxEvent> lockUnpublished(@Param("limit") int limit);
+
+	/*
+	 * Serializes feed numbering until the caller's transaction ends, so positions are handed out in commit order and a
+	 * consumer that has read up to a position never misses a lower one committed later.
+	 */
+	@Query(value = "select count(*) from (select pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+	long lockFeed(@Param("key") long key);
+
+	@Query("select coalesce(max(e.feedPosition), 0) from OutboxEvent e")
+	long maxFeedPosition();
+
+	List<OutboxEvent> findByFeedPositionGreaterThanOrderByFeedPosition(long feedPosition, Limit limit);
+
+	// Served by the partial index over unpublished events
+	boolean existsByPublishedAtIsNullAndOccurredAtBefore(ZonedDateTime cutoff);
+
+	/*
+	 * Records the creation of reservations inserted outside the persistence context by the write-behind batches. Raw
+	 * nextval() values never fall inside a block Hibernate allocates from (see the pooled-lo optimizer setting).
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_events"))
+	@Query(value = """
+				   insert into outbox_events (id, reservation_id, flight_id, seat_class, seat_number, status, occurred_at)
+				   select nextval('outbox_events_seq'), r.id, r.flight_id, r.seat_class, r.seat_number, r.status, r.created_at
+				   from reservations r
+				   where r.id in :reservationIds
+				   order by r.id""", nativeQuery = true)
+	int insertCreatedByReservationIdIn(@Param("reservationIds") Collection<Long> reservationIds);
+
+	// The last published event is always kept, feed positions continue from it
+	@Modifying
+	@Query("""
+		   delete from OutboxEvent e
+		   where e.publishedAt < :cutoff
+		   and e.feedPosition < (select max(l.feedPosition) from OutboxEvent l)""")
+	int deletePublishedBefore(@Param("cutoff") ZonedDateTime cutoff);
+}
@@ -2,12 +2,193 @@ package gr.codelearn.showcase.airline.repository;
 
 import gr.codelearn.showcase.airline.domain.BookingStatus;
 import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.repository.projection.ExpiredReservation;
+import gr.codelearn.showcase.airline.repository.projection.ManifestEntry;
+import gr.codelearn.showcase.airline.repository.projection.ReservationState;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
+import gr.codelearn.showcase.airline.repository.projection.SeatAssignment;
+import gr.codelearn.showcase.airline.repository.projection.SeatOccupancy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 	long countByFlightIdAndStatus(Long flightId, BookingStatus status);
 
-	Optional<Reservation> findByFlightIdAndSeatNumber(Long flightId, String seatNumber);
+	/*
+	 * Cancelled reservations give their seat back, so every seat lookup only considers PENDING and CONFIRMED rows. The
+	 * same predicate backs uk_flight_seat_active, the partial unique index guarding a seat against double booking.
+	 */
+	@Query("""
+		   select r from Reservation r
+		   where r.flight.id = :flightId and r.seatNumber = :seatNumber and r.status <> BookingStatus.CANCELLED
+		   """)
+	Optional<Reservation> findActiveByFlightIdAndSeatNumber(Long flightId, String seatNumber);
+
+	/*
+	 * Everything a reservation response shows, read by one join with customers. flight_id comes straight from the
+	 * reservations row, and as a read-only projection nothing enters the persistence context.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+	@Query("""
+		   select r.id as id, r.flight.id as flightId, c.email as customerEmail, r.seatNumber as seatNumber,
+		          r.seatClass as seatClass, r.status as status, r.createdAt as createdAt
+		   from Reservation r join r.customer c
+		   where r.id = :id
+		   """)
+	Optional<ReservationView> findViewById(Long id);
+
+	/*
+	 * A customer's reservations, newest first, read by seeking to (created_at, id) on
+	 * idx_reservations_customer_created_at instead of skipping an OFFSET, so every page costs the same. The first page
+	 * starts without a cursor, every next one after the last row of the previous page.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+	@Query("""
+		   select r.id as id, r.flight.id as flightId, c.email as customerEmail, r.seatNumber as seatNumber,
+		          r.seatClass as seatClass, r.status as status, r.createdAt as createdAt
+		   from Reservation r join r.customer c
+		   where c.id = :customerId
+		   order by r.createdAt desc, r.id desc
+		   """)
+	List<ReservationView> findViewsByCustomerId(Long customerId, Limit limit);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+	@Query("""
+		   select r.id as id, r.flight.id as flightId, c.email as customerEmail, r.seatNumber as seatNumber,
+		          r.seatClass as seatClass, r.status as status, r.createdAt as createdAt
+		   from Reservation r join r.customer c
+		   where c.id = :customerId and (r.createdAt, r.id) < (:createdAt, :id)
+		   order by r.createdAt desc, r.id desc
+		   """)
+	List<ReservationView> findViewsByCustomerIdBefore(Long customerId, ZonedDateTime createdAt, Long id, Limit limit);
+
+	@Query("""
+		   select r.flight.id as flightId, r.flight.capacity as capacity, r.seatNumber as seatNumber, r.status as status
+		   from Reservation r
+		   where r.flight.departureAt > :after and r.status <> BookingStatus.CANCELLED
+		   """)
+	List<SeatOccupancy> findSeatOccupancyByDepartureAfter(ZonedDateTime after);
+
+	@Query("""
+		   select r.seatNumber as seatNumber, r.seatClass as seatClass, r.status as status
+		   from Reservation r
+		   where r.flight.id = :flightId and r.status <> BookingStatus.CANCELLED
+		   """)
+	List<SeatAssignment> findSeatAssignmentsByFlightId(Long flightId);
+
+	@Query("""
+		   select r.flight.id as flightId, r.flight.capacity as capacity, r.seatNumber as seatNumber, r.status as status
+		   from Reservation r
+		   where r.flight.id in :flightIds and r.seatNumber in :seatNumbers and r.status <> BookingStatus.CANCELLED
+		   """)
+	List<SeatOccupancy> findSeatOccupancyByFlightIdInAndSeatNumberIn(Collection<Long> flightIds, Collection<String> seatNumbers);
+
+	/*
+	 * Manifests are read through a forward-only cursor, fetch size rows at a time. Rows are flat projections rather than
+	 * entities, so nothing accumulates in the persistence context however many rows are streamed. The stream must be
+	 * consumed and closed inside the transaction that opened it.
+	 */
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+				 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+	@Query("""
+		   select r.id as reservationId, f.id as flightId, f.departureAt as departureAt, r.seatNumber as seatNumber,
+		          r.seatClass as seatClass, r.status as status, c.fullName as customerName, c.email as customerEmail,
+		          r.createdAt as createdAt
+		   from Reservation r join r.flight f join r.customer c
+		   where f.id = :flightId
+		   order by r.seatNumber
+		   """)
+	Stream<ManifestEntry> streamManifestByFlightId(Long flightId);
+
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+				 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+	@Query("""
+		   select r.id as reservationId, f.id as flightId, f.departureAt as departureAt, r.seatNumber as seatNumber,
+		          r.seatClass as seatClass, r.status as status, c.fullName as customerName, c.email as customerEmail,
+		          r.createdAt as createdAt
+		   from Reservation r join r.flight f join r.customer c
+		   where f.departureAt >= :from and f.departureAt < :to
+		   order by f.departureAt, f.id, r.seatNumber
+		   """)
+	Stream<ManifestEntry> streamManifestByDepartureBetween(ZonedDateTime from, ZonedDateTime to);
+
+	/*
+	 * Locks the oldest PENDING reservations created before the cutoff. Rows already locked by another node's reaper,
+	 * or by a confirm in flight, are skipped instead of waited on, so concurrent reapers each take a disjoint batch.
+	 */
+	@Query(value = """
+				   select r.id as id, r.flight_id as flightId, r.seat_class as seatClass, r.seat_number as seatNumber
+				   from reservations r
+				   where r.status = 'PENDING' and r.created_at < :cutoff
+				   order by r.created_at
+				   limit :limit
+				   for update skip locked""", nativeQuery = true)
+	List<ExpiredReservation> lockPendingCreatedBefore(ZonedDateTime cutoff, int limit);
+
+	@Query("""
+		   select r.id as id, f.id as flightId, f.capacity as capacity, r.seatClass as seatClass,
+		          r.seatNumber as seatNumber, r.status as status
+		   from Reservation r join r.flight f
+		   where r.id in :ids
+		   order by r.id
+		   """)
+	List<ReservationState> findStatesByIdIn(Collection<Long> ids);
+
+	// Cancelled rows are left out, they pile up over a flight's life and nothing can change them any more
+	@Query("""
+		   select r.id as id, f.id as flightId, f.capacity as capacity, r.seatClass as seatClass,
+		          r.seatNumber as seatNumber, r.status as status
+		   from Reservation r join r.flight f
+		   where f.id = :flightId and r.status <> BookingStatus.CANCELLED
+		   order by r.id
+		   """)
+	List<ReservationState> findActiveStatesByFlightId(Long flightId);
+
+	@Modifying
+	@Query("delete from Reservation r where r.id in :ids")
+	int deleteByIdIn(Collection<Long> ids);
+
+	// The version is bumped like any entity update, so confirmations racing with the change fail optimistically
+	@Modifying
+	@Query("update Reservation r set r.status = :status, r.version = r.version + 1 where r.id in :ids")
+	int updateStatusByIdIn(Collection<Long> ids, BookingStatus status);
+
+	/*
+	 * Only rows still in the expected status are changed. A count short of ids.size() means some of them were changed
+	 * since they were read, and the caller's transaction has to start over.
+	 */
+	@Modifying
+	@Query("""
+		   update Reservation r set r.status = :to, r.version = r.version + 1
+		   where r.id in :ids and r.status = :from
+		   """)
+	int updateStatusByIdInAndStatus(Collection<Long> ids, BookingStatus from, BookingStatus to);
+
+	// Same as updateStatusByIdInAndStatus for every reservation of a flight, without listing their ids
+	@Modifying
+	@Query("""
+		   update Reservation r set r.status = :to, r.version = r.version + 1
+		   where r.flight.id = :flightId and r.status = :from
+		   """)
+	int updateStatusByFlightIdAndStatus(Long flightId, BookingStatus from, BookingStatus to);
+
+	/*
+	 * Start of a block of Reservation.ID_ALLOCATION_SIZE ids, the same pooled-lo blocks Hibernate allocates from, for
+	 * reservations inserted outside the persistence context. Read-only transactions cannot call nextval().
+	 */
+	@Transactional
+	@Query(value = "select nextval('reservations_seq')", nativeQuery = true)
+	long nextIdBlock();
 }
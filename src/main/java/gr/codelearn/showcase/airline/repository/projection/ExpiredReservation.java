@@ -0,0 +1,13 @@
+package gr.codelearn.showcase.airline.repository.projection;
+
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+public interface ExpiredReservation {
+	Long getId();
+
+	Long getFlightId();
+
+	SeatClass getSeatClass();
+
+	String getSeatNumber();
+}
@@ -0,0 +1,26 @@
+package gr.codelearn.showcase.airline.repository.projection;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+import java.time.ZonedDateTime;
+
+public interface ManifestEntry {
+	Long getReservationId();
+
+	Long getFlightId();
+
+	ZonedDateTime getDepartureAt();
+
+	String getSeatNumber();
+
+	SeatClass getSeatClass();
+
+	BookingStatus getStatus();
+
+	String getCustomerName();
+
+	String getCustomerEmail();
+
+	ZonedDateTime getCreatedAt();
+}
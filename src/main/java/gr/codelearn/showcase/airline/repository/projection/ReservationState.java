@@ -0,0 +1,18 @@
+package gr.codelearn.showcase.airline.repository.projection;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+public interface ReservationState {
+	Long getId();
+
+	Long getFlightId();
+
+	int getCapacity();
+
+	SeatClass getSeatClass();
+
+	String getSeatNumber();
+
+	BookingStatus getStatus();
+}
@@ -0,0 +1,22 @@
+package gr.codelearn.showcase.airline.repository.projection;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+import java.time.ZonedDateTime;
+
+public interface ReservationView {
+	Long getId();
+
+	Long getFlightId();
+
+	String getCustomerEmail();
+
+	String getSeatNumber();
+
+	SeatClass getSeatClass();
+
+	BookingStatus getStatus();
+
+	ZonedDateTime getCreatedAt();
+}
@@ -0,0 +1,12 @@
+package gr.codelearn.showcase.airline.repository.projection;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+public interface SeatAssignment {
+	String getSeatNumber();
+
+	SeatClass getSeatClass();
+
+	BookingStatus getStatus();
+}
@@ -0,0 +1,13 @@
+package gr.codelearn.showcase.airline.repository.projection;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+
+public interface SeatOccupancy {
+	Long getFlightId();
+
+	int getCapacity();
+
+	String getSeatNumber();
+
+	BookingStatus getStatus();
+}
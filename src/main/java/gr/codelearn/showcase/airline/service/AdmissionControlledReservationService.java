@@ -0,0 +1,72 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.component.AdmissionControl;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Runs every call only once AdmissionControl grants it a permit, in front of the metered service so that waiting for
+ * one is not measured as part of the call.
+ */
+@Primary
+@Service
+public class AdmissionControlledReservationService implements ReservationService {
+	private final ReservationService delegate;
+	private final AdmissionControl admissionControl;
+
+	public AdmissionControlledReservationService(final MeteredReservationService delegate, final AdmissionControl admissionControl) {
+		this.delegate = delegate;
+		this.admissionControl = admissionControl;
+	}
+
+	@Override
+	public Reservation reserve(Long flightId, String customerEmail, SeatClass seatClass, String seatNumber) {
+		return admissionControl.call(() -> delegate.reserve(flightId, customerEmail, seatClass, seatNumber));
+	}
+
+	@Override
+	public List<ReservationOutcome> reserveAll(List<ReservationRequest> requests, boolean allOrNothing) {
+		return admissionControl.call(() -> delegate.reserveAll(requests, allOrNothing));
+	}
+
+	@Override
+	public Reservation confirm(Long reservationId) {
+		return admissionControl.call(() -> delegate.confirm(reservationId));
+	}
+
+	@Override
+	public void cancel(Long reservationId) {
+		admissionControl.run(() -> delegate.cancel(reservationId));
+	}
+
+	@Override
+	public List<BulkOutcome> confirmAll(BulkSelection selection) {
+		return admissionControl.call(() -> delegate.confirmAll(selection));
+	}
+
+	@Override
+	public List<BulkOutcome> cancelAll(BulkSelection selection) {
+		return admissionControl.call(() -> delegate.cancelAll(selection));
+	}
+
+	@Override
+	public Optional<Reservation> get(Long reservationId) {
+		return admissionControl.call(() -> delegate.get(reservationId));
+	}
+
+	@Override
+	public Optional<ReservationView> view(Long reservationId) {
+		return admissionControl.call(() -> delegate.view(reservationId));
+	}
+
+	@Override
+	public ReservationPage listByCustomer(String customerEmail, String cursor, int size) {
+		return admissionControl.call(() -> delegate.listByCustomer(customerEmail, cursor, size));
+	}
+}
@@ -0,0 +1,17 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+
+public record BulkOutcome(Long reservationId, BookingStatus status, boolean changed, String error) {
+	public static BulkOutcome changed(Long reservationId, BookingStatus status) {
+		return new BulkOutcome(reservationId, status, true, null);
+	}
+
+	public static BulkOutcome unchanged(Long reservationId, BookingStatus status) {
+		return new BulkOutcome(reservationId, status, false, null);
+	}
+
+	public static BulkOutcome rejected(Long reservationId, BookingStatus status, String error) {
+		return new BulkOutcome(reservationId, status, false, error);
+	}
+}
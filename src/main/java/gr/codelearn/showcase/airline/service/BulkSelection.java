@@ -0,0 +1,20 @@
+package gr.codelearn.showcase.airline.service;
+
+import java.util.List;
+
+/*
+ * Either the listed reservations or every reservation of one flight.
+ */
+public record BulkSelection(List<Long> reservationIds, Long flightId) {
+	public static BulkSelection ofReservations(List<Long> reservationIds) {
+		return new BulkSelection(reservationIds, null);
+	}
+
+	public static BulkSelection ofFlight(Long flightId) {
+		return new BulkSelection(null, flightId);
+	}
+
+	public boolean isFlight() {
+		return flightId != null;
+	}
+}
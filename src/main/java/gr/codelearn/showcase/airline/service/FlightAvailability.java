@@ -0,0 +1,6 @@
+package gr.codelearn.showcase.airline.service;
+
+import java.util.List;
+
+public record FlightAvailability(Long flightId, int capacity, long available, List<SeatClassAvailability> seatClasses) {
+}
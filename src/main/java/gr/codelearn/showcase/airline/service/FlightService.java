@@ -0,0 +1,26 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.repository.projection.ManifestEntry;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface FlightService {
+	List<Flight> search(String origin, String destination, ZonedDateTime from, ZonedDateTime to);
+
+	List<Flight> searchAvailable(String origin, String destination, ZonedDateTime from, ZonedDateTime to, int seats);
+
+	Flight get(Long flightId);
+
+	FlightAvailability availability(Long flightId);
+
+	List<SeatView> seatMap(Long flightId);
+
+	String seatMapVersion(Long flightId);
+
+	void manifest(Long flightId, Consumer<ManifestEntry> sink);
+
+	void manifest(ZonedDateTime from, ZonedDateTime to, Consumer<ManifestEntry> sink);
+}
@@ -0,0 +1,120 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.component.FlightIndex;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.SeatState;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.exception.NotFoundException;
+import gr.codelearn.showcase.airline.repository.FlightInventoryRepository;
+import gr.codelearn.showcase.airline.repository.FlightRepository;
+import gr.codelearn.showcase.airline.repository.ReservationRepository;
+import gr.codelearn.showcase.airline.repository.projection.ManifestEntry;
+import gr.codelearn.showcase.airline.repository.projection.SeatAssignment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class FlightServiceImpl implements FlightService {
+	// Seats are laid out six abreast, A to F, for as many rows as the capacity needs
+	private static final int SEATS_PER_ROW = 6;
+
+	private final FlightRepository flightRepo;
+	private final ReservationRepository reservationRepo;
+	private final FlightInventoryRepository inventoryRepo;
+	private final FlightIndex flightIndex;
+
+	@Override
+	public List<Flight> search(String origin, String destination, ZonedDateTime from, ZonedDateTime to) {
+		// Upcoming departures are served from memory, only searches reaching into the past go to the database
+		if (flightIndex.covers(from)) {
+			return flightIndex.search(origin, destination, from, to);
+		}
+		return flightRepo.findByOriginAndDestinationAndDepartureAtBetween(origin, destination, from, to);
+	}
+
+	@Override
+	public List<Flight> searchAvailable(String origin, String destination, ZonedDateTime from, ZonedDateTime to, int seats) {
+		if (seats < 1) {
+			throw new BusinessException("At least one seat must be requested.");
+		}
+		// Route, window and free seats are resolved together by one query over the inventory counters
+		return flightRepo.findAvailable(origin, destination, from, to, seats);
+	}
+
+	@Override
+	public Flight get(Long flightId) {
+		return flightIndex.find(flightId)
+						  .or(() -> flightRepo.findById(flightId))
+						  .orElseThrow(() -> new NotFoundException("Flight not found"));
+	}
+
+	@Override
+	public FlightAvailability availability(Long flightId) {
+		var flight = get(flightId);
+
+		var seatClasses = inventoryRepo.findByFlightId(flightId).stream()
+									   .map(i -> new SeatClassAvailability(i.getSeatClass(), i.getPending(), i.getConfirmed(),
+																		   i.getCancelled()))
+									   .toList();
+		long confirmed = seatClasses.stream().mapToLong(SeatClassAvailability::confirmed).sum();
+		return new FlightAvailability(flightId, flight.getCapacity(), Math.max(0, flight.getCapacity() - confirmed), seatClasses);
+	}
+
+	@Override
+	public List<SeatView> seatMap(Long flightId) {
+		var flight = get(flightId);
+
+		// Every reserved seat of the flight comes back from a single projection query, cancelled seats stay FREE
+		Map<String, SeatView> seats = new LinkedHashMap<>();
+		for (int i = 0; i < flight.getCapacity(); i++) {
+			var seatNumber = (i / SEATS_PER_ROW + 1) + String.valueOf((char) ('A' + i % SEATS_PER_ROW));
+			seats.put(seatNumber, new SeatView(seatNumber, SeatState.FREE, null));
+		}
+		for (SeatAssignment assignment : reservationRepo.findSeatAssignmentsByFlightId(flightId)) {
+			seats.put(assignment.getSeatNumber(),
+					  new SeatView(assignment.getSeatNumber(), stateOf(assignment.getStatus()), assignment.getSeatClass()));
+		}
+		return List.copyOf(seats.values());
+	}
+
+	@Override
+	public String seatMapVersion(Long flightId) {
+		// Every seat change of any node adjusts the flight's inventory rows in its own transaction
+		return flightId + "-" + inventoryRepo.sumChangesByFlightId(flightId);
+	}
+
+	@Override
+	public void manifest(Long flightId, Consumer<ManifestEntry> sink) {
+		try (var entries = reservationRepo.streamManifestByFlightId(flightId)) {
+			entries.forEach(sink);
+		}
+	}
+
+	@Override
+	public void manifest(ZonedDateTime from, ZonedDateTime to, Consumer<ManifestEntry> sink) {
+		if (!to.isAfter(from)) {
+			throw new BusinessException("Manifest range must end after it starts.");
+		}
+		try (var entries = reservationRepo.streamManifestByDepartureBetween(from, to)) {
+			entries.forEach(sink);
+		}
+	}
+
+	private static SeatState stateOf(BookingStatus status) {
+		return switch (status) {
+			case PENDING -> SeatState.PENDING;
+			case CONFIRMED -> SeatState.CONFIRMED;
+			case CANCELLED -> SeatState.FREE;
+		};
+	}
+}
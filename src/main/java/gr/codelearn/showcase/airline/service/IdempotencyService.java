@@ -0,0 +1,14 @@
+package gr.codelearn.showcase.airline.service;
+
+import java.time.ZonedDateTime;
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+	/*
+	 * Runs the action and stores its serialized result under the key, in the same transaction. Once a key is stored,
+	 * the same request returns the stored result without running the action again.
+	 */
+	IdempotentResponse execute(String key, Object request, Supplier<?> action);
+
+	int purgeCreatedBefore(ZonedDateTime cutoff);
+}
@@ -0,0 +1,122 @@
+package gr.codelearn.showcase.airline.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.codelearn.showcase.airline.component.AdmissionControl;
+import gr.codelearn.showcase.airline.component.IdempotencyCache;
+import gr.codelearn.showcase.airline.component.IdempotencyCache.StoredResponse;
+import gr.codelearn.showcase.airline.component.TransactionCallbacks;
+import gr.codelearn.showcase.airline.domain.IdempotencyRecord;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.repository.IdempotencyRecordRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/*
+ * Replays the stored response of a retried Idempotency-Key. Action and insert share one transaction, a racing retry
+ * conflicts on the key and replays the winner's response, failures are not stored.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private final IdempotencyRecordRepository recordRepo;
+	private final IdempotencyCache cache;
+	private final ObjectMapper objectMapper;
+	private final Clock clock;
+	private final TransactionTemplate transactionTemplate;
+	private final AdmissionControl admissionControl;
+
+	public IdempotencyServiceImpl(final IdempotencyRecordRepository recordRepo, final IdempotencyCache cache,
+								  final ObjectMapper objectMapper, final Clock clock,
+								  final PlatformTransactionManager transactionManager, final AdmissionControl admissionControl) {
+		this.recordRepo = recordRepo;
+		this.cache = cache;
+		this.objectMapper = objectMapper;
+		this.clock = clock;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.admissionControl = admissionControl;
+	}
+
+	@Override
+	public IdempotentResponse execute(String key, Object request, Supplier<?> action) {
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			throw new BusinessException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters long.");
+		}
+		var requestHash = hashOf(request);
+		var stored = lookup(key, requestHash);
+		if (stored.isPresent()) {
+			return stored.get();
+		}
+
+		try {
+			// The transaction is opened here, so that the booking and its stored response commit or roll back together.
+			// Its connection is taken only once admitted, the booking inside then runs on the same permit.
+			var body = admissionControl.call(() -> transactionTemplate.execute(status -> {
+				var json = write(action.get());
+				var now = ZonedDateTime.now(clock);
+				if (recordRepo.insert(key, requestHash, json, now) == 0) {
+					throw new BusinessException("Idempotency-Key is being used by a concurrent request.");
+				}
+				TransactionCallbacks.afterCommit(
+						() -> cache.put(key, new StoredResponse(requestHash, json, now.toInstant().toEpochMilli())));
+				return json;
+			}));
+			return new IdempotentResponse(body, false);
+		} catch (RuntimeException e) {
+			// The booking may have failed only because a concurrent request with the same key got there first
+			return lookup(key, requestHash).orElseThrow(() -> e);
+		}
+	}
+
+	private Optional<IdempotentResponse> lookup(String key, String requestHash) {
+		var stored = cache.find(key).or(() -> recordRepo.findByIdempotencyKey(key).map(r -> remember(key, r)));
+		if (stored.isEmpty()) {
+			return Optional.empty();
+		}
+		if (!stored.get().requestHash().equals(requestHash)) {
+			throw new BusinessException("Idempotency-Key was already used for a different request.");
+		}
+		return Optional.of(new IdempotentResponse(stored.get().body(), true));
+	}
+
+	private StoredResponse remember(String key, IdempotencyRecord record) {
+		var stored = new StoredResponse(record.getRequestHash(), record.getResponse(),
+										record.getCreatedAt().toInstant().toEpochMilli());
+		cache.put(key, stored);
+		return stored;
+	}
+
+	private String write(Object response) {
+		try {
+			return objectMapper.writeValueAsString(response);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Unable to serialize the response of an idempotent request.", e);
+		}
+	}
+
+	private String hashOf(Object request) {
+		try {
+			var digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+		} catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Unable to hash an idempotent request.", e);
+		}
+	}
+
+	@Override
+	@Transactional
+	public int purgeCreatedBefore(ZonedDateTime cutoff) {
+		return recordRepo.deleteCreatedBefore(cutoff);
+	}
+}
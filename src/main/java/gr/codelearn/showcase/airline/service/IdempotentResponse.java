@@ -0,0 +1,8 @@
+package gr.codelearn.showcase.airline.service;
+
+/*
+ * The response body as JSON, exactly as first returned. Replaying the stored text keeps the original transactionId
+ * and createdAt of the ApiResponse.
+ */
+public record IdempotentResponse(String body, boolean replayed) {
+}
@@ -0,0 +1,229 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.exception.NotFoundException;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Times every service call tagged with its outcome, around the transactional service so commits are included. Timers
+ * are registered once per operation and outcome.
+ */
+@Service
+public class MeteredReservationService implements ReservationService {
+	private final ReservationService delegate;
+	private final Timer[][] timers;
+	private final Counter batchReserved;
+	private final Counter batchRejected;
+
+	public MeteredReservationService(final WriteBehindReservationService delegate, final MeterRegistry registry) {
+		this.delegate = delegate;
+		var operations = Operation.values();
+		var outcomes = Outcome.values();
+		timers = new Timer[operations.length][outcomes.length];
+		for (Operation operation : operations) {
+			for (Outcome outcome : outcomes) {
+				timers[operation.ordinal()][outcome.ordinal()] =
+						Timer.builder("airline.reservations")
+							 .description("Reservation service calls, including their transaction")
+							 .tag("operation", operation.tag)
+							 .tag("outcome", outcome.tag)
+							 .register(registry);
+			}
+		}
+		batchReserved = batchCounter(registry, "reserved");
+		batchRejected = batchCounter(registry, "rejected");
+	}
+
+	private static Counter batchCounter(final MeterRegistry registry, final String result) {
+		return Counter.builder("airline.reservations.batch.requests")
+					  .description("Seats requested through batch reservations")
+					  .tag("result", result)
+					  .register(registry);
+	}
+
+	@Override
+	public Reservation reserve(Long flightId, String customerEmail, SeatClass seatClass, String seatNumber) {
+		long start = System.nanoTime();
+		try {
+			var reservation = delegate.reserve(flightId, customerEmail, seatClass, seatNumber);
+			record(Operation.RESERVE, Outcome.SUCCESS, start);
+			return reservation;
+		} catch (RuntimeException e) {
+			record(Operation.RESERVE, outcomeOf(e), start);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<ReservationOutcome> reserveAll(List<ReservationRequest> requests, boolean allOrNothing) {
+		long start = System.nanoTime();
+		try {
+			var outcomes = delegate.reserveAll(requests, allOrNothing);
+			record(Operation.RESERVE_ALL, Outcome.SUCCESS, start);
+			int reserved = 0;
+			for (ReservationOutcome outcome : outcomes) {
+				if (outcome.isReserved()) {
+					reserved++;
+				}
+			}
+			batchReserved.increment(reserved);
+			batchRejected.increment(outcomes.size() - reserved);
+			return outcomes;
+		} catch (RuntimeException e) {
+			record(Operation.RESERVE_ALL, outcomeOf(e), start);
+			throw e;
+		}
+	}
+
+	@Override
+	public Reservation confirm(Long reservationId) {
+		long start = System.nanoTime();
+		try {
+			var reservation = delegate.confirm(reservationId);
+			record(Operation.CONFIRM, Outcome.SUCCESS, start);
+			return reservation;
+		} catch (RuntimeException e) {
+			record(Operation.CONFIRM, outcomeOf(e), start);
+			throw e;
+		}
+	}
+
+	@Override
+	public void cancel(Long reservationId) {
+		long start = System.nanoTime();
+		try {
+			delegate.cancel(reservationId);
+			record(Operation.CANCEL, Outcome.SUCCESS, start);
+		} catch (RuntimeException e) {
+			record(Operation.CANCEL, outcomeOf(e), start);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<BulkOutcome> confirmAll(BulkSelection selection) {
+		long start = System.nanoTime();
+		try {
+			var outcomes = delegate.confirmAll(selection);
+			record(Operation.CONFIRM_ALL, Outcome.SUCCESS, start);
+			return outcomes;
+		} catch (RuntimeException e) {
+			record(Operation.CONFIRM_ALL, outcomeOf(e), start);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<BulkOutcome> cancelAll(BulkSelection selection) {
+		long start = System.nanoTime();
+		try {
+			var outcomes = delegate.cancelAll(selection);
+			record(Operation.CANCEL_ALL, Outcome.SUCCESS, start);
+			return outcomes;
+		} catch (RuntimeException e) {
+			record(Operation.CANCEL_ALL, outcomeOf(e), start);
+			throw e;
+		}
+	}
+
+	@Override
+	public Optional<Reservation> get(Long reservationId) {
+		long start = System.nanoTime();
+		try {
+			var reservation = delegate.get(reservationId);
+			record(Operation.GET, reservation.isPresent() ? Outcome.SUCCESS : Outcome.NOT_FOUND, start);
+			return reservation;
+		} catch (RuntimeException e) {
+			record(Operation.GET, outcomeOf(e), start);
+			throw e;
+		}
+	}
+
+	@Override
+	public Optional<ReservationView> view(Long reservationId) {
+		long start = System.nanoTime();
+		try {
+			var reservation = delegate.view(reservationId);
+			record(Operation.GET, reservation.isPresent() ? Outcome.SUCCESS : Outcome.NOT_FOUND, start);
+			return reservation;
+		} catch (RuntimeException e) {
+			record(Operation.GET, outcomeOf(e), start);
+			throw e;
+		}
+	}
+
+	@Override
+	public ReservationPage listByCustomer(String customerEmail, String cursor, int size) {
+		long start = System.nanoTime();
+		try {
+			var page = delegate.listByCustomer(customerEmail, cursor, size);
+			record(Operation.LIST, Outcome.SUCCESS, start);
+			return page;
+		} catch (RuntimeException e) {
+			record(Operation.LIST, outcomeOf(e), start);
+			throw e;
+		}
+	}
+
+	private void record(final Operation operation, final Outcome outcome, final long start) {
+		timers[operation.ordinal()][outcome.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private static Outcome outcomeOf(final RuntimeException e) {
+		if (e instanceof NotFoundException) {
+			return Outcome.NOT_FOUND;
+		}
+		if (e instanceof BusinessException business) {
+			return switch (business.getReason()) {
+				case SEAT_TAKEN -> Outcome.SEAT_TAKEN;
+				case CAPACITY_FULL -> Outcome.CAPACITY_FULL;
+				case DEPARTED -> Outcome.DEPARTED;
+				case OTHER -> Outcome.REJECTED;
+			};
+		}
+		return Outcome.ERROR;
+	}
+
+	private enum Operation {
+		RESERVE("reserve"),
+		RESERVE_ALL("reserve-all"),
+		CONFIRM("confirm"),
+		CANCEL("cancel"),
+		CONFIRM_ALL("confirm-all"),
+		CANCEL_ALL("cancel-all"),
+		GET("get"),
+		LIST("list");
+
+		private final String tag;
+
+		Operation(final String tag) {
+			this.tag = tag;
+		}
+	}
+
+	private enum Outcome {
+		SUCCESS("success"),
+		SEAT_TAKEN("seat-taken"),
+		CAPACITY_FULL("capacity-full"),
+		DEPARTED("departed"),
+		NOT_FOUND("not-found"),
+		REJECTED("rejected"),
+		ERROR("error");
+
+		private final String tag;
+
+		Outcome(final String tag) {
+			this.tag = tag;
+		}
+	}
+}
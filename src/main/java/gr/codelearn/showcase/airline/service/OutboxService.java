@@ -0,0 +1,29 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+public interface OutboxService {
+	/*
+	 * Publishes at most limit of the oldest unpublished events to every sink, numbering them in the feed, in one
+	 * transaction, and returns how many were published.
+	 */
+	int publishPending(int limit);
+
+	/*
+	 * Published events past the given feed position, in feed order. When there are none yet, waits up to wait for the
+	 * next ones rather than returning an empty list straight away.
+	 */
+	List<OutboxEvent> eventsAfter(long position, int limit, Duration wait);
+
+	int purgePublishedBefore(ZonedDateTime cutoff);
+
+	// Position of the last published event, 0 when nothing was published yet
+	long lastPosition();
+
+	// True when events that occurred before the cutoff are still waiting for the relay
+	boolean isBehind(ZonedDateTime cutoff);
+}
@@ -0,0 +1,138 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.component.OutboxSink;
+import gr.codelearn.showcase.airline.component.ReservationStatusChanged;
+import gr.codelearn.showcase.airline.component.TransactionCallbacks;
+import gr.codelearn.showcase.airline.config.OutboxProperties;
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.repository.OutboxEventRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Feed positions are numbered under a transaction-scoped advisory lock, so they follow commit order. Feed requests with
+ * nothing new wait for a publish on this node and look again every poll interval for the other nodes.
+ */
+@Service
+public class OutboxServiceImpl implements OutboxService {
+	private static final long FEED_LOCK = 0x6f7574626f78L;
+	private static final int MAX_LIMIT = 1000;
+
+	private final OutboxEventRepository outboxRepo;
+	private final ObjectProvider<OutboxSink> sinks;
+	private final OutboxProperties properties;
+	private final Clock clock;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition published = lock.newCondition();
+	private long publishes;
+
+	public OutboxServiceImpl(final OutboxEventRepository outboxRepo, final ObjectProvider<OutboxSink> sinks,
+							 final OutboxProperties properties, final Clock clock) {
+		this.outboxRepo = outboxRepo;
+		this.sinks = sinks;
+		this.properties = properties;
+		this.clock = clock;
+	}
+
+	@Override
+	@Transactional
+	public int publishPending(int limit) {
+		var events = outboxRepo.lockUnpublished(limit);
+		if (events.isEmpty()) {
+			return 0;
+		}
+
+		outboxRepo.lockFeed(FEED_LOCK);
+		long position = outboxRepo.maxFeedPosition();
+		var now = ZonedDateTime.now(clock);
+		for (OutboxEvent event : events) {
+			event.setFeedPosition(++position);
+			event.setPublishedAt(now);
+		}
+
+		var changes = events.stream().map(ReservationStatusChanged::of).toList();
+		sinks.orderedStream().forEach(sink -> sink.publish(changes));
+		TransactionCallbacks.afterCommit(this::signalPublished);
+		return events.size();
+	}
+
+	@Override
+	public List<OutboxEvent> eventsAfter(long position, int limit, Duration wait) {
+		if (limit < 1 || limit > MAX_LIMIT) {
+			throw new BusinessException("Limit must be between 1 and " + MAX_LIMIT + ".");
+		}
+		long deadline = System.nanoTime() + Math.min(wait.toNanos(), properties.maxWait().toNanos());
+		while (true) {
+			long seen = publishes();
+			var events = outboxRepo.findByFeedPositionGreaterThanOrderByFeedPosition(position, Limit.of(limit));
+			long remaining = deadline - System.nanoTime();
+			if (!events.isEmpty() || remaining <= 0) {
+				return events;
+			}
+			if (!awaitPublished(seen, Math.min(remaining, properties.pollInterval().toNanos()))) {
+				return events;
+			}
+		}
+	}
+
+	@Override
+	@Transactional
+	public int purgePublishedBefore(ZonedDateTime cutoff) {
+		return outboxRepo.deletePublishedBefore(cutoff);
+	}
+
+	@Override
+	public long lastPosition() {
+		return outboxRepo.maxFeedPosition();
+	}
+
+	@Override
+	public boolean isBehind(ZonedDateTime cutoff) {
+		return outboxRepo.existsByPublishedAtIsNullAndOccurredAtBefore(cutoff);
+	}
+
+	private long publishes() {
+		lock.lock();
+		try {
+			return publishes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void signalPublished() {
+		lock.lock();
+		try {
+			publishes++;
+			published.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Returns false when interrupted, the caller then answers with what it has
+	private boolean awaitPublished(long seen, long nanos) {
+		lock.lock();
+		try {
+			while (publishes == seen && nanos > 0) {
+				nanos = published.awaitNanos(nanos);
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+}
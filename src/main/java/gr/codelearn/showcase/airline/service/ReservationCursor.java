@@ -0,0 +1,37 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+/*
+ * Position after the last reservation of a page. Clients only ever see it as an opaque URL-safe token, so the keyset
+ * columns behind it can change without breaking them.
+ */
+public record ReservationCursor(ZonedDateTime createdAt, Long id) {
+	private static final String VERSION = "1";
+
+	public String encode() {
+		var instant = createdAt.toInstant();
+		var raw = VERSION + ":" + instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static ReservationCursor decode(String token) {
+		try {
+			var parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+			if (parts.length != 4 || !VERSION.equals(parts[0])) {
+				throw new IllegalArgumentException("Unknown cursor format");
+			}
+			var createdAt = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2])).atZone(ZoneOffset.UTC);
+			return new ReservationCursor(createdAt, Long.parseLong(parts[3]));
+		} catch (IllegalArgumentException | DateTimeException e) {
+			throw new BusinessException("Invalid cursor.");
+		}
+	}
+}
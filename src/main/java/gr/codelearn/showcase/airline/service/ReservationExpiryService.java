@@ -0,0 +1,13 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.config.ReservationReaperProperties.Action;
+
+import java.time.ZonedDateTime;
+
+public interface ReservationExpiryService {
+	/*
+	 * Expires at most limit PENDING reservations created before the cutoff, in one transaction, and returns how many
+	 * were expired.
+	 */
+	int expirePending(ZonedDateTime cutoff, int limit, Action action);
+}
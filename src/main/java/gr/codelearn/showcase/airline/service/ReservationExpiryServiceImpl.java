@@ -0,0 +1,53 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.component.ReservationOutbox;
+import gr.codelearn.showcase.airline.component.SeatInventory;
+import gr.codelearn.showcase.airline.component.TransactionCallbacks;
+import gr.codelearn.showcase.airline.config.ReservationReaperProperties.Action;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.FlightInventory;
+import gr.codelearn.showcase.airline.repository.FlightInventoryRepository;
+import gr.codelearn.showcase.airline.repository.ReservationRepository;
+import gr.codelearn.showcase.airline.repository.projection.ExpiredReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ReservationExpiryServiceImpl implements ReservationExpiryService {
+	private final ReservationRepository reservationRepo;
+	private final FlightInventoryRepository inventoryRepo;
+	private final SeatInventory seatInventory;
+	private final ReservationOutbox outbox;
+
+	@Override
+	public int expirePending(ZonedDateTime cutoff, int limit, Action action) {
+		var expired = reservationRepo.lockPendingCreatedBefore(cutoff, limit);
+		if (expired.isEmpty()) {
+			return 0;
+		}
+
+		// The whole batch is changed by one statement, without loading a single entity
+		var ids = expired.stream().map(ExpiredReservation::getId).toList();
+		if (action == Action.DELETE) {
+			reservationRepo.deleteByIdIn(ids);
+		} else {
+			reservationRepo.updateStatusByIdIn(ids, BookingStatus.CANCELLED);
+		}
+
+		long cancelled = action == Action.CANCEL ? 1 : 0;
+		expired.stream()
+			   .collect(Collectors.groupingBy(e -> new FlightInventory.Key(e.getFlightId(), e.getSeatClass()), Collectors.counting()))
+			   .forEach((key, count) -> inventoryRepo.adjust(key.getFlightId(), key.getSeatClass().name(), -count, 0,
+															 cancelled * count));
+		outbox.expired(expired);
+
+		TransactionCallbacks.afterCommit(() -> expired.forEach(e -> seatInventory.released(e.getFlightId(), e.getSeatNumber())));
+		return expired.size();
+	}
+}
@@ -0,0 +1,17 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.Reservation;
+
+public record ReservationOutcome(ReservationRequest request, Reservation reservation, String error) {
+	public static ReservationOutcome reserved(ReservationRequest request, Reservation reservation) {
+		return new ReservationOutcome(request, reservation, null);
+	}
+
+	public static ReservationOutcome rejected(ReservationRequest request, String error) {
+		return new ReservationOutcome(request, null, error);
+	}
+
+	public boolean isReserved() {
+		return reservation != null;
+	}
+}
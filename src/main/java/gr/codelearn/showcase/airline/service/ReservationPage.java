@@ -0,0 +1,9 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record ReservationPage(List<ReservationView> reservations, String nextCursor) {
+}
@@ -0,0 +1,11 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+public record ReservationRequest(
+		Long flightId,
+		String customerEmail,
+		SeatClass seatClass,
+		String seatNumber
+) {
+}
@@ -2,15 +2,27 @@ package gr.codelearn.showcase.airline.service;
 
 import gr.codelearn.showcase.airline.domain.Reservation;
 import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ReservationService {
 	Reservation reserve(Long flightId, String customerEmail, SeatClass seatClass, String seatNumber);
 
+	List<ReservationOutcome> reserveAll(List<ReservationRequest> requests, boolean allOrNothing);
+
 	Reservation confirm(Long reservationId);
 
 	void cancel(Long reservationId);
 
+	List<BulkOutcome> confirmAll(BulkSelection selection);
+
+	List<BulkOutcome> cancelAll(BulkSelection selection);
+
 	Optional<Reservation> get(Long reservationId);
+
+	Optional<ReservationView> view(Long reservationId);
+
+	ReservationPage listByCustomer(String customerEmail, String cursor, int size);
 }
@@ -1,53 +1,105 @@
 package gr.codelearn.showcase.airline.service;
 
+import gr.codelearn.showcase.airline.api.transfer.ResultPair;
+import gr.codelearn.showcase.airline.component.CustomerCache;
+import gr.codelearn.showcase.airline.component.FlightLocks;
+import gr.codelearn.showcase.airline.component.ReservationOutbox;
+import gr.codelearn.showcase.airline.component.SeatInventory;
+import gr.codelearn.showcase.airline.component.TransactionCallbacks;
+import gr.codelearn.showcase.airline.config.ConflictRetryConfig;
 import gr.codelearn.showcase.airline.domain.BookingStatus;
 import gr.codelearn.showcase.airline.domain.Customer;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.FlightInventory;
 import gr.codelearn.showcase.airline.domain.Reservation;
 import gr.codelearn.showcase.airline.domain.SeatClass;
 import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.exception.BusinessException.Reason;
 import gr.codelearn.showcase.airline.exception.NotFoundException;
 import gr.codelearn.showcase.airline.repository.CustomerRepository;
+import gr.codelearn.showcase.airline.repository.FlightInventoryRepository;
 import gr.codelearn.showcase.airline.repository.FlightRepository;
 import gr.codelearn.showcase.airline.repository.ReservationRepository;
+import gr.codelearn.showcase.airline.repository.projection.ReservationState;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ReservationServiceImpl implements ReservationService {
+	private static final int MAX_BULK_RESERVATIONS = 1000;
+	private static final int MAX_PAGE_SIZE = 100;
+
 	private final FlightRepository flightRepo;
 	private final CustomerRepository customerRepo;
 	private final ReservationRepository reservationRepo;
+	private final FlightInventoryRepository inventoryRepo;
 	private final Clock clock;
+	private final SeatInventory seatInventory;
+	private final FlightLocks flightLocks;
+	private final CustomerCache customerCache;
+	private final ReservationOutbox outbox;
 
 	@Override
 	public Reservation reserve(Long flightId, String customerEmail, SeatClass seatClass, String seatNumber) {
+		// Reject seats and flights known to be unavailable without touching the database, while the inventory is current
+		if (seatInventory.isCurrent()) {
+			if (seatInventory.isSeatTaken(flightId, seatNumber)) {
+				throw new BusinessException(Reason.SEAT_TAKEN, "Seat already reserved.");
+			}
+			if (seatInventory.isFull(flightId)) {
+				throw new BusinessException(Reason.CAPACITY_FULL, "Flight capacity reached.");
+			}
+		}
+
 		var flight = flightRepo.findById(flightId).orElseThrow(() -> new NotFoundException("Flight not found"));
 
 		if (flight.getDepartureAt().isBefore(ZonedDateTime.now(clock))) {
-			throw new BusinessException("Cannot reserve a flight that has already departed.");
+			throw new BusinessException(Reason.DEPARTED, "Cannot reserve a flight that has already departed.");
 		}
+		seatInventory.track(flight);
 
-		// Check if seat already reserved
-		reservationRepo.findByFlightIdAndSeatNumber(flightId, seatNumber).ifPresent(r -> {
-			throw new BusinessException("Seat already reserved.");
-		});
+		// Seat and capacity checks of the same flight must not interleave
+		return flightLocks.withLock(flightId, () -> book(flight, customerEmail, seatClass, seatNumber));
+	}
+
+	private Reservation book(Flight flight, String customerEmail, SeatClass seatClass, String seatNumber) {
+		var flightId = flight.getId();
 
-		// Check flight capacity
-		long confirmed = reservationRepo.countByFlightIdAndStatus(flightId, BookingStatus.CONFIRMED);
-		if (confirmed == flight.getCapacity()) {
-			throw new BusinessException("Flight capacity reached.");
+		// Check if seat already reserved, cancelled reservations no longer hold their seat
+		if (reservationRepo.findActiveByFlightIdAndSeatNumber(flightId, seatNumber).isPresent()) {
+			seatInventory.seatTaken(flightId, seatNumber);
+			throw new BusinessException(Reason.SEAT_TAKEN, "Seat already reserved.");
+		}
+		seatInventory.seatFree(flightId, seatNumber);
+
+		// Check flight capacity against the flight's inventory counters
+		long confirmed = inventoryRepo.sumConfirmedByFlightId(flightId);
+		seatInventory.confirmedCount(flightId, confirmed);
+		if (confirmed >= flight.getCapacity()) {
+			throw new BusinessException(Reason.CAPACITY_FULL, "Flight capacity reached.");
 		}
 
 		// Ensure customer exists
-		Customer customer = customerRepo.findByEmail(customerEmail).orElseGet(
-				() -> customerRepo.save(new Customer(null, customerEmail, customerEmail)));
+		Customer customer = customerOf(customerEmail);
 
 		// Create new reservation
 		Reservation res = new Reservation();
@@ -58,30 +110,345 @@ public class ReservationServiceImpl implements ReservationService {
 		res.setStatus(BookingStatus.PENDING);
 		res.setCreatedAt(ZonedDateTime.now(clock));
 
-		return reservationRepo.save(res);
+		Reservation saved = reservationRepo.save(res);
+		inventoryRepo.reserved(flightId, seatClass, 1);
+		outbox.created(List.of(saved));
+		TransactionCallbacks.afterCommit(() -> seatInventory.reserved(saved));
+		return saved;
+	}
+
+	private Customer customerOf(String email) {
+		// Repeat customers are attached from the cache without a lookup
+		var cached = customerCache.find(email);
+		if (cached.isPresent()) {
+			return cached.get();
+		}
+		// Creates the customer or returns the existing one in a single round-trip, first bookings of the same email do not race
+		Customer customer = customerRepo.upsert(email, email);
+		// Newly created customers only become visible to other bookings once committed
+		TransactionCallbacks.afterCommit(() -> customerCache.put(customer));
+		return customer;
 	}
 
 	@Override
+	public List<ReservationOutcome> reserveAll(List<ReservationRequest> requests, boolean allOrNothing) {
+		if (requests == null || requests.isEmpty()) {
+			throw new BusinessException("At least one reservation must be requested.");
+		}
+		if (requests.size() > MAX_BULK_RESERVATIONS) {
+			throw new BusinessException("At most " + MAX_BULK_RESERVATIONS + " reservations can be made at once.");
+		}
+		var flightIds = requests.stream().map(ReservationRequest::flightId).collect(Collectors.toSet());
+		Map<Long, Flight> flights = flightRepo.findAllById(flightIds).stream()
+											  .collect(Collectors.toMap(Flight::getId, Function.identity()));
+		flights.values().forEach(seatInventory::track);
+
+		// All flights of the batch are locked together, in stripe order, for the whole transaction
+		return flightLocks.withLocks(flights.keySet(), () -> bookAll(requests, flights, allOrNothing));
+	}
+
+	private List<ReservationOutcome> bookAll(List<ReservationRequest> requests, Map<Long, Flight> flights, boolean allOrNothing) {
+		var now = ZonedDateTime.now(clock);
+		var seatNumbers = requests.stream().map(ReservationRequest::seatNumber).collect(Collectors.toSet());
+
+		// One query for every requested seat and one for the inventory counters of every flight
+		Set<String> taken = new HashSet<>();
+		if (!flights.isEmpty()) {
+			reservationRepo.findSeatOccupancyByFlightIdInAndSeatNumberIn(flights.keySet(), seatNumbers)
+						   .forEach(o -> taken.add(seatKey(o.getFlightId(), o.getSeatNumber())));
+		}
+		Map<Long, Long> confirmed = flights.isEmpty() ? Map.of() :
+									inventoryRepo.sumConfirmedByFlightIdIn(flights.keySet()).stream()
+												 .collect(Collectors.toMap(ResultPair::getKey, ResultPair::getValue));
+
+		List<ReservationOutcome> outcomes = new ArrayList<>(requests.size());
+		List<Reservation> accepted = new ArrayList<>(requests.size());
+		for (ReservationRequest request : requests) {
+			var flight = flights.get(request.flightId());
+			String error = rejectionOf(request, flight, taken, confirmed, now);
+			if (error != null) {
+				outcomes.add(ReservationOutcome.rejected(request, error));
+				continue;
+			}
+			// Later requests of the same batch must not get the same seat
+			taken.add(seatKey(flight.getId(), request.seatNumber()));
+
+			Reservation res = new Reservation();
+			res.setFlight(flight);
+			res.setSeatClass(request.seatClass());
+			res.setSeatNumber(request.seatNumber());
+			res.setStatus(BookingStatus.PENDING);
+			res.setCreatedAt(now);
+			accepted.add(res);
+			outcomes.add(ReservationOutcome.reserved(request, res));
+		}
+
+		if (allOrNothing && accepted.size() < requests.size()) {
+			return outcomes.stream()
+						   .map(o -> o.isReserved()
+									 ? ReservationOutcome.rejected(o.request(), "Seat not reserved, the batch is all-or-nothing.")
+									 : o)
+						   .toList();
+		}
+		if (accepted.isEmpty()) {
+			return outcomes;
+		}
+
+		// Ensure customers exist
+		var customers = customersOf(outcomes.stream().filter(ReservationOutcome::isReserved).map(ReservationOutcome::request).toList());
+		for (ReservationOutcome outcome : outcomes) {
+			if (outcome.isReserved()) {
+				outcome.reservation().setCustomer(customers.get(outcome.request().customerEmail()));
+			}
+		}
+
+		// Inserts are flushed together, letting hibernate.jdbc.batch_size group them
+		List<Reservation> saved = reservationRepo.saveAll(accepted);
+		// One counter increment per flight and seat class rather than per seat
+		accepted.stream()
+				.collect(Collectors.groupingBy(r -> new FlightInventory.Key(r.getFlight().getId(), r.getSeatClass()), Collectors.counting()))
+				.forEach((key, count) -> inventoryRepo.reserved(key.getFlightId(), key.getSeatClass(), count));
+		outbox.created(saved);
+		TransactionCallbacks.afterCommit(() -> saved.forEach(seatInventory::reserved));
+		return outcomes;
+	}
+
+	private String rejectionOf(ReservationRequest request, Flight flight, Set<String> taken, Map<Long, Long> confirmed,
+							   ZonedDateTime now) {
+		if (flight == null) {
+			return "Flight not found";
+		}
+		if (flight.getDepartureAt().isBefore(now)) {
+			return "Cannot reserve a flight that has already departed.";
+		}
+		if (seatInventory.isCurrent() && seatInventory.isSeatTaken(flight.getId(), request.seatNumber()) ||
+			taken.contains(seatKey(flight.getId(), request.seatNumber()))) {
+			return "Seat already reserved.";
+		}
+		if (confirmed.getOrDefault(flight.getId(), 0L) >= flight.getCapacity()) {
+			return "Flight capacity reached.";
+		}
+		return null;
+	}
+
+	private Map<String, Customer> customersOf(List<ReservationRequest> requests) {
+		Map<String, Customer> customers = new HashMap<>();
+		Set<String> emails = new HashSet<>();
+		for (ReservationRequest request : requests) {
+			var email = request.customerEmail();
+			if (!customers.containsKey(email) && !emails.contains(email)) {
+				customerCache.find(email).ifPresentOrElse(c -> customers.put(email, c), () -> emails.add(email));
+			}
+		}
+		if (emails.isEmpty()) {
+			return customers;
+		}
+
+		// Missing customers are created and existing ones returned by one statement
+		var resolved = customerRepo.upsertAll(emails);
+		resolved.forEach(c -> customers.put(c.getEmail(), c));
+		TransactionCallbacks.afterCommit(() -> resolved.forEach(customerCache::put));
+		return customers;
+	}
+
+	private static String seatKey(Long flightId, String seatNumber) {
+		return flightId + ":" + seatNumber;
+	}
+
+	@Override
+	@Retryable(interceptor = ConflictRetryConfig.CONFLICT_RETRY)
 	public Reservation confirm(Long id) {
 		Reservation r = reservationRepo.findById(id).orElseThrow(() -> new NotFoundException("Reservation not found."));
 
 		if (r.getStatus() == BookingStatus.CANCELLED) {
 			throw new BusinessException("Cannot confirm a cancelled reservation.");
 		}
+		if (r.getStatus() == BookingStatus.CONFIRMED) {
+			return r;
+		}
 
-		r.setStatus(BookingStatus.CONFIRMED);
-		return r;
+		// Confirmed seats are what capacity is measured against, so confirmations are admitted one at a time per flight
+		var flight = r.getFlight();
+		return flightLocks.withLock(flight.getId(), () -> {
+			long confirmed = inventoryRepo.sumConfirmedByFlightId(flight.getId());
+			if (confirmed >= flight.getCapacity()) {
+				throw new BusinessException(Reason.CAPACITY_FULL, "Flight capacity reached.");
+			}
+
+			var previous = r.getStatus();
+			r.setStatus(BookingStatus.CONFIRMED);
+			inventoryRepo.moved(flight.getId(), r.getSeatClass(), previous, BookingStatus.CONFIRMED);
+			outbox.changed(r, previous);
+			TransactionCallbacks.afterCommit(() -> seatInventory.confirmed(r, previous));
+			return r;
+		});
 	}
 
 	@Override
+	@Retryable(interceptor = ConflictRetryConfig.CONFLICT_RETRY)
 	public void cancel(Long id) {
 		Reservation r = reservationRepo.findById(id).orElseThrow(() -> new NotFoundException("Reservation not found."));
 
+		var previous = r.getStatus();
 		r.setStatus(BookingStatus.CANCELLED);
+		inventoryRepo.moved(r.getFlight().getId(), r.getSeatClass(), previous, BookingStatus.CANCELLED);
+		outbox.changed(r, previous);
+		TransactionCallbacks.afterCommit(() -> seatInventory.cancelled(r, previous));
+	}
+
+	// One update per previous status instead of one entity per reservation, a shortfall retries the whole transaction
+	@Override
+	@Retryable(interceptor = ConflictRetryConfig.CONFLICT_RETRY)
+	public List<BulkOutcome> confirmAll(BulkSelection selection) {
+		var states = statesOf(selection);
+		var flightIds = states.stream().map(ReservationState::getFlightId).collect(Collectors.toSet());
+
+		// Same admission rule as a single confirm, checked for all flights of the selection under their locks
+		return flightLocks.withLocks(flightIds, () -> {
+			Map<Long, Long> confirmed = flightIds.isEmpty() ? new HashMap<>() :
+										inventoryRepo.sumConfirmedByFlightIdIn(flightIds).stream()
+													 .collect(Collectors.toMap(ResultPair::getKey, ResultPair::getValue));
+			Map<Long, BulkOutcome> outcomes = new HashMap<>();
+			List<ReservationState> admitted = new ArrayList<>();
+			for (ReservationState state : states) {
+				switch (state.getStatus()) {
+					case CANCELLED -> outcomes.put(state.getId(), BulkOutcome.rejected(state.getId(), state.getStatus(),
+																					   "Cannot confirm a cancelled reservation."));
+					case CONFIRMED -> outcomes.put(state.getId(), BulkOutcome.unchanged(state.getId(), state.getStatus()));
+					case PENDING -> {
+						long flightConfirmed = confirmed.getOrDefault(state.getFlightId(), 0L);
+						if (flightConfirmed >= state.getCapacity()) {
+							outcomes.put(state.getId(), BulkOutcome.rejected(state.getId(), state.getStatus(), "Flight capacity reached."));
+						} else {
+							confirmed.put(state.getFlightId(), flightConfirmed + 1);
+							admitted.add(state);
+							outcomes.put(state.getId(), BulkOutcome.changed(state.getId(), BookingStatus.CONFIRMED));
+						}
+					}
+				}
+			}
+
+			// A whole flight is updated by flight id when every pending reservation was admitted
+			boolean allAdmitted = admitted.size() == states.stream().filter(s -> s.getStatus() == BookingStatus.PENDING).count();
+			moveAll(selection.isFlight() && allAdmitted ? selection.flightId() : null, admitted, BookingStatus.PENDING,
+					BookingStatus.CONFIRMED);
+			TransactionCallbacks.afterCommit(
+					() -> admitted.forEach(state -> seatInventory.confirmed(state.getFlightId(), BookingStatus.PENDING)));
+			return outcomesOf(selection, states, outcomes);
+		});
+	}
+
+	@Override
+	@Retryable(interceptor = ConflictRetryConfig.CONFLICT_RETRY)
+	public List<BulkOutcome> cancelAll(BulkSelection selection) {
+		var states = statesOf(selection);
+
+		Map<Long, BulkOutcome> outcomes = new HashMap<>();
+		Map<BookingStatus, List<ReservationState>> cancelled = new HashMap<>();
+		for (ReservationState state : states) {
+			if (state.getStatus() == BookingStatus.CANCELLED) {
+				outcomes.put(state.getId(), BulkOutcome.unchanged(state.getId(), state.getStatus()));
+			} else {
+				cancelled.computeIfAbsent(state.getStatus(), status -> new ArrayList<>()).add(state);
+				outcomes.put(state.getId(), BulkOutcome.changed(state.getId(), BookingStatus.CANCELLED));
+			}
+		}
+
+		cancelled.forEach((previous, changed) -> moveAll(selection.flightId(), changed, previous, BookingStatus.CANCELLED));
+		TransactionCallbacks.afterCommit(() -> cancelled.forEach(
+				(previous, changed) -> changed.forEach(state -> seatInventory.cancelled(state.getFlightId(), state.getSeatNumber(), previous))));
+		return outcomesOf(selection, states, outcomes);
+	}
+
+	private List<ReservationState> statesOf(BulkSelection selection) {
+		boolean byIds = selection.reservationIds() != null && !selection.reservationIds().isEmpty();
+		if (byIds == selection.isFlight()) {
+			throw new BusinessException("Select either a list of reservation ids or a flight.");
+		}
+		if (selection.isFlight()) {
+			if (!flightRepo.existsById(selection.flightId())) {
+				throw new NotFoundException("Flight not found");
+			}
+			return reservationRepo.findActiveStatesByFlightId(selection.flightId());
+		}
+		if (selection.reservationIds().size() > MAX_BULK_RESERVATIONS) {
+			throw new BusinessException("At most " + MAX_BULK_RESERVATIONS + " reservations can be changed at once.");
+		}
+		return reservationRepo.findStatesByIdIn(new HashSet<>(selection.reservationIds()));
+	}
+
+	// With a flight id the states are every reservation of that flight still in the from status
+	private void moveAll(Long flightId, List<ReservationState> states, BookingStatus from, BookingStatus to) {
+		if (states.isEmpty()) {
+			return;
+		}
+		int updated = 0;
+		if (flightId != null) {
+			updated = reservationRepo.updateStatusByFlightIdAndStatus(flightId, from, to);
+		} else {
+			var ids = states.stream().map(ReservationState::getId).toList();
+			for (int i = 0; i < ids.size(); i += MAX_BULK_RESERVATIONS) {
+				updated += reservationRepo.updateStatusByIdInAndStatus(ids.subList(i, Math.min(i + MAX_BULK_RESERVATIONS, ids.size())),
+																	   from, to);
+			}
+		}
+		if (updated != states.size()) {
+			throw new OptimisticLockingFailureException("Reservations were modified concurrently.");
+		}
+		states.stream()
+			  .collect(Collectors.groupingBy(s -> new FlightInventory.Key(s.getFlightId(), s.getSeatClass()), Collectors.counting()))
+			  .forEach((key, count) -> inventoryRepo.moved(key.getFlightId(), key.getSeatClass(), from, to, count));
+		outbox.changed(states, from, to);
+	}
+
+	// Outcomes follow the order of the requested ids, ids that were not found are reported as such. A flight reports
+	// its reservations that were not already cancelled.
+	private static List<BulkOutcome> outcomesOf(BulkSelection selection, List<ReservationState> states, Map<Long, BulkOutcome> outcomes) {
+		if (selection.isFlight()) {
+			return states.stream().map(state -> outcomes.get(state.getId())).toList();
+		}
+		return selection.reservationIds().stream()
+						.distinct()
+						.map(id -> outcomes.getOrDefault(id, BulkOutcome.rejected(id, null, "Reservation not found.")))
+						.toList();
 	}
 
 	@Override
 	public Optional<Reservation> get(Long id) {
 		return reservationRepo.findById(id);
 	}
+
+	// Read-only projection by a single join, no lazy associations to touch and no dirty-check snapshots
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<ReservationView> view(Long id) {
+		return reservationRepo.findViewById(id);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public ReservationPage listByCustomer(String customerEmail, String cursor, int size) {
+		if (size < 1 || size > MAX_PAGE_SIZE) {
+			throw new BusinessException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+		}
+		var customer = customerCache.find(customerEmail)
+									.or(() -> customerRepo.findByEmail(customerEmail))
+									.orElseThrow(() -> new NotFoundException("Customer not found."));
+
+		// One row more than asked for tells whether there is a next page without counting
+		var limit = Limit.of(size + 1);
+		List<ReservationView> rows;
+		if (cursor == null) {
+			rows = reservationRepo.findViewsByCustomerId(customer.getId(), limit);
+		} else {
+			var after = ReservationCursor.decode(cursor);
+			rows = reservationRepo.findViewsByCustomerIdBefore(customer.getId(), after.createdAt(), after.id(), limit);
+		}
+		if (rows.size() <= size) {
+			return new ReservationPage(rows, null);
+		}
+		var page = rows.subList(0, size);
+		var last = page.getLast();
+		return new ReservationPage(page, new ReservationCursor(last.getCreatedAt(), last.getId()).encode());
+	}
 }
@@ -0,0 +1,6 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+public record SeatClassAvailability(SeatClass seatClass, long pending, long confirmed, long cancelled) {
+}
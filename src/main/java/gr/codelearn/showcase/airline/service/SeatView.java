@@ -0,0 +1,7 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.domain.SeatState;
+
+public record SeatView(String seatNumber, SeatState state, SeatClass seatClass) {
+}
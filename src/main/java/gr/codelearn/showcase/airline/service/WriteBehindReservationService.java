@@ -0,0 +1,130 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.component.QueuedReservation;
+import gr.codelearn.showcase.airline.component.ReservationWriteBehind;
+import gr.codelearn.showcase.airline.component.SeatInventory;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Customer;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.exception.BusinessException.Reason;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * With airline.write-behind enabled, reserve claims the seat in SeatInventory and returns at once while
+ * ReservationWriteBehind writes the row. Other calls first wait for the rows they name.
+ */
+@Service
+public class WriteBehindReservationService implements ReservationService {
+	private final ReservationService delegate;
+	private final ReservationWriteBehind writeBehind;
+	private final FlightService flightService;
+	private final SeatInventory seatInventory;
+	private final Clock clock;
+
+	public WriteBehindReservationService(final ReservationServiceImpl delegate, final ReservationWriteBehind writeBehind,
+										 final FlightService flightService, final SeatInventory seatInventory, final Clock clock) {
+		this.delegate = delegate;
+		this.writeBehind = writeBehind;
+		this.flightService = flightService;
+		this.seatInventory = seatInventory;
+		this.clock = clock;
+	}
+
+	@Override
+	public Reservation reserve(Long flightId, String customerEmail, SeatClass seatClass, String seatNumber) {
+		if (!writeBehind.isEnabled()) {
+			return delegate.reserve(flightId, customerEmail, seatClass, seatNumber);
+		}
+		if (seatInventory.isFull(flightId)) {
+			throw new BusinessException(Reason.CAPACITY_FULL, "Flight capacity reached.");
+		}
+
+		// Flights come from the in-memory index, a booking takes no connection unless a new block of ids is needed
+		var flight = flightService.get(flightId);
+		var now = ZonedDateTime.now(clock);
+		if (flight.getDepartureAt().isBefore(now)) {
+			throw new BusinessException(Reason.DEPARTED, "Cannot reserve a flight that has already departed.");
+		}
+		if (!seatInventory.tryReserve(flight, seatNumber)) {
+			throw new BusinessException(Reason.SEAT_TAKEN, "Seat already reserved.");
+		}
+
+		try {
+			var queued = new QueuedReservation(writeBehind.nextId(), flightId, customerEmail, seatClass, seatNumber, now.toInstant());
+			writeBehind.publish(queued);
+			return toReservation(queued, flight, now);
+		} catch (RuntimeException e) {
+			seatInventory.released(flightId, seatNumber);
+			throw e;
+		}
+	}
+
+	private static Reservation toReservation(QueuedReservation queued, Flight flight, ZonedDateTime createdAt) {
+		var customer = new Customer(null, queued.customerEmail(), queued.customerEmail());
+		return new Reservation(queued.id(), flight, customer, queued.seatClass(), queued.seatNumber(), BookingStatus.PENDING, 0,
+							   createdAt);
+	}
+
+	@Override
+	public List<ReservationOutcome> reserveAll(List<ReservationRequest> requests, boolean allOrNothing) {
+		return delegate.reserveAll(requests, allOrNothing);
+	}
+
+	@Override
+	public Reservation confirm(Long reservationId) {
+		writeBehind.awaitPersisted(reservationId);
+		return delegate.confirm(reservationId);
+	}
+
+	@Override
+	public void cancel(Long reservationId) {
+		writeBehind.awaitPersisted(reservationId);
+		delegate.cancel(reservationId);
+	}
+
+	@Override
+	public List<BulkOutcome> confirmAll(BulkSelection selection) {
+		awaitPersisted(selection);
+		return delegate.confirmAll(selection);
+	}
+
+	@Override
+	public List<BulkOutcome> cancelAll(BulkSelection selection) {
+		awaitPersisted(selection);
+		return delegate.cancelAll(selection);
+	}
+
+	private void awaitPersisted(BulkSelection selection) {
+		if (selection.isFlight()) {
+			writeBehind.awaitPersisted();
+		} else if (selection.reservationIds() != null) {
+			selection.reservationIds().forEach(writeBehind::awaitPersisted);
+		}
+	}
+
+	@Override
+	public Optional<Reservation> get(Long reservationId) {
+		writeBehind.awaitPersisted(reservationId);
+		return delegate.get(reservationId);
+	}
+
+	@Override
+	public Optional<ReservationView> view(Long reservationId) {
+		writeBehind.awaitPersisted(reservationId);
+		return delegate.view(reservationId);
+	}
+
+	@Override
+	public ReservationPage listByCustomer(String customerEmail, String cursor, int size) {
+		return delegate.listByCustomer(customerEmail, cursor, size);
+	}
+}
@@ -0,0 +1,17 @@
+-- Moves flights, customers and reservations from identity columns to pooled-lo sequences.
+-- IDENTITY forces Hibernate to execute every insert immediately to learn the generated id, which silently disables
+-- hibernate.jdbc.batch_size and reWriteBatchedInserts. Each sequence starts right after the highest existing id and
+-- increments by the allocationSize declared on the entity (100), so one nextval() call covers a whole insert batch.
+-- Run once against an existing database before starting the new application version.
+
+create sequence if not exists flights_seq increment by 100;
+select setval('flights_seq', coalesce((select max(id) from flights), 0) + 1, false);
+alter table flights alter column id drop identity if exists;
+
+create sequence if not exists customers_seq increment by 100;
+select setval('customers_seq', coalesce((select max(id) from customers), 0) + 1, false);
+alter table customers alter column id drop identity if exists;
+
+create sequence if not exists reservations_seq increment by 100;
+select setval('reservations_seq', coalesce((select max(id) from reservations), 0) + 1, false);
+alter table reservations alter column id drop identity if exists;
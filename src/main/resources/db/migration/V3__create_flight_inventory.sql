@@ -0,0 +1,30 @@
+-- Per flight and seat class reservation counters, maintained by the application with relative increments.
+-- Capacity checks read these rows instead of counting the reservations of a flight.
+-- Run once against an existing database before starting the new application version, it also backfills the counters
+-- from the reservations already stored.
+
+create table if not exists flight_inventory
+(
+    flight_id  bigint       not null references flights (id),
+    seat_class varchar(255) not null,
+    pending    bigint       not null default 0,
+    confirmed  bigint       not null default 0,
+    cancelled  bigint       not null default 0,
+    primary key (flight_id, seat_class)
+);
+
+insert into flight_inventory (flight_id, seat_class, pending, confirmed, cancelled)
+select flight_id,
+       seat_class,
+       count(*) filter (where status = 'PENDING'),
+       count(*) filter (where status = 'CONFIRMED'),
+       count(*) filter (where status = 'CANCELLED')
+from reservations
+group by flight_id, seat_class
+on conflict (flight_id, seat_class) do update
+    set pending   = excluded.pending,
+        confirmed = excluded.confirmed,
+        cancelled = excluded.cancelled;
+
+-- Route searches filtered by free seats start from the flights of one route and departure window
+create index if not exists idx_flights_route_departure on flights (origin, destination, departure_at);
@@ -0,0 +1,4 @@
+-- Lets the PENDING reservation reaper find the oldest expired holds without scanning the table.
+-- Only PENDING rows are indexed, so the index stays small however many confirmed and cancelled reservations pile up.
+
+create index if not exists idx_reservations_pending_created_at on reservations (created_at) where status = 'PENDING';
@@ -0,0 +1,9 @@
+-- Lets cancelled seats be booked again.
+-- uk_flight_seat made (flight_id, seat_number) unique across every reservation, so a cancelled row kept its seat forever.
+-- uk_flight_seat_active only covers PENDING and CONFIRMED reservations, any number of cancelled rows may share a seat.
+-- Run once against an existing database before starting the new application version, the new index is built first so
+-- the seats are never left unguarded.
+
+create unique index if not exists uk_flight_seat_active on reservations (flight_id, seat_number) where status <> 'CANCELLED';
+
+alter table reservations drop constraint if exists uk_flight_seat;
@@ -0,0 +1,12 @@
+-- Responses of keyed POST /api/reservations requests, replayed when a client retries with the same Idempotency-Key.
+-- Keys are purged once past airline.idempotency.retention, the created_at index keeps that delete cheap.
+
+create table if not exists idempotency_keys
+(
+    idempotency_key varchar(255)             not null primary key,
+    request_hash    varchar(64)              not null,
+    response        text                     not null,
+    created_at      timestamp with time zone not null
+);
+
+create index if not exists idx_idempotency_keys_created_at on idempotency_keys (created_at);
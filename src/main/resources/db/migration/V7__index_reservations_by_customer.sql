@@ -0,0 +1,4 @@
+-- Lets GET /api/customers/{email}/reservations seek straight to a page by (created_at, id) within a customer.
+-- Pages are read newest first, a backward scan of the ascending index serves that order without a sort.
+
+create index if not exists idx_reservations_customer_created_at on reservations (customer_id, created_at, id);
@@ -0,0 +1,4 @@
+-- Seat map ETags are read from flight_inventory, every relative adjustment of a row also bumps its changes counter.
+-- Existing rows start from zero, clients holding an ETag of the previous version simply get one full response.
+
+alter table flight_inventory add column if not exists changes bigint not null default 0;
@@ -0,0 +1,23 @@
+-- Reservation status changes, written by the transaction making them and published in order by the outbox relay.
+-- Run once against an existing database before starting the new application version. The partial index only covers
+-- unpublished events, in the order the relay claims them.
+
+create sequence if not exists outbox_events_seq increment by 100;
+
+create table if not exists outbox_events
+(
+    id              bigint                   not null primary key,
+    reservation_id  bigint                   not null,
+    flight_id       bigint                   not null,
+    seat_class      varchar(255)             not null,
+    seat_number     varchar(255)             not null,
+    previous_status varchar(255),
+    status          varchar(255)             not null,
+    occurred_at     timestamp with time zone not null,
+    feed_position   bigint,
+    published_at    timestamp with time zone
+);
+
+create unique index if not exists uk_outbox_events_feed_position on outbox_events (feed_position);
+create index if not exists idx_outbox_events_published_at on outbox_events (published_at);
+create index if not exists idx_outbox_events_unpublished_occurred_at on outbox_events (occurred_at, id) where published_at is null;
@@ -0,0 +1,87 @@
+package gr.codelearn.showcase.airline.advice;
+
+import gr.codelearn.showcase.airline.api.transfer.ApiError;
+import gr.codelearn.showcase.airline.api.transfer.ApiResponse;
+import gr.codelearn.showcase.airline.component.BaseComponent;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.exception.NotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+/*
+ * The reactive counterpart of GlobalExceptionHandler, same statuses and ApiError payloads.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveExceptionHandler extends BaseComponent {
+	@ExceptionHandler(Exception.class)
+	public ResponseEntity<ApiResponse<?>> handleException(final Exception ex, final ServerHttpRequest request) {
+		logger.error("Unexpected exception occurred. Please retry the operation.", ex);
+		return response(ex, HttpStatus.INTERNAL_SERVER_ERROR, request, "Unexpected exception occurred. Please retry the operation.");
+	}
+
+	@ExceptionHandler(NotFoundException.class)
+	public ResponseEntity<ApiResponse<?>> handleException(final NotFoundException ex, final ServerHttpRequest request) {
+		logger.error("Unable to find the selected resource.", ex);
+		return response(ex, HttpStatus.FORBIDDEN, request, null);
+	}
+
+	@ExceptionHandler(BusinessException.class)
+	public ResponseEntity<ApiResponse<?>> handleException(final BusinessException ex, final ServerHttpRequest request) {
+		logger.error("Unable to complete the selected action.", ex);
+		return response(ex, HttpStatus.FORBIDDEN, request, null);
+	}
+
+	@ExceptionHandler(DataAccessException.class)
+	public ResponseEntity<ApiResponse<?>> handleException(final DataAccessException ex, final ServerHttpRequest request) {
+		var customMessage = "There was something wrong while interacting with the associated database.";
+		logger.error(customMessage, ex);
+		return response(ex, HttpStatus.NOT_ACCEPTABLE, request, customMessage);
+	}
+
+	@ExceptionHandler(ConcurrencyFailureException.class)
+	public ResponseEntity<ApiResponse<?>> handleException(final ConcurrencyFailureException ex, final ServerHttpRequest request) {
+		// Only reached once the conflict retries are used up
+		var customMessage = "The resource was modified concurrently, please retry the operation.";
+		logger.warn(customMessage, ex);
+		return response(ex, HttpStatus.CONFLICT, request, customMessage);
+	}
+
+	@ExceptionHandler(DataIntegrityViolationException.class)
+	public ResponseEntity<ApiResponse<?>> handleException(final DataIntegrityViolationException ex, final ServerHttpRequest request) {
+		var customMessage = "There was a constraint violation while interacting with the associated database.";
+		logger.error(customMessage, ex);
+		return response(ex, HttpStatus.NOT_ACCEPTABLE, request, customMessage);
+	}
+
+	@ExceptionHandler(ServerWebInputException.class)
+	public ResponseEntity<ApiResponse<?>> handleException(final ServerWebInputException ex, final ServerHttpRequest request) {
+		var customMessage = "The submitted HTTP request could not be parsed.";
+		logger.error(customMessage, ex);
+		return response(ex, HttpStatus.BAD_REQUEST, request, customMessage);
+	}
+
+	@ExceptionHandler(ResponseStatusException.class)
+	public ResponseEntity<ApiResponse<?>> handleException(final ResponseStatusException ex, final ServerHttpRequest request) {
+		logger.error("The request could not be served.", ex);
+		return response(ex, ex.getStatusCode(), request, ex.getReason());
+	}
+
+	private ResponseEntity<ApiResponse<?>> response(final Exception ex, final HttpStatusCode status, final ServerHttpRequest request,
+												   final String customMessage) {
+		var apiError = new ApiError(status.value(), customMessage != null ? customMessage : ex.getMessage(),
+									request.getPath().value());
+		return new ResponseEntity<>(ApiResponse.builder().apiError(apiError).build(), status);
+	}
+}
@@ -0,0 +1,64 @@
+package gr.codelearn.showcase.airline.api.controller;
+
+import gr.codelearn.showcase.airline.api.resource.mapper.ReactiveReservationMapper;
+import gr.codelearn.showcase.airline.api.resource.request.CreateReservationResource;
+import gr.codelearn.showcase.airline.api.resource.response.ReservationResource;
+import gr.codelearn.showcase.airline.api.transfer.ApiResponse;
+import gr.codelearn.showcase.airline.repository.reactive.ReservationDetails;
+import gr.codelearn.showcase.airline.service.ReactiveReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/*
+ * The single-reservation endpoints of ReservationController, served by WebFlux on the same paths and payloads with the
+ * reactive profile. Batch, bulk and Idempotency-Key requests run on blocking services and stay on the servlet stack.
+ */
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequestMapping("/api/reservations")
+public class ReactiveReservationController {
+	private final ReactiveReservationService service;
+	private final ReactiveReservationMapper mapper;
+
+	@PostMapping
+	public Mono<ResponseEntity<ApiResponse<ReservationResource>>> reserve(@RequestBody CreateReservationResource resource) {
+		return service.reserve(resource.flightId(), resource.customerEmail(), resource.seatClass(), resource.seatNumber())
+					  .map(this::ok);
+	}
+
+	@GetMapping("/{id}")
+	public Mono<ResponseEntity<ApiResponse<ReservationResource>>> get(@PathVariable Long id) {
+		return service.view(id)
+					  .map(this::ok)
+					  .defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	@PostMapping(value = "/{id}", headers = "action=confirm")
+	public Mono<ResponseEntity<ApiResponse<ReservationResource>>> confirm(@PathVariable Long id) {
+		return service.confirm(id).map(this::ok);
+	}
+
+	@PostMapping(value = "/{id}", headers = "action=cancel")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public Mono<Void> cancel(@PathVariable Long id) {
+		return service.cancel(id);
+	}
+
+	private ResponseEntity<ApiResponse<ReservationResource>> ok(ReservationDetails details) {
+		return ResponseEntity.ok(ApiResponse.<ReservationResource>builder()
+											.data(mapper.toResource(details))
+											.build());
+	}
+}
@@ -0,0 +1,10 @@
+package gr.codelearn.showcase.airline.api.resource.mapper;
+
+import gr.codelearn.showcase.airline.api.resource.response.ReservationResource;
+import gr.codelearn.showcase.airline.repository.reactive.ReservationDetails;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring", config = IgnoreUnmappedMapperConfig.class)
+public interface ReactiveReservationMapper {
+	ReservationResource toResource(ReservationDetails details);
+}
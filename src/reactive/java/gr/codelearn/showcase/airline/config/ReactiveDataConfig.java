@@ -0,0 +1,49 @@
+package gr.codelearn.showcase.airline.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+
+/*
+ * Declares the Hikari DataSource and both transaction managers, which Spring Boot would drop or let clash once R2DBC
+ * is present. The JPA manager stays the default, reactive services run through the TransactionalOperator.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ReactiveDataConfig {
+	@Bean
+	@Primary
+	@ConfigurationProperties("spring.datasource")
+	DataSourceProperties dataSourceProperties() {
+		return new DataSourceProperties();
+	}
+
+	@Bean
+	@Primary
+	@ConfigurationProperties("spring.datasource.hikari")
+	HikariDataSource dataSource(final DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	@Primary
+	JpaTransactionManager transactionManager(final EntityManagerFactory entityManagerFactory,
+											 final ObjectProvider<TransactionManagerCustomizers> customizers) {
+		var transactionManager = new JpaTransactionManager(entityManagerFactory);
+		customizers.ifAvailable(c -> c.customize(transactionManager));
+		return transactionManager;
+	}
+
+	@Bean
+	R2dbcTransactionManager reactiveTransactionManager(final ConnectionFactory connectionFactory) {
+		return new R2dbcTransactionManager(connectionFactory);
+	}
+}
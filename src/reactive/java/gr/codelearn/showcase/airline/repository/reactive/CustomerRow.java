@@ -0,0 +1,8 @@
+package gr.codelearn.showcase.airline.repository.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("customers")
+public record CustomerRow(@Id Long id, String fullName, String email) {
+}
@@ -0,0 +1,11 @@
+package gr.codelearn.showcase.airline.repository.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.OffsetDateTime;
+
+@Table("flights")
+public record FlightRow(@Id Long id, String origin, String destination, OffsetDateTime departureAt, OffsetDateTime arrivalAt,
+						Integer capacity) {
+}
@@ -0,0 +1,20 @@
+package gr.codelearn.showcase.airline.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCustomerRepository extends R2dbcRepository<CustomerRow, Long> {
+	// Same statement as CustomerRepository.upsert
+	@Query("""
+		   with existing as (select * from customers where email = :email),
+		        inserted as (insert into customers (id, full_name, email)
+		                     select nextval('customers_seq'), :fullName, :email
+		                     where not exists (select 1 from existing)
+		                     on conflict (email) do update set email = excluded.email
+		                     returning *)
+		   select * from existing
+		   union all
+		   select * from inserted""")
+	Mono<CustomerRow> upsert(String email, String fullName);
+}
@@ -0,0 +1,48 @@
+package gr.codelearn.showcase.airline.repository.reactive;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveFlightRepository extends R2dbcRepository<FlightRow, Long> {
+	/*
+	 * Locks the flight row until the transaction ends. Confirmations of the same flight queue on the database, which
+	 * is what FlightLocks does for the servlet stack without parking a thread.
+	 */
+	@Query("select capacity from flights where id = :id for update")
+	Mono<Integer> lockCapacityById(Long id);
+
+	@Query("select cast(coalesce(sum(confirmed), 0) as bigint) from flight_inventory where flight_id = :flightId")
+	Mono<Long> sumConfirmedByFlightId(Long flightId);
+
+	// Same statement as FlightInventoryRepository.adjust
+	@Modifying
+	@Query("""
+		   insert into flight_inventory (flight_id, seat_class, pending, confirmed, cancelled, changes)
+		   values (:flightId, :seatClass, :pending, :confirmed, :cancelled, 1)
+		   on conflict (flight_id, seat_class) do update
+		   set pending = flight_inventory.pending + excluded.pending,
+		       confirmed = flight_inventory.confirmed + excluded.confirmed,
+		       cancelled = flight_inventory.cancelled + excluded.cancelled,
+		       changes = flight_inventory.changes + 1""")
+	Mono<Integer> adjustInventory(Long flightId, String seatClass, long pending, long confirmed, long cancelled);
+
+	default Mono<Void> reserved(Long flightId, SeatClass seatClass) {
+		return adjustInventory(flightId, seatClass.name(), 1, 0, 0).then();
+	}
+
+	default Mono<Void> moved(Long flightId, SeatClass seatClass, BookingStatus from, BookingStatus to) {
+		if (from == to) {
+			return Mono.empty();
+		}
+		return adjustInventory(flightId, seatClass.name(), delta(BookingStatus.PENDING, from, to),
+							   delta(BookingStatus.CONFIRMED, from, to), delta(BookingStatus.CANCELLED, from, to)).then();
+	}
+
+	private static long delta(BookingStatus counter, BookingStatus from, BookingStatus to) {
+		return (counter == to ? 1 : 0) - (counter == from ? 1 : 0);
+	}
+}
@@ -0,0 +1,48 @@
+package gr.codelearn.showcase.airline.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+
+public interface ReactiveReservationRepository extends R2dbcRepository<ReservationRow, Long> {
+	@Query("""
+		   select exists(select 1 from reservations
+		                 where flight_id = :flightId and seat_number = :seatNumber and status <> 'CANCELLED')""")
+	Mono<Boolean> existsActiveByFlightIdAndSeatNumber(Long flightId, String seatNumber);
+
+	/*
+	 * reservations_seq steps by Hibernate's allocation size of 100. Taking one value per row wastes the rest of its
+	 * block, but never hands out an id of a block Hibernate is allocating from.
+	 */
+	@Query("""
+		   insert into reservations (id, flight_id, customer_id, seat_class, seat_number, status, version, created_at)
+		   values (nextval('reservations_seq'), :flightId, :customerId, :seatClass, :seatNumber, 'PENDING', 0, :createdAt)
+		   returning *""")
+	Mono<ReservationRow> insertPending(Long flightId, Long customerId, String seatClass, String seatNumber,
+									   OffsetDateTime createdAt);
+
+	// Only matches while the reservation is still in the status that was read, zero rows means a concurrent change
+	@Modifying
+	@Query("update reservations set status = :to, version = version + 1 where id = :id and status = :from")
+	Mono<Integer> updateStatus(Long id, String from, String to);
+
+	// The outbox event of a change just made to the reservation, the same row ReservationOutbox writes on the servlet path
+	@Modifying
+	@Query("""
+		   insert into outbox_events (id, reservation_id, flight_id, seat_class, seat_number, previous_status, status, occurred_at)
+		   select nextval('outbox_events_seq'), r.id, r.flight_id, r.seat_class, r.seat_number, cast(:previousStatus as varchar),
+		          r.status, :occurredAt
+		   from reservations r
+		   where r.id = :id""")
+	Mono<Integer> insertOutboxEvent(Long id, String previousStatus, OffsetDateTime occurredAt);
+
+	@Query("""
+		   select r.id, r.flight_id, c.email as customer_email, r.seat_number, r.seat_class, r.status, r.created_at
+		   from reservations r
+		   join customers c on c.id = r.customer_id
+		   where r.id = :id""")
+	Mono<ReservationDetails> findDetailsById(Long id);
+}
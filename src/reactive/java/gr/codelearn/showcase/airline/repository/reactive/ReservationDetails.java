@@ -0,0 +1,13 @@
+package gr.codelearn.showcase.airline.repository.reactive;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+
+import java.time.OffsetDateTime;
+
+/*
+ * Reactive counterpart of ReservationView, columns are matched by their snake_case names.
+ */
+public record ReservationDetails(Long id, Long flightId, String customerEmail, String seatNumber, SeatClass seatClass,
+								 BookingStatus status, OffsetDateTime createdAt) {
+}
@@ -0,0 +1,13 @@
+package gr.codelearn.showcase.airline.repository.reactive;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.OffsetDateTime;
+
+@Table("reservations")
+public record ReservationRow(@Id Long id, Long flightId, Long customerId, SeatClass seatClass, String seatNumber,
+							 BookingStatus status, long version, OffsetDateTime createdAt) {
+}
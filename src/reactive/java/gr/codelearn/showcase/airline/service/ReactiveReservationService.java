@@ -0,0 +1,15 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.repository.reactive.ReservationDetails;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveReservationService {
+	Mono<ReservationDetails> reserve(Long flightId, String customerEmail, SeatClass seatClass, String seatNumber);
+
+	Mono<ReservationDetails> confirm(Long id);
+
+	Mono<Void> cancel(Long id);
+
+	Mono<ReservationDetails> view(Long id);
+}
@@ -0,0 +1,196 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.component.CustomerCache;
+import gr.codelearn.showcase.airline.component.SeatInventory;
+import gr.codelearn.showcase.airline.config.ConflictRetryProperties;
+import gr.codelearn.showcase.airline.config.OutboxProperties;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Customer;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.exception.BusinessException.Reason;
+import gr.codelearn.showcase.airline.exception.NotFoundException;
+import gr.codelearn.showcase.airline.repository.reactive.CustomerRow;
+import gr.codelearn.showcase.airline.repository.reactive.FlightRow;
+import gr.codelearn.showcase.airline.repository.reactive.ReactiveCustomerRepository;
+import gr.codelearn.showcase.airline.repository.reactive.ReactiveFlightRepository;
+import gr.codelearn.showcase.airline.repository.reactive.ReactiveReservationRepository;
+import gr.codelearn.showcase.airline.repository.reactive.ReservationDetails;
+import gr.codelearn.showcase.airline.repository.reactive.ReservationRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+
+// Read-only projection by a single join, no lazy associations to touch and no dirty-check snapshots
+@Service
+@RequiredArgsConstructor
+public class ReactiveReservationServiceImpl implements ReactiveReservationService {
+	private final ReactiveFlightRepository flightRepo;
+	private final ReactiveCustomerRepository customerRepo;
+	private final ReactiveReservationRepository reservationRepo;
+	private final TransactionalOperator transactionalOperator;
+	private final ConflictRetryProperties retryProperties;
+	private final OutboxProperties outboxProperties;
+	private final Clock clock;
+	private final SeatInventory seatInventory;
+	private final CustomerCache customerCache;
+
+	@Override
+	public Mono<ReservationDetails> reserve(Long flightId, String customerEmail, SeatClass seatClass, String seatNumber) {
+		return Mono.defer(() -> {
+			// Reject seats and flights known to be unavailable without touching the database, while the inventory is current
+			if (seatInventory.isCurrent()) {
+				if (seatInventory.isSeatTaken(flightId, seatNumber)) {
+					return Mono.error(new BusinessException(Reason.SEAT_TAKEN, "Seat already reserved."));
+				}
+				if (seatInventory.isFull(flightId)) {
+					return Mono.error(new BusinessException(Reason.CAPACITY_FULL, "Flight capacity reached."));
+				}
+			}
+			return flightRepo.findById(flightId)
+							 .switchIfEmpty(Mono.error(() -> new NotFoundException("Flight not found")))
+							 .flatMap(flight -> book(flight, customerEmail, seatClass, seatNumber))
+							 .as(transactionalOperator::transactional)
+							 .onErrorMap(DuplicateKeyException.class,
+										 e -> new BusinessException(Reason.SEAT_TAKEN, "Seat already reserved."))
+							 .doOnNext(booking -> {
+								 seatInventory.reserved(flightId, seatNumber);
+								 customerCache.put(new Customer(booking.customer().id(), booking.customer().fullName(),
+																booking.customer().email()));
+							 })
+							 .map(Booking::reservation);
+		});
+	}
+
+	private Mono<Booking> book(FlightRow flight, String customerEmail, SeatClass seatClass, String seatNumber) {
+		var now = OffsetDateTime.now(clock);
+		if (flight.departureAt().isBefore(now)) {
+			return Mono.error(new BusinessException(Reason.DEPARTED, "Cannot reserve a flight that has already departed."));
+		}
+
+		// Check if seat already reserved, cancelled reservations no longer hold their seat
+		return reservationRepo.existsActiveByFlightIdAndSeatNumber(flight.id(), seatNumber)
+							  .flatMap(taken -> {
+								  if (taken) {
+									  seatInventory.seatTaken(flight.id(), seatNumber);
+									  return Mono.error(new BusinessException(Reason.SEAT_TAKEN, "Seat already reserved."));
+								  }
+								  seatInventory.seatFree(flight.id(), seatNumber);
+								  return flightRepo.sumConfirmedByFlightId(flight.id());
+							  })
+							  // Check flight capacity against the flight's inventory counters
+							  .flatMap(confirmed -> {
+								  seatInventory.confirmedCount(flight.id(), confirmed);
+								  if (confirmed >= flight.capacity()) {
+									  return Mono.error(new BusinessException(Reason.CAPACITY_FULL, "Flight capacity reached."));
+								  }
+								  return customerOf(customerEmail);
+							  })
+							  .flatMap(customer -> reservationRepo.insertPending(flight.id(), customer.id(), seatClass.name(),
+																				 seatNumber, now)
+																  .flatMap(saved -> flightRepo.reserved(flight.id(), seatClass)
+																							  .then(recordChange(saved.id(), null))
+																							  .thenReturn(new Booking(detailsOf(saved, customer), customer))));
+	}
+
+	private Mono<CustomerRow> customerOf(String email) {
+		// Repeat customers come from the cache, new ones are created or returned by a single statement
+		return customerCache.find(email)
+							.map(c -> Mono.just(new CustomerRow(c.getId(), c.getFullName(), c.getEmail())))
+							.orElseGet(() -> customerRepo.upsert(email, email));
+	}
+
+	@Override
+	public Mono<ReservationDetails> confirm(Long id) {
+		return reservationOf(id)
+				.flatMap(r -> switch (r.status()) {
+					case CANCELLED -> Mono.error(new BusinessException("Cannot confirm a cancelled reservation."));
+					case CONFIRMED -> Mono.just(r);
+					case PENDING -> admit(r).thenReturn(r);
+				})
+				.as(transactionalOperator::transactional)
+				.retryWhen(conflictRetry())
+				.doOnNext(r -> {
+					if (r.status() == BookingStatus.PENDING) {
+						seatInventory.confirmed(r.flightId(), BookingStatus.PENDING);
+					}
+				})
+				.flatMap(r -> reservationRepo.findDetailsById(r.id()));
+	}
+
+	// Confirmed seats are what capacity is measured against, so confirmations are admitted one at a time per flight
+	private Mono<Void> admit(ReservationRow r) {
+		return flightRepo.lockCapacityById(r.flightId())
+						 .flatMap(capacity -> flightRepo.sumConfirmedByFlightId(r.flightId())
+														.filter(confirmed -> confirmed < capacity))
+						 .switchIfEmpty(Mono.error(() -> new BusinessException(Reason.CAPACITY_FULL, "Flight capacity reached.")))
+						 .then(reservationRepo.updateStatus(r.id(), BookingStatus.PENDING.name(), BookingStatus.CONFIRMED.name()))
+						 .flatMap(updated -> updated == 0
+											 ? Mono.error(conflictOn(r))
+											 : flightRepo.moved(r.flightId(), r.seatClass(), BookingStatus.PENDING, BookingStatus.CONFIRMED)
+														 .then(recordChange(r.id(), BookingStatus.PENDING)));
+	}
+
+	@Override
+	public Mono<Void> cancel(Long id) {
+		return reservationOf(id)
+				.flatMap(r -> r.status() == BookingStatus.CANCELLED
+							  ? Mono.just(r)
+							  : reservationRepo.updateStatus(r.id(), r.status().name(), BookingStatus.CANCELLED.name())
+											   .flatMap(updated -> updated == 0
+																   ? Mono.<Void>error(conflictOn(r))
+																   : flightRepo.moved(r.flightId(), r.seatClass(), r.status(),
+																					  BookingStatus.CANCELLED)
+																			   .then(recordChange(r.id(), r.status())))
+											   .thenReturn(r))
+				.as(transactionalOperator::transactional)
+				.retryWhen(conflictRetry())
+				.doOnNext(r -> seatInventory.cancelled(r.flightId(), r.seatNumber(), r.status()))
+				.then();
+	}
+
+	// Must be part of the transaction making the change, nothing is written with airline.outbox.enabled off
+	private Mono<Void> recordChange(Long reservationId, BookingStatus previous) {
+		if (!outboxProperties.enabled()) {
+			return Mono.empty();
+		}
+		return reservationRepo.insertOutboxEvent(reservationId, previous == null ? null : previous.name(), OffsetDateTime.now(clock))
+							  .then();
+	}
+
+	@Override
+	public Mono<ReservationDetails> view(Long id) {
+		return reservationRepo.findDetailsById(id);
+	}
+
+	private Mono<ReservationRow> reservationOf(Long id) {
+		return reservationRepo.findById(id).switchIfEmpty(Mono.error(() -> new NotFoundException("Reservation not found.")));
+	}
+
+	private Retry conflictRetry() {
+		return Retry.backoff(retryProperties.maxAttempts() - 1L, retryProperties.initialBackoff())
+					.maxBackoff(retryProperties.maxBackoff())
+					.filter(ConcurrencyFailureException.class::isInstance)
+					.onRetryExhaustedThrow((spec, signal) -> signal.failure());
+	}
+
+	private static OptimisticLockingFailureException conflictOn(ReservationRow r) {
+		return new OptimisticLockingFailureException("Reservation " + r.id() + " was modified concurrently.");
+	}
+
+	private static ReservationDetails detailsOf(ReservationRow saved, CustomerRow customer) {
+		return new ReservationDetails(saved.id(), saved.flightId(), customer.email(), saved.seatNumber(), saved.seatClass(),
+									  saved.status(), saved.createdAt());
+	}
+
+	private record Booking(ReservationDetails reservation, CustomerRow customer) {
+	}
+}
@@ -0,0 +1,196 @@
+package gr.codelearn.showcase.airline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.repository.FlightInventoryRepository;
+import gr.codelearn.showcase.airline.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+ * Runs the same booking load over HTTP against both stacks, one after the other, on one PostgreSQL: CLIENTS concurrent
+ * clients, well past the 50 connections both pools are limited to, each reserve and confirm BOOKINGS seats. First the
+ * servlet stack on virtual threads with Hikari, then the WebFlux and R2DBC stack of the reactive Spring profile. Logs
+ * throughput and latency percentiles of each and checks that both confirmed every seat they were asked to.
+ * Needs the reactive Maven profile for the second stack.
+ * Run with: mvn -Preactive test -DexcludedGroups= -Dgroups=benchmark -Dtest=ReservationStackBenchmarkTest
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class ReservationStackBenchmarkTest {
+	private static final Logger logger = LoggerFactory.getLogger(ReservationStackBenchmarkTest.class);
+	private static final int CLIENTS = Integer.getInteger("benchmark.clients", 200);
+	private static final int BOOKINGS = Integer.getInteger("benchmark.bookings", 25);
+	private static final int FLIGHTS = 10;
+
+	@Container
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+			.withCommand("postgres", "-c", "max_connections=200");
+
+	private final HttpClient client = HttpClient.newBuilder()
+												.version(HttpClient.Version.HTTP_1_1)
+												.executor(Executors.newVirtualThreadPerTaskExecutor())
+												.connectTimeout(Duration.ofSeconds(10))
+												.build();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeAll
+	static void requireReactiveBuild() {
+		assumeTrue(ClassUtils.isPresent("org.springframework.web.reactive.DispatcherHandler", null),
+				   "The reactive stack is only built with -Preactive");
+	}
+
+	@Test
+	void servletAndReactiveStacksBookTheSameLoad() throws Exception {
+		var servlet = run("servlet");
+		var reactive = run("reactive", "reactive");
+
+		logger.info("{} clients x {} bookings, servlet: {}", CLIENTS, BOOKINGS, servlet);
+		logger.info("{} clients x {} bookings, reactive: {}", CLIENTS, BOOKINGS, reactive);
+		assertEquals(0, servlet.failures());
+		assertEquals(0, reactive.failures());
+	}
+
+	private Result run(String name, String... profiles) throws Exception {
+		try (var context = start(profiles)) {
+			var baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/api/reservations";
+			var flightRepo = context.getBean(FlightRepository.class);
+
+			// One untimed round lets both stacks fill their pools, caches and JIT before the measured one
+			book(baseUrl, flights(flightRepo, CLIENTS), 1);
+			var flights = flights(flightRepo, CLIENTS * BOOKINGS);
+			var result = book(baseUrl, flights, BOOKINGS);
+
+			var inventoryRepo = context.getBean(FlightInventoryRepository.class);
+			long confirmed = flights.stream().mapToLong(inventoryRepo::sumConfirmedByFlightId).sum();
+			assertEquals((long) CLIENTS * BOOKINGS - result.failures(), confirmed, name + " confirmed seats");
+			return result;
+		}
+	}
+
+	private ConfigurableApplicationContext start(String... profiles) {
+		return new SpringApplicationBuilder(AirlineApplication.class)
+				.profiles(profiles)
+				.properties("server.port=0",
+							"spring.datasource.url=" + postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+							"spring.r2dbc.url=r2dbc:postgresql://" + postgres.getHost() + ":" + postgres.getFirstMappedPort() + "/" +
+							postgres.getDatabaseName(),
+							"airline.postgres.user=" + postgres.getUsername(),
+							"airline.postgres.password=" + postgres.getPassword(),
+							"airline.reservation-reaper.enabled=false")
+				.run();
+	}
+
+	private static List<Long> flights(FlightRepository flightRepo, int seats) {
+		var departure = ZonedDateTime.now(ZoneOffset.UTC).plusDays(30);
+		List<Long> flights = new ArrayList<>(FLIGHTS);
+		for (int i = 0; i < FLIGHTS; i++) {
+			flights.add(flightRepo.save(new Flight(null, "ATH", "LHR", departure, departure.plusHours(4), seats)).getId());
+		}
+		return flights;
+	}
+
+	private Result book(String baseUrl, List<Long> flights, int bookings) throws InterruptedException {
+		long[] latencies = new long[CLIENTS * bookings];
+		var failures = new AtomicInteger();
+		var start = new CountDownLatch(1);
+		long begin;
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int c = 0; c < CLIENTS; c++) {
+				final int clientIndex = c;
+				executor.execute(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					for (int b = 0; b < bookings; b++) {
+						int index = clientIndex * bookings + b;
+						long bookingStart = System.nanoTime();
+						if (!reserveAndConfirm(baseUrl, flights.get(clientIndex % FLIGHTS), "bench" + clientIndex + "@user.com",
+											   "S" + index)) {
+							failures.incrementAndGet();
+						}
+						latencies[index] = System.nanoTime() - bookingStart;
+					}
+				});
+			}
+			begin = System.nanoTime();
+			start.countDown();
+		}
+		long elapsed = System.nanoTime() - begin;
+		Arrays.sort(latencies);
+		return new Result(latencies.length, failures.get(), latencies.length * 1_000_000_000.0 / elapsed,
+						  percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000);
+	}
+
+	private boolean reserveAndConfirm(String baseUrl, Long flightId, String email, String seatNumber) {
+		try {
+			var reserved = client.send(HttpRequest.newBuilder(URI.create(baseUrl))
+												  .header("Content-Type", "application/json")
+												  .POST(HttpRequest.BodyPublishers.ofString("""
+																							{"flightId": %d, "customerEmail": "%s", "seatClass": "ECONOMY", "seatNumber": "%s"}
+																							""".formatted(flightId, email, seatNumber)))
+												  .build(), HttpResponse.BodyHandlers.ofString());
+			if (reserved.statusCode() != 200) {
+				logger.warn("Reserve answered {}: {}", reserved.statusCode(), reserved.body());
+				return false;
+			}
+			var id = objectMapper.readTree(reserved.body()).at("/data/id").asLong();
+			var confirmed = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+												   .header("action", "confirm")
+												   .POST(HttpRequest.BodyPublishers.noBody())
+												   .build(), HttpResponse.BodyHandlers.ofString());
+			if (confirmed.statusCode() != 200) {
+				logger.warn("Confirm answered {}: {}", confirmed.statusCode(), confirmed.body());
+				return false;
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (Exception e) {
+			logger.warn("Booking failed", e);
+			return false;
+		}
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000;
+	}
+
+	private record Result(int bookings, int failures, double bookingsPerSecond, long p50Millis, long p99Millis, long maxMillis) {
+		@Override
+		public String toString() {
+			return "%d bookings, %d failed, %.0f bookings/s, p50 %d ms, p99 %d ms, max %d ms"
+					.formatted(bookings, failures, bookingsPerSecond, p50Millis, p99Millis, maxMillis);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package gr.codelearn.showcase.airline.api.controller;
+
+import gr.codelearn.showcase.airline.api.resource.mapper.ReservationMapper;
+import gr.codelearn.showcase.airline.api.resource.response.ReservationResource;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
+import gr.codelearn.showcase.airline.service.ReservationPage;
+import gr.codelearn.showcase.airline.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CustomerController.class)
+@Import(CustomerControllerWebMvcTest.MockBeans.class)
+class CustomerControllerWebMvcTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ReservationMapper reservationMapper;
+
+	@TestConfiguration
+	static class MockBeans {
+		@Bean
+		ReservationService reservationService() {
+			return Mockito.mock(ReservationService.class);
+		}
+
+		@Bean
+		ReservationMapper reservationMapper() {
+			return Mockito.mock(ReservationMapper.class);
+		}
+	}
+
+	@Test
+	void reservationsReturnsPageWithNextCursor() throws Exception {
+		List<ReservationView> views = List.of(Mockito.mock(ReservationView.class));
+		when(reservationService.listByCustomer("john@doe.com", "abc", 1)).thenReturn(new ReservationPage(views, "def"));
+		when(reservationMapper.toResources(views)).thenReturn(List.of(
+				new ReservationResource(7L, 1L, "john@doe.com", "3A", SeatClass.ECONOMY, BookingStatus.CONFIRMED)));
+
+		mockMvc.perform(get("/api/customers/john@doe.com/reservations").param("cursor", "abc").param("size", "1"))
+			   .andExpect(status().isOk())
+			   .andExpect(jsonPath("$.data.items[0].id").value(7))
+			   .andExpect(jsonPath("$.data.nextCursor").value("def"));
+	}
+}
@@ -0,0 +1,222 @@
+package gr.codelearn.showcase.airline.api.controller;
+
+import gr.codelearn.showcase.airline.api.resource.mapper.FlightMapper;
+import gr.codelearn.showcase.airline.api.resource.response.FlightAvailabilityResource;
+import gr.codelearn.showcase.airline.api.resource.response.FlightResource;
+import gr.codelearn.showcase.airline.api.resource.response.ManifestEntryResource;
+import gr.codelearn.showcase.airline.api.resource.response.SeatClassAvailabilityResource;
+import gr.codelearn.showcase.airline.api.resource.response.SeatResource;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.domain.SeatState;
+import gr.codelearn.showcase.airline.exception.NotFoundException;
+import gr.codelearn.showcase.airline.repository.projection.ManifestEntry;
+import gr.codelearn.showcase.airline.service.FlightAvailability;
+import gr.codelearn.showcase.airline.service.FlightService;
+import gr.codelearn.showcase.airline.service.SeatView;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(FlightController.class)
+@Import(FlightControllerWebMvcTest.MockBeans.class)
+class FlightControllerWebMvcTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private FlightMapper flightMapper;
+
+	@TestConfiguration
+	static class MockBeans {
+		@Bean
+		FlightService flightService() {
+			return Mockito.mock(FlightService.class);
+		}
+
+		@Bean
+		FlightMapper flightMapper() {
+			return Mockito.mock(FlightMapper.class);
+		}
+	}
+
+	@Test
+	void searchReturns200WithMatchingFlights() throws Exception {
+		ZonedDateTime from = ZonedDateTime.parse("2030-01-01T00:00:00Z");
+		ZonedDateTime to = ZonedDateTime.parse("2030-01-02T00:00:00Z");
+		List<Flight> flights = List.of(new Flight());
+
+		when(flightService.search("ATH", "LHR", from, to)).thenReturn(flights);
+		when(flightMapper.toResources(flights)).thenReturn(List.of(
+				new FlightResource(1L, "ATH", "LHR", from.plusHours(8), from.plusHours(12), 180)));
+
+		mockMvc.perform(get("/api/flights")
+								.param("origin", "ATH")
+								.param("destination", "LHR")
+								.param("from", "2030-01-01T00:00:00Z")
+								.param("to", "2030-01-02T00:00:00Z"))
+			   .andExpect(status().isOk())
+			   .andExpect(jsonPath("$.data[0].id").value(1))
+			   .andExpect(jsonPath("$.data[0].origin").value("ATH"))
+			   .andExpect(jsonPath("$.data[0].capacity").value(180));
+	}
+
+	@Test
+	void searchWithSeatsReturnsOnlyFlightsWithEnoughFreeSeats() throws Exception {
+		ZonedDateTime from = ZonedDateTime.parse("2030-01-01T00:00:00Z");
+		ZonedDateTime to = ZonedDateTime.parse("2030-01-02T00:00:00Z");
+		List<Flight> flights = List.of(new Flight());
+
+		when(flightService.searchAvailable("ATH", "LHR", from, to, 3)).thenReturn(flights);
+		when(flightMapper.toResources(flights)).thenReturn(List.of(
+				new FlightResource(2L, "ATH", "LHR", from.plusHours(8), from.plusHours(12), 180)));
+
+		mockMvc.perform(get("/api/flights")
+								.param("origin", "ATH")
+								.param("destination", "LHR")
+								.param("from", "2030-01-01T00:00:00Z")
+								.param("to", "2030-01-02T00:00:00Z")
+								.param("seats", "3"))
+			   .andExpect(status().isOk())
+			   .andExpect(jsonPath("$.data[0].id").value(2));
+		verify(flightService, never()).search("ATH", "LHR", from, to);
+	}
+
+	@Test
+	void availabilityReturns200WithCountersPerSeatClass() throws Exception {
+		FlightAvailability availability = new FlightAvailability(1L, 180, 170, List.of());
+
+		when(flightService.availability(1L)).thenReturn(availability);
+		when(flightMapper.toResource(availability)).thenReturn(new FlightAvailabilityResource(
+				1L, 180, 170, List.of(new SeatClassAvailabilityResource(SeatClass.ECONOMY, 4, 10, 1))));
+
+		mockMvc.perform(get("/api/flights/1/availability"))
+			   .andExpect(status().isOk())
+			   .andExpect(jsonPath("$.data.available").value(170))
+			   .andExpect(jsonPath("$.data.seatClasses[0].seatClass").value("ECONOMY"))
+			   .andExpect(jsonPath("$.data.seatClasses[0].confirmed").value(10));
+	}
+
+	@Test
+	void searchReturns400WhenRangeIsMissing() throws Exception {
+		mockMvc.perform(get("/api/flights")
+								.param("origin", "ATH")
+								.param("destination", "LHR"))
+			   .andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void seatsReturns200WithETag() throws Exception {
+		List<SeatView> seats = List.of(new SeatView("1A", SeatState.CONFIRMED, SeatClass.BUSINESS));
+
+		when(flightService.seatMapVersion(1L)).thenReturn("v1-1-3");
+		when(flightService.seatMap(1L)).thenReturn(seats);
+		when(flightMapper.toSeatResources(seats)).thenReturn(List.of(new SeatResource("1A", SeatState.CONFIRMED, SeatClass.BUSINESS)));
+
+		mockMvc.perform(get("/api/flights/1/seats"))
+			   .andExpect(status().isOk())
+			   .andExpect(header().string("ETag", "\"v1-1-3\""))
+			   .andExpect(jsonPath("$.data[0].seatNumber").value("1A"))
+			   .andExpect(jsonPath("$.data[0].state").value("CONFIRMED"));
+	}
+
+	@Test
+	void seatsReturns304WhenVersionIsUnchanged() throws Exception {
+		when(flightService.seatMapVersion(2L)).thenReturn("v1-2-7");
+
+		mockMvc.perform(get("/api/flights/2/seats").header("If-None-Match", "\"v1-2-7\""))
+			   .andExpect(status().isNotModified())
+			   .andExpect(header().string("ETag", "\"v1-2-7\""));
+		verify(flightService, never()).seatMap(2L);
+	}
+
+	@Test
+	void seatsRejectsUnknownFlightEvenWhenTheETagMatches() throws Exception {
+		when(flightService.get(99L)).thenThrow(new NotFoundException("Flight not found"));
+
+		mockMvc.perform(get("/api/flights/99/seats").header("If-None-Match", "\"99-0\""))
+			   .andExpect(status().isForbidden());
+		verify(flightService, never()).seatMapVersion(99L);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void stubManifest(Long flightId) {
+		ZonedDateTime departure = ZonedDateTime.parse("2030-01-01T08:00:00Z");
+		ManifestEntry first = mock(ManifestEntry.class);
+		ManifestEntry second = mock(ManifestEntry.class);
+		when(flightMapper.toResource(first)).thenReturn(new ManifestEntryResource(
+				10L, flightId, departure, "1A", SeatClass.BUSINESS, BookingStatus.CONFIRMED, "John Doe", "john@doe.com", departure.minusDays(3)));
+		when(flightMapper.toResource(second)).thenReturn(new ManifestEntryResource(
+				11L, flightId, departure, "1B", SeatClass.BUSINESS, BookingStatus.PENDING, "Doe, \"Jr\"", "jr@doe.com", departure.minusDays(2)));
+		doAnswer(inv -> {
+			Consumer<ManifestEntry> sink = inv.getArgument(1);
+			sink.accept(first);
+			sink.accept(second);
+			return null;
+		}).when(flightService).manifest(eq(flightId), any());
+	}
+
+	@Test
+	void manifestStreamsNdjsonByDefault() throws Exception {
+		stubManifest(3L);
+
+		MvcResult result = mockMvc.perform(get("/api/flights/3/manifest"))
+								  .andExpect(request().asyncStarted())
+								  .andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+			   .andExpect(status().isOk())
+			   .andExpect(header().string("Content-Type", "application/x-ndjson"))
+			   .andExpect(header().string("Content-Disposition", "attachment; filename=\"manifest-flight-3.ndjson\""))
+			   .andExpect(content().string(org.hamcrest.Matchers.matchesRegex(
+					   "(?s)\\{\"reservationId\":10,.*\"seatNumber\":\"1A\".*}\n\\{\"reservationId\":11,.*}\n")));
+	}
+
+	@Test
+	void manifestStreamsCsvWithQuotedFields() throws Exception {
+		stubManifest(4L);
+
+		MvcResult result = mockMvc.perform(get("/api/flights/4/manifest").param("format", "CSV"))
+								  .andExpect(request().asyncStarted())
+								  .andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+			   .andExpect(status().isOk())
+			   .andExpect(header().string("Content-Type", "text/csv"))
+			   .andExpect(content().string("""
+												reservation_id,flight_id,departure_at,seat_number,seat_class,status,customer_name,customer_email,created_at
+												10,4,2030-01-01T08:00:00Z,1A,BUSINESS,CONFIRMED,John Doe,john@doe.com,2029-12-29T08:00:00Z
+												11,4,2030-01-01T08:00:00Z,1B,BUSINESS,PENDING,"Doe, \"\"Jr\"\"",jr@doe.com,2029-12-30T08:00:00Z
+												"""));
+	}
+}
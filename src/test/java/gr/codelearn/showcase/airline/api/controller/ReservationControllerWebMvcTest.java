@@ -1,10 +1,21 @@
 package gr.codelearn.showcase.airline.api.controller;
 
 import gr.codelearn.showcase.airline.api.resource.mapper.ReservationMapper;
+import gr.codelearn.showcase.airline.api.resource.request.BulkReservationResource;
+import gr.codelearn.showcase.airline.api.resource.response.BulkOutcomeResource;
+import gr.codelearn.showcase.airline.api.resource.response.ReservationOutcomeResource;
 import gr.codelearn.showcase.airline.api.resource.response.ReservationResource;
 import gr.codelearn.showcase.airline.domain.BookingStatus;
 import gr.codelearn.showcase.airline.domain.Reservation;
 import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.exception.ServiceOverloadedException;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
+import gr.codelearn.showcase.airline.service.BulkOutcome;
+import gr.codelearn.showcase.airline.service.BulkSelection;
+import gr.codelearn.showcase.airline.service.IdempotencyService;
+import gr.codelearn.showcase.airline.service.IdempotentResponse;
+import gr.codelearn.showcase.airline.service.ReservationOutcome;
+import gr.codelearn.showcase.airline.service.ReservationRequest;
 import gr.codelearn.showcase.airline.service.ReservationService;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -19,10 +30,18 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,6 +59,9 @@ class ReservationControllerWebMvcTest {
 	@Autowired
 	private ReservationMapper reservationMapper;
 
+	@Autowired
+	private IdempotencyService idempotencyService;
+
 	@TestConfiguration
 	static class MockBeans {
 		@Bean
@@ -47,6 +69,11 @@ class ReservationControllerWebMvcTest {
 			return Mockito.mock(ReservationService.class);
 		}
 
+		@Bean
+		IdempotencyService idempotencyService() {
+			return Mockito.mock(IdempotencyService.class);
+		}
+
 		@Bean
 		ReservationMapper reservationMapper() {
 			return Mockito.mock(ReservationMapper.class);
@@ -92,6 +119,96 @@ class ReservationControllerWebMvcTest {
 			   .andExpect(jsonPath("$.data.status").value("PENDING"));
 	}
 
+	@Order(7)
+	@Test
+	void reserveWithIdempotencyKeyReturnsStoredResponse() throws Exception {
+		Mockito.clearInvocations(reservationService);
+		var stored = """
+					 {"transactionId":"t-1","data":{"id":10,"seatNumber":"3A","status":"PENDING"}}""";
+		when(idempotencyService.execute(eq("key-1"), any(), any())).thenReturn(new IdempotentResponse(stored, true));
+
+		mockMvc.perform(post("/api/reservations")
+								.header("Idempotency-Key", "key-1")
+								.contentType(MediaType.APPLICATION_JSON)
+								.content("""
+										 {"flightId": 1, "customerEmail": "john@doe.com", "seatClass": "BUSINESS", "seatNumber": "3A"}
+										 """))
+			   .andExpect(status().isOk())
+			   .andExpect(header().string("Idempotent-Replayed", "true"))
+			   .andExpect(jsonPath("$.transactionId").value("t-1"))
+			   .andExpect(jsonPath("$.data.id").value(10));
+		verify(reservationService, never()).reserve(any(), any(), any(), any());
+	}
+
+	@Order(9)
+	@Test
+	void overloadedServiceReturns503WithRetryAfter() throws Exception {
+		when(reservationService.confirm(12L)).thenThrow(new ServiceOverloadedException("The service is busy, please retry later.",
+																					   Duration.ofMillis(1500)));
+
+		mockMvc.perform(post("/api/reservations/12").header("action", "confirm"))
+			   .andExpect(status().isServiceUnavailable())
+			   .andExpect(header().string("Retry-After", "2"))
+			   .andExpect(jsonPath("$.apiError.status").value(503));
+	}
+
+	@Order(8)
+	@Test
+	void bulkCancelReturns200WithOutcomePerReservation() throws Exception {
+		var selection = BulkSelection.ofFlight(1L);
+		var outcomes = List.of(BulkOutcome.changed(10L, BookingStatus.CANCELLED),
+							   BulkOutcome.unchanged(11L, BookingStatus.CANCELLED));
+
+		when(reservationMapper.toSelection(new BulkReservationResource(null, 1L))).thenReturn(selection);
+		when(reservationService.cancelAll(selection)).thenReturn(outcomes);
+		when(reservationMapper.toBulkOutcomeResources(outcomes)).thenReturn(List.of(
+				new BulkOutcomeResource(10L, BookingStatus.CANCELLED, true, null),
+				new BulkOutcomeResource(11L, BookingStatus.CANCELLED, false, null)));
+
+		mockMvc.perform(post("/api/reservations/bulk")
+								.header("action", "cancel")
+								.contentType(MediaType.APPLICATION_JSON)
+								.content("""
+										 {"flightId": 1}
+										 """))
+			   .andExpect(status().isOk())
+			   .andExpect(jsonPath("$.data[0].reservationId").value(10))
+			   .andExpect(jsonPath("$.data[0].changed").value(true))
+			   .andExpect(jsonPath("$.data[1].changed").value(false));
+	}
+
+	@Order(6)
+	@Test
+	void reserveAllReturns200WithOutcomePerSeat() throws Exception {
+		ReservationRequest first = new ReservationRequest(1L, "john@doe.com", SeatClass.ECONOMY, "3A");
+		ReservationRequest second = new ReservationRequest(1L, "john@doe.com", SeatClass.ECONOMY, "3B");
+		List<ReservationOutcome> outcomes = List.of(ReservationOutcome.reserved(first, new Reservation()),
+													ReservationOutcome.rejected(second, "Seat already reserved."));
+
+		when(reservationMapper.toRequests(any())).thenReturn(List.of(first, second));
+		when(reservationService.reserveAll(List.of(first, second), false)).thenReturn(outcomes);
+		when(reservationMapper.toOutcomeResources(outcomes)).thenReturn(List.of(
+				new ReservationOutcomeResource(1L, "3A", new ReservationResource(11L, 1L, "john@doe.com", "3A", SeatClass.ECONOMY,
+																				   BookingStatus.PENDING), null),
+				new ReservationOutcomeResource(1L, "3B", null, "Seat already reserved.")));
+
+		mockMvc.perform(post("/api/reservations/batch")
+								.contentType(MediaType.APPLICATION_JSON)
+								.content("""
+										 {
+										   "reservations": [
+										     {"flightId": 1, "customerEmail": "john@doe.com", "seatClass": "ECONOMY", "seatNumber": "3A"},
+										     {"flightId": 1, "customerEmail": "john@doe.com", "seatClass": "ECONOMY", "seatNumber": "3B"}
+										   ],
+										   "allOrNothing": false
+										 }
+										 """))
+			   .andExpect(status().isOk())
+			   .andExpect(jsonPath("$.data[0].reservation.id").value(11))
+			   .andExpect(jsonPath("$.data[1].seatNumber").value("3B"))
+			   .andExpect(jsonPath("$.data[1].error").value("Seat already reserved."));
+	}
+
 	@Order(2)
 	@Test
 	void confirmReturns200WithUpdatedResource() throws Exception {
@@ -128,8 +245,7 @@ class ReservationControllerWebMvcTest {
 	@Order(3)
 	@Test
 	void getReturns200WithResource() throws Exception {
-		Reservation domain = new Reservation();
-		domain.setId(5L);
+		ReservationView view = Mockito.mock(ReservationView.class);
 
 		ReservationResource resource = new ReservationResource(
 				5L,
@@ -140,8 +256,8 @@ class ReservationControllerWebMvcTest {
 				BookingStatus.CONFIRMED
 		);
 
-		when(reservationService.get(5L)).thenReturn(java.util.Optional.of(domain));
-		when(reservationMapper.toResource(domain)).thenReturn(resource);
+		when(reservationService.view(5L)).thenReturn(java.util.Optional.of(view));
+		when(reservationMapper.toResource(view)).thenReturn(resource);
 
 		mockMvc.perform(get("/api/reservations/5"))
 			   .andExpect(status().isOk())
@@ -153,7 +269,7 @@ class ReservationControllerWebMvcTest {
 	@Order(5)
 	@Test
 	void getReturns404WhenMissing() throws Exception {
-		when(reservationService.get(999L)).thenReturn(java.util.Optional.empty());
+		when(reservationService.view(999L)).thenReturn(java.util.Optional.empty());
 
 		mockMvc.perform(get("/api/reservations/999"))
 			   .andExpect(status().isNotFound());
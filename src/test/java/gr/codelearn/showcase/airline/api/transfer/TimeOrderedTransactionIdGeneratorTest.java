@@ -0,0 +1,37 @@
+package gr.codelearn.showcase.airline.api.transfer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedTransactionIdGeneratorTest {
+	@Test
+	void idsEncodeTimeNodeAndSequence() {
+		var clock = Clock.fixed(Instant.ofEpochMilli(0x18F0A1B2C3DL), ZoneOffset.UTC);
+		var generator = new TimeOrderedTransactionIdGenerator(clock, 0xBEEF);
+
+		assertEquals("018F0A1B2C3DBEEF00000000", generator.next());
+		assertEquals("018F0A1B2C3DBEEF00000001", generator.next());
+	}
+
+	@Test
+	void idsAreUniqueAndOrderedWithinTheSameMillisecond() {
+		var generator = new TimeOrderedTransactionIdGenerator(Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC));
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			ids.add(generator.next());
+		}
+
+		assertEquals(ids.size(), new HashSet<>(ids).size());
+		assertEquals(ids, ids.stream().sorted().toList());
+		assertTrue(ids.stream().allMatch(id -> id.length() == 24));
+	}
+}
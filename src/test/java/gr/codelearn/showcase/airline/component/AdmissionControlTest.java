@@ -0,0 +1,100 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.AdmissionControlProperties;
+import gr.codelearn.showcase.airline.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlTest {
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private AdmissionControl admissionControl(int permits, int queueSize, Duration maxWait) {
+		return new AdmissionControl(new AdmissionControlProperties(true, permits, queueSize, maxWait, Duration.ofSeconds(2)), registry);
+	}
+
+	private double rejected(String reason) {
+		return registry.get("airline.admission.rejected").tag("reason", reason).counter().count();
+	}
+
+	// Holds the only permit on another thread until released
+	private static CompletableFuture<Void> holdPermit(AdmissionControl admissionControl, CountDownLatch release) throws InterruptedException {
+		var admitted = new CountDownLatch(1);
+		var holder = CompletableFuture.runAsync(() -> admissionControl.run(() -> {
+			admitted.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		assertTrue(admitted.await(5, TimeUnit.SECONDS));
+		return holder;
+	}
+
+	@Test
+	void callsBeyondTheQueueAreRejectedAtOnce() throws Exception {
+		var admissionControl = admissionControl(1, 0, Duration.ofSeconds(10));
+		var release = new CountDownLatch(1);
+		var holder = holdPermit(admissionControl, release);
+
+		long start = System.nanoTime();
+		var e = assertThrows(ServiceOverloadedException.class, () -> admissionControl.call(() -> "late"));
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+		assertEquals(2, e.getRetryAfterSeconds());
+		assertEquals(1, rejected("queue-full"));
+		assertEquals(1, admissionControl.active());
+
+		release.countDown();
+		holder.get(5, TimeUnit.SECONDS);
+		assertEquals("admitted", admissionControl.call(() -> "admitted"));
+		assertEquals(0, admissionControl.active());
+	}
+
+	@Test
+	void queuedCallsGiveUpAfterMaxWait() throws Exception {
+		var admissionControl = admissionControl(1, 10, Duration.ofMillis(50));
+		var release = new CountDownLatch(1);
+		var holder = holdPermit(admissionControl, release);
+
+		assertThrows(ServiceOverloadedException.class, () -> admissionControl.call(() -> "late"));
+		assertEquals(1, rejected("timeout"));
+		assertEquals(0, admissionControl.queued());
+		assertTrue(registry.get("airline.admission.wait").timer().totalTime(TimeUnit.MILLISECONDS) >= 50);
+
+		release.countDown();
+		holder.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void queuedCallRunsOncePermitIsReleased() throws Exception {
+		var admissionControl = admissionControl(1, 10, Duration.ofSeconds(5));
+		var release = new CountDownLatch(1);
+		var holder = holdPermit(admissionControl, release);
+
+		var waiting = CompletableFuture.supplyAsync(() -> admissionControl.call(() -> "queued"));
+		while (admissionControl.queued() == 0) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+
+		assertEquals("queued", waiting.get(5, TimeUnit.SECONDS));
+		holder.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void nestedCallsRunOnTheirCallersPermit() {
+		var admissionControl = admissionControl(1, 0, Duration.ZERO);
+
+		assertEquals("inner", admissionControl.call(() -> admissionControl.call(() -> "inner")));
+		assertEquals(0, admissionControl.active());
+	}
+}
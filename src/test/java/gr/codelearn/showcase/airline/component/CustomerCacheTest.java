@@ -0,0 +1,74 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.CustomerCacheProperties;
+import gr.codelearn.showcase.airline.domain.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerCacheTest {
+	private final MutableClock clock = new MutableClock(Instant.parse("2030-01-01T00:00:00Z"));
+
+	@Test
+	void leastRecentlyUsedEntryIsEvictedBeyondMaximumSize() {
+		var cache = new CustomerCache(clock, new CustomerCacheProperties(2, Duration.ofMinutes(10)));
+		cache.put(new Customer(1L, "A", "a@x.com"));
+		cache.put(new Customer(2L, "B", "b@x.com"));
+		cache.find("a@x.com");
+		cache.put(new Customer(3L, "C", "c@x.com"));
+
+		assertEquals(1L, cache.find("a@x.com").orElseThrow().getId());
+		assertTrue(cache.find("b@x.com").isEmpty());
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.evictions());
+		assertEquals(2, cache.hits());
+		assertEquals(1, cache.misses());
+	}
+
+	@Test
+	void entriesExpireAfterTimeToLive() {
+		var cache = new CustomerCache(clock, new CustomerCacheProperties(10, Duration.ofMinutes(10)));
+		cache.put(new Customer(1L, "A", "a@x.com"));
+
+		clock.advance(Duration.ofMinutes(9));
+		assertTrue(cache.find("a@x.com").isPresent());
+		clock.advance(Duration.ofMinutes(1));
+		assertTrue(cache.find("a@x.com").isEmpty());
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.evictions());
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant now;
+
+		private MutableClock(final Instant now) {
+			this.now = now;
+		}
+
+		void advance(final Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(final ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.ReservationReaperProperties;
+import gr.codelearn.showcase.airline.config.ReservationReaperProperties.Action;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.service.ReservationExpiryServiceImpl;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightInventoryRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeOutboxEventRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PendingReservationReaperTest {
+	private final Clock fixedClock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+	private final ZonedDateTime now = ZonedDateTime.now(fixedClock);
+
+	private FakeReservationRepository reservationRepo;
+	private FakeFlightInventoryRepository inventoryRepo;
+	private FakeOutboxEventRepository outboxRepo;
+	private SeatInventory seatInventory;
+	private SimpleMeterRegistry registry;
+	private Flight flight;
+
+	@BeforeEach
+	void setup() {
+		reservationRepo = new FakeReservationRepository();
+		inventoryRepo = new FakeFlightInventoryRepository();
+		outboxRepo = new FakeOutboxEventRepository();
+		seatInventory = new SeatInventory();
+		registry = new SimpleMeterRegistry();
+		flight = new Flight(1L, "ATH", "LHR", now.plusDays(1), now.plusDays(1).plusHours(4), 180);
+		seatInventory.track(flight);
+	}
+
+	private PendingReservationReaper reaper(Action action, int batchSize) {
+		var properties = new ReservationReaperProperties(true, Duration.ofMinutes(15), Duration.ofMinutes(1), batchSize, 20, action);
+		var expiryService = new ReservationExpiryServiceImpl(reservationRepo, inventoryRepo, seatInventory, outboxRepo.outbox(fixedClock));
+		return new PendingReservationReaper(expiryService, properties, fixedClock, registry);
+	}
+
+	private Reservation reserve(String seatNumber, BookingStatus status, Duration age) {
+		Reservation reservation = new Reservation();
+		reservation.setFlight(flight);
+		reservation.setSeatNumber(seatNumber);
+		reservation.setSeatClass(SeatClass.ECONOMY);
+		reservation.setStatus(status);
+		reservation.setCreatedAt(now.minus(age));
+		inventoryRepo.adjust(flight.getId(), SeatClass.ECONOMY.name(), status == BookingStatus.PENDING ? 1 : 0,
+							 status == BookingStatus.CONFIRMED ? 1 : 0, 0);
+		seatInventory.reserved(reservation);
+		return reservationRepo.save(reservation);
+	}
+
+	@Test
+	void expiredPendingReservationsAreDeletedInBatchesAndTheirSeatsReleased() {
+		for (int i = 0; i < 5; i++) {
+			reserve((i + 1) + "A", BookingStatus.PENDING, Duration.ofMinutes(30));
+		}
+		reserve("9A", BookingStatus.PENDING, Duration.ofMinutes(5));
+		reserve("9B", BookingStatus.CONFIRMED, Duration.ofHours(1));
+
+		reaper(Action.DELETE, 2).reap();
+
+		assertEquals(2, reservationRepo.count());
+		assertFalse(seatInventory.isSeatTaken(flight.getId(), "1A"));
+		assertTrue(seatInventory.isSeatTaken(flight.getId(), "9A"));
+		var counters = inventoryRepo.findByFlightId(flight.getId()).getFirst();
+		assertEquals(1, counters.getPending());
+		assertEquals(1, counters.getConfirmed());
+		assertEquals(0, counters.getCancelled());
+		assertEquals(5, registry.get("airline.reservations.expired").tag("action", "delete").counter().count());
+		assertEquals(1, registry.get("airline.reservations.reaper").tag("outcome", "success").timer().count());
+	}
+
+	@Test
+	void cancelActionKeepsExpiredReservationsAsCancelled() {
+		var expired = reserve("1A", BookingStatus.PENDING, Duration.ofMinutes(20));
+
+		reaper(Action.CANCEL, 10).reap();
+
+		assertEquals(BookingStatus.CANCELLED, reservationRepo.findById(expired.getId()).orElseThrow().getStatus());
+		assertEquals(1, expired.getVersion());
+		assertEquals(1, inventoryRepo.findByFlightId(flight.getId()).getFirst().getCancelled());
+		assertEquals(1, registry.get("airline.reservations.expired").tag("action", "cancel").counter().count());
+	}
+}
@@ -0,0 +1,181 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.WriteBehindProperties;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.exception.ServiceOverloadedException;
+import gr.codelearn.showcase.airline.service.OutboxService;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationWriteBehindTest {
+	@TempDir
+	Path journalDirectory;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ReservationBatchWriter batchWriter = mock(ReservationBatchWriter.class);
+	private final List<QueuedReservation> inserted = new CopyOnWriteArrayList<>();
+	private final FakeReservationRepository reservationRepo = new FakeReservationRepository();
+	private final SeatInventory seatInventory = new SeatInventory();
+	private final Clock clock = Clock.fixed(Instant.parse("2029-12-01T00:00:00Z"), ZoneOffset.UTC);
+	private ReservationWriteBehind writeBehind;
+
+	private ReservationWriteBehind writeBehind(int ringSize) {
+		var properties = new WriteBehindProperties(true, ringSize, 2, journalDirectory, DataSize.ofMegabytes(1), true,
+												   Duration.ofMillis(20), Duration.ofSeconds(5), Duration.ofSeconds(1));
+		writeBehind = new ReservationWriteBehind(properties, batchWriter, reservationRepo, seatInventory,
+												 new SeatInventoryLoader(reservationRepo, seatInventory, mock(OutboxService.class), clock), registry);
+		return writeBehind;
+	}
+
+	// Every row is new unless the batch was inserted before
+	private void insertAll() {
+		when(batchWriter.insert(any())).thenAnswer(invocation -> {
+			List<QueuedReservation> batch = invocation.getArgument(0);
+			inserted.addAll(batch);
+			return batch.stream().map(QueuedReservation::id).collect(Collectors.toSet());
+		});
+	}
+
+	private static QueuedReservation queued(long id, String seatNumber) {
+		return new QueuedReservation(id, 1L, "a@b.com", SeatClass.ECONOMY, seatNumber, Instant.parse("2030-01-01T00:00:00Z"));
+	}
+
+	@AfterEach
+	void stop() {
+		if (writeBehind != null) {
+			writeBehind.stop();
+		}
+	}
+
+	@Test
+	void publishedBookingsAreInsertedAndAwaited() throws Exception {
+		insertAll();
+		var writeBehind = writeBehind(8);
+		writeBehind.start();
+
+		for (int i = 0; i < 5; i++) {
+			writeBehind.publish(queued(writeBehind.nextId(), (i + 1) + "A"));
+		}
+		writeBehind.awaitPersisted();
+
+		assertEquals(5, inserted.size());
+		assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), inserted.stream().map(QueuedReservation::id).collect(Collectors.toSet()));
+		assertEquals(0, writeBehind.backlog());
+
+		// A clean stop leaves nothing to replay
+		writeBehind.stop();
+		assertTrue(ReservationJournal.segmentsIn(journalDirectory).isEmpty());
+	}
+
+	@Test
+	void fullRingTurnsBookingsAwayUntilTheDatabaseCatchesUp() throws Exception {
+		var release = new CountDownLatch(1);
+		when(batchWriter.insert(any())).thenAnswer(invocation -> {
+			release.await();
+			return Set.of();
+		});
+		var writeBehind = writeBehind(4);
+		writeBehind.start();
+
+		var e = assertThrows(ServiceOverloadedException.class, () -> {
+			for (int i = 0; i < 10; i++) {
+				writeBehind.publish(queued(i + 1, (i + 1) + "A"));
+			}
+		});
+		assertEquals(1, e.getRetryAfterSeconds());
+		assertEquals(1, registry.get("airline.write-behind.rejected").counter().count());
+
+		release.countDown();
+		writeBehind.awaitPersisted();
+		writeBehind.publish(queued(100, "20A"));
+	}
+
+	@Test
+	void journaledBookingsAreReplayedOnStart() throws Exception {
+		insertAll();
+		try (var journal = ReservationJournal.open(journalDirectory, DataSize.ofMegabytes(1).toBytes(), true)) {
+			journal.append(queued(7, "1A"), 0);
+			journal.append(queued(8, "1B"), 1);
+		}
+		var segment = ReservationJournal.segmentsIn(journalDirectory).getFirst();
+
+		writeBehind(8).start();
+
+		assertEquals(List.of(queued(7, "1A"), queued(8, "1B")), inserted);
+		assertTrue(Files.notExists(segment));
+	}
+
+	@Test
+	void bookingsUpToThePersistedCheckpointAreNotReplayed() throws Exception {
+		insertAll();
+		try (var journal = ReservationJournal.open(journalDirectory, DataSize.ofMegabytes(1).toBytes(), true)) {
+			journal.append(queued(7, "1A"), 0);
+			journal.append(queued(8, "1B"), 1);
+			journal.append(queued(9, "1C"), 2);
+			journal.flush();
+			// 7 and 8 were inserted, the reaper may have deleted them since
+			journal.release(1);
+		}
+
+		writeBehind(8).start();
+
+		assertEquals(List.of(queued(9, "1C")), inserted);
+	}
+
+	@Test
+	void seatInventoryIsWarmedUpBeforeBookingsAreTaken() {
+		var flight = new Flight(1L, "ATH", "LHR", ZonedDateTime.now(clock).plusDays(1), ZonedDateTime.now(clock).plusDays(1).plusHours(4), 180);
+		var reservation = new Reservation();
+		reservation.setFlight(flight);
+		reservation.setSeatNumber("1A");
+		reservation.setSeatClass(SeatClass.ECONOMY);
+		reservation.setStatus(BookingStatus.PENDING);
+		reservationRepo.save(reservation);
+
+		writeBehind(8).start();
+
+		assertFalse(seatInventory.tryReserve(flight, "1A"));
+	}
+
+	@Test
+	void tornRecordsAtTheEndOfASegmentAreIgnored() throws Exception {
+		try (var journal = ReservationJournal.open(journalDirectory, DataSize.ofMegabytes(1).toBytes(), true)) {
+			journal.append(queued(7, "1A"), 0);
+			journal.append(queued(8, "1B"), 1);
+		}
+		var segment = ReservationJournal.segmentsIn(journalDirectory).getFirst();
+		var bytes = Files.readAllBytes(segment);
+		Files.write(segment, Arrays.copyOf(bytes, bytes.length - 3));
+
+		assertEquals(List.of(queued(7, "1A")), ReservationJournal.read(segment));
+	}
+}
@@ -0,0 +1,111 @@
+package gr.codelearn.showcase.airline.component;
+
+import gr.codelearn.showcase.airline.config.OutboxProperties;
+import gr.codelearn.showcase.airline.config.SeatInventoryProperties;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.service.OutboxServiceImpl;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightInventoryRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeOutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatInventorySyncTest {
+	private final Clock fixedClock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+	private final ZonedDateTime now = ZonedDateTime.now(fixedClock);
+
+	private final FakeOutboxEventRepository outboxRepo = new FakeOutboxEventRepository();
+	private final FakeFlightInventoryRepository inventoryRepo = new FakeFlightInventoryRepository();
+	private final SeatInventory seatInventory = new SeatInventory();
+	private OutboxServiceImpl outboxService;
+	private SeatInventorySync sync;
+
+	@BeforeEach
+	void setup() {
+		var properties = new OutboxProperties(true, Duration.ofMillis(200), 100, 20, Duration.ofDays(7), Duration.ofHours(1),
+											  Duration.ofSeconds(5), new OutboxProperties.InProcessSink(true),
+											  new OutboxProperties.FileSink(false, Path.of("events.ndjson")));
+		outboxService = new OutboxServiceImpl(outboxRepo, new StaticListableBeanFactory().getBeanProvider(OutboxSink.class),
+											  properties, fixedClock);
+		sync = new SeatInventorySync(outboxService, inventoryRepo, seatInventory,
+									 new SeatInventoryProperties(Duration.ofMillis(500), Duration.ofSeconds(5)), fixedClock);
+
+		var flight = new Flight();
+		flight.setId(1L);
+		flight.setCapacity(1);
+		seatInventory.track(flight);
+	}
+
+	// Recorded by another node, this node learns about it only from the feed
+	private void record(long reservationId, String seatNumber, BookingStatus previous, BookingStatus status, ZonedDateTime occurredAt) {
+		outboxRepo.saveAll(List.of(new OutboxEvent(null, reservationId, 1L, SeatClass.ECONOMY, seatNumber, previous, status,
+												   occurredAt, null, null)));
+	}
+
+	@Test
+	void inventoryIsNotCurrentBeforeItIsLoaded() {
+		sync.sync();
+
+		assertFalse(seatInventory.isCurrent());
+	}
+
+	@Test
+	void seatsTakenAndReleasedOnOtherNodesAreAppliedFromTheFeed() {
+		seatInventory.synced(outboxService.lastPosition(), Duration.ZERO);
+		record(1, "1A", null, BookingStatus.PENDING, now);
+		record(2, "2A", null, BookingStatus.PENDING, now);
+		record(2, "2A", BookingStatus.PENDING, BookingStatus.CONFIRMED, now);
+		outboxService.publishPending(100);
+		inventoryRepo.adjust(1L, SeatClass.ECONOMY.name(), 0, 1, 0);
+
+		sync.sync();
+
+		assertTrue(seatInventory.isCurrent());
+		assertTrue(seatInventory.isSeatTaken(1L, "1A"));
+		assertTrue(seatInventory.isFull(1L));
+		assertEquals(3, seatInventory.feedPosition());
+
+		record(1, "1A", BookingStatus.PENDING, BookingStatus.CANCELLED, now);
+		record(2, "2A", BookingStatus.CONFIRMED, BookingStatus.CANCELLED, now);
+		outboxService.publishPending(100);
+		inventoryRepo.adjust(1L, SeatClass.ECONOMY.name(), 0, -1, 1);
+
+		sync.sync();
+
+		assertFalse(seatInventory.isSeatTaken(1L, "1A"));
+		assertFalse(seatInventory.isSeatTaken(1L, "2A"));
+		assertFalse(seatInventory.isFull(1L));
+		assertEquals(5, seatInventory.feedPosition());
+	}
+
+	@Test
+	void inventoryIsNotCurrentWhileTheRelayIsBehind() {
+		seatInventory.synced(outboxService.lastPosition(), Duration.ZERO);
+		record(1, "1A", null, BookingStatus.PENDING, now.minusMinutes(1));
+
+		sync.sync();
+
+		assertFalse(seatInventory.isCurrent());
+
+		outboxService.publishPending(100);
+		sync.sync();
+
+		assertTrue(seatInventory.isCurrent());
+		assertTrue(seatInventory.isSeatTaken(1L, "1A"));
+	}
+}
@@ -0,0 +1,71 @@
+package gr.codelearn.showcase.airline.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConflictRetryConfigTest {
+	private final AtomicInteger calls = new AtomicInteger();
+	private SimpleMeterRegistry registry;
+	private Confirmation confirmation;
+
+	interface Confirmation {
+		String confirm(int failures, RuntimeException failure);
+	}
+
+	@BeforeEach
+	void setup() {
+		registry = new SimpleMeterRegistry();
+		var properties = new ConflictRetryProperties(3, Duration.ofMillis(1), 2, Duration.ofMillis(5));
+		var factory = new ProxyFactory((Confirmation) (failures, failure) -> {
+			if (calls.incrementAndGet() <= failures) {
+				throw failure;
+			}
+			return "CONFIRMED";
+		});
+		factory.addAdvice(new ConflictRetryConfig().conflictRetryInterceptor(properties, registry));
+		confirmation = (Confirmation) factory.getProxy();
+	}
+
+	private double count(String name) {
+		var counter = registry.find(name).tag("method", "confirm").counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	@Test
+	void versionConflictsAreRetriedUntilTheCallSucceeds() {
+		var conflict = new ObjectOptimisticLockingFailureException("Reservation", 1L);
+
+		assertEquals("CONFIRMED", confirmation.confirm(2, conflict));
+		assertEquals(3, calls.get());
+		assertEquals(2, count("airline.retries"));
+		assertEquals(0, count("airline.retries.exhausted"));
+	}
+
+	@Test
+	void conflictsOutlastingTheAttemptsAreRethrown() {
+		var conflict = new ObjectOptimisticLockingFailureException("Reservation", 1L);
+
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> confirmation.confirm(5, conflict));
+		assertEquals(3, calls.get());
+		assertEquals(2, count("airline.retries"));
+		assertEquals(1, count("airline.retries.exhausted"));
+	}
+
+	@Test
+	void otherFailuresAreNotRetried() {
+		assertThrows(DataIntegrityViolationException.class,
+					 () -> confirmation.confirm(1, new DataIntegrityViolationException("uk_flight_seat_active")));
+		assertEquals(1, calls.get());
+		assertEquals(0, count("airline.retries"));
+	}
+}
@@ -0,0 +1,142 @@
+package gr.codelearn.showcase.airline.repository;
+
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Customer;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+ * Inserts 100k reservations twice against a real PostgreSQL:
+ * - identity style: one statement and one round-trip per row, as GenerationType.IDENTITY forces
+ * - pooled-lo style: the JPA path, where ids come from memory and inserts leave in JDBC batches
+ * Run with: mvn test -DexcludedGroups= -Dgroups=benchmark
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationInsertBenchmarkTest {
+	private static final Logger logger = LoggerFactory.getLogger(ReservationInsertBenchmarkTest.class);
+	private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+	private static final int FLUSH_EVERY = 1_000;
+
+	@Container
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+		registry.add("airline.postgres.user", postgres::getUsername);
+		registry.add("airline.postgres.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private FlightRepository flightRepo;
+	@Autowired
+	private CustomerRepository customerRepo;
+	@Autowired
+	private ReservationRepository reservationRepo;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void insertReservationsIdentityStyleVersusPooledSequences() {
+		var tx = new TransactionTemplate(transactionManager);
+		Customer customer = tx.execute(status -> customerRepo.save(new Customer(null, "Bench User", "bench@user.com")));
+		Flight identityFlight = tx.execute(status -> flightRepo.save(newFlight()));
+		Flight pooledFlight = tx.execute(status -> flightRepo.save(newFlight()));
+
+		long identityStart = System.nanoTime();
+		tx.executeWithoutResult(status -> insertRowByRow(identityFlight.getId(), customer.getId()));
+		long identityMillis = (System.nanoTime() - identityStart) / 1_000_000;
+
+		long pooledStart = System.nanoTime();
+		tx.executeWithoutResult(status -> insertThroughJpa(pooledFlight, customer));
+		long pooledMillis = (System.nanoTime() - pooledStart) / 1_000_000;
+
+		logger.info("Inserted {} reservations: identity style {} ms, pooled-lo sequence with JDBC batching {} ms", ROWS,
+					identityMillis, pooledMillis);
+		assertEquals(2L * ROWS, reservationRepo.count());
+	}
+
+	private void insertRowByRow(Long flightId, Long customerId) {
+		var createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			try (var statement = connection.prepareStatement("""
+															 insert into reservations
+															 (id, flight_id, customer_id, seat_class, seat_number, status, version, created_at)
+															 values (nextval('reservations_seq'), ?, ?, ?, ?, ?, 0, ?)
+															 returning id
+															 """)) {
+				for (int i = 0; i < ROWS; i++) {
+					statement.setLong(1, flightId);
+					statement.setLong(2, customerId);
+					statement.setString(3, SeatClass.ECONOMY.name());
+					statement.setString(4, "S" + i);
+					statement.setString(5, BookingStatus.PENDING.name());
+					statement.setObject(6, createdAt);
+					try (var generated = statement.executeQuery()) {
+						generated.next();
+					}
+				}
+			}
+			return null;
+		});
+	}
+
+	private void insertThroughJpa(Flight flight, Customer customer) {
+		var flightRef = entityManager.getReference(Flight.class, flight.getId());
+		var customerRef = entityManager.getReference(Customer.class, customer.getId());
+		for (int i = 0; i < ROWS; i++) {
+			Reservation res = new Reservation();
+			res.setFlight(flightRef);
+			res.setCustomer(customerRef);
+			res.setSeatClass(SeatClass.ECONOMY);
+			res.setSeatNumber("S" + i);
+			res.setStatus(BookingStatus.PENDING);
+			entityManager.persist(res);
+			if ((i + 1) % FLUSH_EVERY == 0) {
+				entityManager.flush();
+				entityManager.clear();
+				flightRef = entityManager.getReference(Flight.class, flight.getId());
+				customerRef = entityManager.getReference(Customer.class, customer.getId());
+			}
+		}
+	}
+
+	private static Flight newFlight() {
+		var departure = ZonedDateTime.now(ZoneOffset.UTC).plusDays(30);
+		return new Flight(null, "ATH", "LHR", departure, departure.plusHours(4), ROWS);
+	}
+}
@@ -0,0 +1,168 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.component.FlightIndex;
+import gr.codelearn.showcase.airline.component.FlightIndexLoader;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.domain.SeatState;
+import gr.codelearn.showcase.airline.exception.NotFoundException;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightInventoryRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightSearchTest {
+	private final Clock fixedClock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+	private final ZonedDateTime now = ZonedDateTime.now(fixedClock);
+
+	private FakeFlightRepository flightRepo;
+	private FakeReservationRepository reservationRepo;
+	private FakeFlightInventoryRepository inventoryRepo;
+	private FlightIndex flightIndex;
+	private FlightService service;
+
+	private Flight createFlight(String origin, String destination, ZonedDateTime departureAt) {
+		return flightRepo.save(new Flight(null, origin, destination, departureAt, departureAt.plusHours(4), 180));
+	}
+
+	@BeforeEach
+	void setup() {
+		inventoryRepo = new FakeFlightInventoryRepository();
+		flightRepo = new FakeFlightRepository(inventoryRepo);
+		reservationRepo = new FakeReservationRepository();
+		flightIndex = new FlightIndex();
+		service = new FlightServiceImpl(flightRepo, reservationRepo, inventoryRepo, flightIndex);
+	}
+
+	@Test
+	void searchReturnsRouteFlightsInDepartureOrder() {
+		Flight late = createFlight("ATH", "LHR", now.plusDays(2));
+		Flight early = createFlight("ATH", "LHR", now.plusDays(1));
+		createFlight("ATH", "CDG", now.plusDays(1));
+		createFlight("ATH", "LHR", now.plusDays(10));
+		new FlightIndexLoader(flightRepo, flightIndex, fixedClock).load();
+
+		var found = service.search("ATH", "LHR", now, now.plusDays(3));
+
+		assertEquals(2, found.size());
+		assertEquals(early.getId(), found.get(0).getId());
+		assertEquals(late.getId(), found.get(1).getId());
+	}
+
+	@Test
+	void searchReflectsFlightChangesAppliedToTheIndex() {
+		Flight flight = createFlight("ATH", "LHR", now.plusDays(1));
+		new FlightIndexLoader(flightRepo, flightIndex, fixedClock).load();
+
+		flight.setDepartureAt(now.plusDays(5));
+		flightIndex.put(flight);
+		assertTrue(service.search("ATH", "LHR", now, now.plusDays(3)).isEmpty());
+		assertEquals(1, service.search("ATH", "LHR", now.plusDays(4), now.plusDays(6)).size());
+
+		flightIndex.remove(flight.getId());
+		assertTrue(service.search("ATH", "LHR", now, now.plusDays(10)).isEmpty());
+	}
+
+	@Test
+	void refreshPicksUpFlightsChangedOnOtherNodes() {
+		Flight moved = createFlight("ATH", "LHR", now.plusDays(1));
+		Flight dropped = createFlight("ATH", "LHR", now.plusDays(2));
+		var loader = new FlightIndexLoader(flightRepo, flightIndex, fixedClock);
+		loader.load();
+
+		// Written straight to the repository, as another node would, without passing through this index
+		moved.setDepartureAt(now.plusDays(5));
+		flightRepo.deleteById(dropped.getId());
+		Flight added = createFlight("ATH", "LHR", now.plusDays(3));
+		assertEquals(2, service.search("ATH", "LHR", now, now.plusDays(3)).size());
+
+		loader.refresh();
+
+		assertEquals(List.of(added.getId(), moved.getId()),
+					 service.search("ATH", "LHR", now, now.plusDays(10)).stream().map(Flight::getId).toList());
+		assertTrue(flightIndex.find(dropped.getId()).isEmpty());
+	}
+
+	@Test
+	void searchBeforeTheIndexedWindowFallsBackToTheRepository() {
+		Flight past = createFlight("ATH", "LHR", now.minusDays(1));
+		new FlightIndexLoader(flightRepo, flightIndex, fixedClock).load();
+
+		var found = service.search("ATH", "LHR", now.minusDays(2), now);
+
+		assertEquals(1, found.size());
+		assertEquals(past.getId(), found.getFirst().getId());
+	}
+
+	@Test
+	void seatMapOverlaysReservationsOnTheCabinLayout() {
+		Flight flight = flightRepo.save(new Flight(null, "ATH", "LHR", now.plusDays(1), now.plusDays(1).plusHours(4), 8));
+		reserve(flight, "1B", BookingStatus.PENDING);
+		reserve(flight, "2A", BookingStatus.CANCELLED);
+
+		var seats = service.seatMap(flight.getId());
+
+		assertEquals(8, seats.size());
+		assertEquals("1A", seats.getFirst().seatNumber());
+		assertEquals("2B", seats.getLast().seatNumber());
+		assertEquals(new SeatView("1B", SeatState.PENDING, SeatClass.ECONOMY), seats.get(1));
+		assertEquals(SeatState.FREE, seats.get(6).state());
+		assertEquals(SeatState.FREE, seats.get(2).state());
+	}
+
+	@Test
+	void seatMapVersionIsReadFromTheInventorySoEveryNodeAgrees() {
+		Flight flight = flightRepo.save(new Flight(null, "ATH", "LHR", now.plusDays(1), now.plusDays(1).plusHours(4), 8));
+		var otherNode = new FlightServiceImpl(flightRepo, reservationRepo, inventoryRepo, new FlightIndex());
+		inventoryRepo.reserved(flight.getId(), SeatClass.ECONOMY, 1);
+
+		String before = service.seatMapVersion(flight.getId());
+		assertEquals(before, otherNode.seatMapVersion(flight.getId()));
+
+		// A confirmation leaves the totals as they were, the version still moves
+		inventoryRepo.moved(flight.getId(), SeatClass.ECONOMY, BookingStatus.PENDING, BookingStatus.CONFIRMED);
+		assertNotEquals(before, service.seatMapVersion(flight.getId()));
+		assertEquals(service.seatMapVersion(flight.getId()), otherNode.seatMapVersion(flight.getId()));
+	}
+
+	@Test
+	void availabilityAndSearchAvailableReadTheInventoryCounters() {
+		Flight full = createFlight("ATH", "LHR", now.plusDays(1));
+		full.setCapacity(2);
+		Flight open = createFlight("ATH", "LHR", now.plusDays(2));
+		inventoryRepo.adjust(full.getId(), SeatClass.ECONOMY.name(), 0, 2, 0);
+		inventoryRepo.adjust(open.getId(), SeatClass.BUSINESS.name(), 1, 3, 1);
+
+		var availability = service.availability(open.getId());
+
+		assertEquals(177, availability.available());
+		assertEquals(List.of(new SeatClassAvailability(SeatClass.BUSINESS, 1, 3, 1)), availability.seatClasses());
+		assertEquals(0, service.availability(full.getId()).available());
+		assertEquals(List.of(open), service.searchAvailable("ATH", "LHR", now, now.plusDays(3), 1));
+		assertThrows(NotFoundException.class, () -> service.availability(999L));
+	}
+
+	private Reservation reserve(Flight flight, String seatNumber, BookingStatus status) {
+		Reservation reservation = new Reservation();
+		reservation.setFlight(flight);
+		reservation.setSeatNumber(seatNumber);
+		reservation.setSeatClass(SeatClass.ECONOMY);
+		reservation.setStatus(status);
+		reservation.setCreatedAt(now);
+		return reservationRepo.save(reservation);
+	}
+}
@@ -0,0 +1,108 @@
+package gr.codelearn.showcase.airline.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.codelearn.showcase.airline.component.AdmissionControl;
+import gr.codelearn.showcase.airline.component.IdempotencyCache;
+import gr.codelearn.showcase.airline.config.AdmissionControlProperties;
+import gr.codelearn.showcase.airline.config.IdempotencyProperties;
+import gr.codelearn.showcase.airline.domain.IdempotencyRecord;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+	private final Clock fixedClock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+	private final IdempotencyRecordRepository recordRepo = mock(IdempotencyRecordRepository.class);
+	private final IdempotencyCache cache = new IdempotencyCache(fixedClock, new IdempotencyProperties(100, Duration.ofHours(24),
+																									   Duration.ofHours(1)));
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final AdmissionControl admissionControl = new AdmissionControl(
+			new AdmissionControlProperties(true, 1, 0, Duration.ZERO, Duration.ofSeconds(1)), new SimpleMeterRegistry());
+	private final IdempotencyServiceImpl service = new IdempotencyServiceImpl(recordRepo, cache, new ObjectMapper(), fixedClock,
+																			  transactionManager, admissionControl);
+
+	private final AtomicInteger executions = new AtomicInteger();
+
+	private Object book() {
+		return Map.of("id", executions.incrementAndGet());
+	}
+
+	@Test
+	void retryReplaysTheFirstResponseWithoutRunningTheActionAgain() {
+		when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+		when(recordRepo.insert(anyString(), anyString(), anyString(), any())).thenReturn(1);
+
+		var first = service.execute("key-1", Map.of("seat", "3A"), this::book);
+		var retry = service.execute("key-1", Map.of("seat", "3A"), this::book);
+
+		assertFalse(first.replayed());
+		assertTrue(retry.replayed());
+		assertEquals("{\"id\":1}", retry.body());
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void keysStoredByAnotherNodeAreReplayedFromTheDatabase() throws NoSuchAlgorithmException {
+		var stored = new IdempotencyRecord("key-1", sha256("{\"seat\":\"3A\"}"), "{\"id\":7}", ZonedDateTime.now(fixedClock));
+		when(recordRepo.findByIdempotencyKey("key-1")).thenReturn(Optional.of(stored));
+
+		var replay = service.execute("key-1", Map.of("seat", "3A"), this::book);
+
+		assertTrue(replay.replayed());
+		assertEquals("{\"id\":7}", replay.body());
+		assertEquals(0, executions.get());
+	}
+
+	@Test
+	void keyReusedForDifferentRequestIsRejected() {
+		when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+		when(recordRepo.insert(anyString(), anyString(), anyString(), any())).thenReturn(1);
+		service.execute("key-1", Map.of("seat", "3A"), this::book);
+
+		assertThrows(BusinessException.class, () -> service.execute("key-1", Map.of("seat", "3B"), this::book));
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void failedRequestsAreNotStored() {
+		when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+		assertThrows(BusinessException.class, () -> service.execute("key-1", Map.of("seat", "3A"), () -> {
+			throw new BusinessException("Seat already reserved.");
+		}));
+		verify(recordRepo, never()).insert(anyString(), anyString(), anyString(), any());
+		assertEquals(0, cache.size());
+	}
+
+	private static String sha256(String json) throws NoSuchAlgorithmException {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8)));
+	}
+}
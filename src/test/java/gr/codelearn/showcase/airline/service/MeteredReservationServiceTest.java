@@ -0,0 +1,78 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.exception.BusinessException.Reason;
+import gr.codelearn.showcase.airline.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredReservationServiceTest {
+	@Mock
+	private WriteBehindReservationService delegate;
+
+	private SimpleMeterRegistry registry;
+	private MeteredReservationService service;
+
+	@BeforeEach
+	void setup() {
+		registry = new SimpleMeterRegistry();
+		service = new MeteredReservationService(delegate, registry);
+	}
+
+	private long count(String operation, String outcome) {
+		return registry.get("airline.reservations").tag("operation", operation).tag("outcome", outcome).timer().count();
+	}
+
+	@Test
+	void reserveIsTimedByOutcome() {
+		when(delegate.reserve(1L, "a@b.com", SeatClass.ECONOMY, "1A")).thenReturn(new Reservation());
+		when(delegate.reserve(1L, "a@b.com", SeatClass.ECONOMY, "1B"))
+				.thenThrow(new BusinessException(Reason.SEAT_TAKEN, "Seat already reserved."));
+		when(delegate.reserve(2L, "a@b.com", SeatClass.ECONOMY, "1A")).thenThrow(new NotFoundException("Flight not found"));
+
+		service.reserve(1L, "a@b.com", SeatClass.ECONOMY, "1A");
+		assertThrows(BusinessException.class, () -> service.reserve(1L, "a@b.com", SeatClass.ECONOMY, "1B"));
+		assertThrows(NotFoundException.class, () -> service.reserve(2L, "a@b.com", SeatClass.ECONOMY, "1A"));
+
+		assertEquals(1, count("reserve", "success"));
+		assertEquals(1, count("reserve", "seat-taken"));
+		assertEquals(1, count("reserve", "not-found"));
+		assertEquals(0, count("reserve", "capacity-full"));
+	}
+
+	@Test
+	void missingReservationIsCountedAsNotFound() {
+		when(delegate.get(9L)).thenReturn(Optional.empty());
+
+		service.get(9L);
+
+		assertEquals(1, count("get", "not-found"));
+	}
+
+	@Test
+	void batchCountsReservedAndRejectedSeats() {
+		var request = new ReservationRequest(1L, "a@b.com", SeatClass.ECONOMY, "1A");
+		when(delegate.reserveAll(List.of(request, request), false))
+				.thenReturn(List.of(ReservationOutcome.reserved(request, new Reservation()),
+									ReservationOutcome.rejected(request, "Seat already reserved.")));
+
+		service.reserveAll(List.of(request, request), false);
+
+		assertEquals(1, count("reserve-all", "success"));
+		assertEquals(1, registry.get("airline.reservations.batch.requests").tag("result", "rejected").counter().count());
+	}
+}
@@ -0,0 +1,157 @@
+package gr.codelearn.showcase.airline.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import gr.codelearn.showcase.airline.component.FileOutboxSink;
+import gr.codelearn.showcase.airline.component.OutboxSink;
+import gr.codelearn.showcase.airline.component.ReservationStatusChanged;
+import gr.codelearn.showcase.airline.config.OutboxProperties;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeOutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxServiceTest {
+	private final Clock fixedClock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+	private final ZonedDateTime now = ZonedDateTime.now(fixedClock);
+
+	@TempDir
+	Path directory;
+
+	private final FakeOutboxEventRepository outboxRepo = new FakeOutboxEventRepository();
+	private final List<ReservationStatusChanged> delivered = new CopyOnWriteArrayList<>();
+
+	private OutboxProperties properties(boolean fileSink) {
+		return new OutboxProperties(true, Duration.ofMillis(200), 2, 20, Duration.ofDays(7), Duration.ofHours(1), Duration.ofSeconds(5),
+									new OutboxProperties.InProcessSink(true),
+									new OutboxProperties.FileSink(fileSink, directory.resolve("events.ndjson")));
+	}
+
+	private OutboxServiceImpl service(OutboxSink... sinks) {
+		var beanFactory = new StaticListableBeanFactory();
+		for (int i = 0; i < sinks.length; i++) {
+			beanFactory.addBean("sink" + i, sinks[i]);
+		}
+		return new OutboxServiceImpl(outboxRepo, beanFactory.getBeanProvider(OutboxSink.class), properties(false), fixedClock);
+	}
+
+	private void record(long reservationId, BookingStatus previous, BookingStatus status) {
+		record(null, reservationId, previous, status, now);
+	}
+
+	private void record(Long id, long reservationId, BookingStatus previous, BookingStatus status, ZonedDateTime occurredAt) {
+		outboxRepo.saveAll(List.of(new OutboxEvent(id, reservationId, 1L, SeatClass.ECONOMY, reservationId + "A", previous, status,
+												   occurredAt, null, null)));
+	}
+
+	@Test
+	void pendingEventsArePublishedInBatchesWithConsecutivePositions() {
+		var service = service(delivered::addAll);
+		record(1, null, BookingStatus.PENDING);
+		record(1, BookingStatus.PENDING, BookingStatus.CONFIRMED);
+		record(2, null, BookingStatus.PENDING);
+
+		assertEquals(2, service.publishPending(2));
+		assertEquals(1, service.publishPending(2));
+		assertEquals(0, service.publishPending(2));
+
+		assertEquals(List.of(1L, 2L, 3L), delivered.stream().map(ReservationStatusChanged::position).toList());
+		assertEquals(BookingStatus.PENDING, delivered.get(1).previousStatus());
+		assertEquals(BookingStatus.CONFIRMED, delivered.get(1).status());
+		assertTrue(outboxRepo.findAll().stream().allMatch(e -> now.equals(e.getPublishedAt())));
+	}
+
+	@Test
+	void eventsFromInterleavedIdBlocksArePublishedInTheOrderTheyOccurred() {
+		var service = service(delivered::addAll);
+		// Node A allocates ids from 1, node B from 101, and B records the first change
+		record(101L, 1, null, BookingStatus.PENDING, now);
+		record(1L, 2, null, BookingStatus.PENDING, now.plusSeconds(1));
+		record(2L, 1, BookingStatus.PENDING, BookingStatus.CONFIRMED, now.plusSeconds(2));
+		record(102L, 2, BookingStatus.PENDING, BookingStatus.CANCELLED, now.plusSeconds(3));
+
+		assertEquals(2, service.publishPending(2));
+		assertEquals(2, service.publishPending(2));
+
+		assertEquals(List.of(1L, 2L, 1L, 2L), delivered.stream().map(ReservationStatusChanged::reservationId).toList());
+		assertEquals(List.of(BookingStatus.PENDING, BookingStatus.PENDING, BookingStatus.CONFIRMED, BookingStatus.CANCELLED),
+					 delivered.stream().map(ReservationStatusChanged::status).toList());
+		assertEquals(List.of(1L, 2L, 3L, 4L), delivered.stream().map(ReservationStatusChanged::position).toList());
+	}
+
+	@Test
+	void feedReturnsEventsAfterThePositionWithoutWaiting() {
+		var service = service();
+		record(1, null, BookingStatus.PENDING);
+		record(2, null, BookingStatus.PENDING);
+		record(3, null, BookingStatus.PENDING);
+		service.publishPending(10);
+
+		long start = System.nanoTime();
+		var events = service.eventsAfter(1, 10, Duration.ofSeconds(5));
+
+		assertEquals(List.of(2L, 3L), events.stream().map(OutboxEvent::getFeedPosition).toList());
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+	}
+
+	@Test
+	void emptyFeedWaitsForTheNextPublish() throws Exception {
+		var service = service();
+		var poll = CompletableFuture.supplyAsync(() -> service.eventsAfter(0, 10, Duration.ofSeconds(5)));
+		Thread.sleep(100);
+		assertFalse(poll.isDone());
+
+		record(1, null, BookingStatus.PENDING);
+		service.publishPending(10);
+
+		assertEquals(1, poll.get(2, TimeUnit.SECONDS).size());
+		assertTrue(service.eventsAfter(1, 10, Duration.ZERO).isEmpty());
+	}
+
+	@Test
+	void purgeKeepsTheLastPublishedEvent() {
+		var service = service();
+		record(1, null, BookingStatus.PENDING);
+		record(2, null, BookingStatus.PENDING);
+		service.publishPending(10);
+
+		assertEquals(1, service.purgePublishedBefore(now.plusDays(8)));
+		record(3, null, BookingStatus.PENDING);
+		service.publishPending(10);
+
+		assertEquals(List.of(2L, 3L), outboxRepo.findAll().stream().map(OutboxEvent::getFeedPosition).toList());
+	}
+
+	@Test
+	void fileSinkAppendsOneJsonLinePerEvent() throws Exception {
+		var sink = new FileOutboxSink(properties(true), new ObjectMapper().registerModule(new JavaTimeModule()));
+		var service = service(sink);
+		record(1, null, BookingStatus.PENDING);
+		record(1, BookingStatus.PENDING, BookingStatus.CANCELLED);
+		service.publishPending(10);
+
+		var lines = Files.readAllLines(directory.resolve("events.ndjson"));
+		assertEquals(2, lines.size());
+		assertTrue(lines.get(1).contains("\"position\":2"));
+		assertTrue(lines.get(1).contains("\"status\":\"CANCELLED\""));
+	}
+}
@@ -0,0 +1,139 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.component.CustomerCache;
+import gr.codelearn.showcase.airline.component.FlightLocks;
+import gr.codelearn.showcase.airline.component.SeatInventory;
+import gr.codelearn.showcase.airline.config.CustomerCacheProperties;
+import gr.codelearn.showcase.airline.domain.BookingStatus;
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.exception.BusinessException;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeCustomerRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightInventoryRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeOutboxEventRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeReservationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationConcurrencyStressTest {
+	private static final int RESERVATIONS = 10_000;
+	private static final int FLIGHTS = 4;
+	private static final int CAPACITY = 50;
+	private static final int THREADS = 32;
+
+	private final Clock fixedClock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+	private final FakeFlightInventoryRepository inventoryRepo = new FakeFlightInventoryRepository();
+	private final FakeFlightRepository flightRepo = new FakeFlightRepository(inventoryRepo);
+	private final FakeCustomerRepository customerRepo = new FakeCustomerRepository();
+	private final FakeReservationRepository reservationRepo = new FakeReservationRepository();
+
+	private final ReservationServiceImpl service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, inventoryRepo, fixedClock,
+																			  new SeatInventory(), new FlightLocks(),
+																			  new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))),
+																			  new FakeOutboxEventRepository().outbox(fixedClock));
+
+	private List<Flight> createFlights() {
+		List<Flight> flights = new ArrayList<>();
+		for (int i = 0; i < FLIGHTS; i++) {
+			Flight flight = new Flight();
+			flight.setOrigin("ATH");
+			flight.setDestination("LHR");
+			flight.setDepartureAt(ZonedDateTime.now(fixedClock).plusDays(2));
+			flight.setArrivalAt(ZonedDateTime.now(fixedClock).plusDays(2).plusHours(4));
+			flight.setCapacity(CAPACITY);
+			flights.add(flightRepo.save(flight));
+		}
+		return flights;
+	}
+
+	private static String seatNumber(int index) {
+		return (index / 26 + 1) + String.valueOf((char) ('A' + index % 26));
+	}
+
+	private static void runConcurrently(int tasks, TaskBody body) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			for (int i = 0; i < tasks; i++) {
+				final int task = i;
+				executor.execute(() -> {
+					try {
+						start.await();
+						body.run(task);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+			start.countDown();
+		} finally {
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "Stress run did not finish in time");
+		}
+	}
+
+	@FunctionalInterface
+	private interface TaskBody {
+		void run(int task);
+	}
+
+	@Test
+	void concurrentReserveAndConfirmNeverOverbooks() throws InterruptedException {
+		List<Flight> flights = createFlights();
+		AtomicInteger unexpected = new AtomicInteger();
+
+		runConcurrently(RESERVATIONS, task -> {
+			Flight flight = flights.get(task % FLIGHTS);
+			try {
+				var reservation = service.reserve(flight.getId(), "user" + task + "@stress.com", SeatClass.ECONOMY,
+												  seatNumber(task / FLIGHTS));
+				service.confirm(reservation.getId());
+			} catch (BusinessException e) {
+				// Seat taken or flight full, both are expected once capacity is reached
+			} catch (RuntimeException e) {
+				unexpected.incrementAndGet();
+			}
+		});
+
+		assertEquals(0, unexpected.get());
+		for (Flight flight : flights) {
+			assertEquals(CAPACITY, reservationRepo.countByFlightIdAndStatus(flight.getId(), BookingStatus.CONFIRMED),
+						 "Flight " + flight.getId() + " must be filled exactly to capacity");
+		}
+	}
+
+	@Test
+	void concurrentReservationsOfTheSameSeatAdmitExactlyOne() throws InterruptedException {
+		Flight flight = createFlights().getFirst();
+		AtomicInteger succeeded = new AtomicInteger();
+
+		runConcurrently(RESERVATIONS, task -> {
+			try {
+				service.reserve(flight.getId(), "user" + task + "@stress.com", SeatClass.ECONOMY, "1A");
+				succeeded.incrementAndGet();
+			} catch (BusinessException e) {
+				// Seat already reserved
+			}
+		});
+
+		assertEquals(1, succeeded.get());
+		assertEquals(1, reservationRepo.count());
+	}
+}
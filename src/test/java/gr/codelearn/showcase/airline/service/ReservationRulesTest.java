@@ -1,29 +1,48 @@
 package gr.codelearn.showcase.airline.service;
 
+import gr.codelearn.showcase.airline.component.CustomerCache;
+import gr.codelearn.showcase.airline.component.FlightLocks;
+import gr.codelearn.showcase.airline.component.ReservationOutbox;
+import gr.codelearn.showcase.airline.component.SeatInventory;
+import gr.codelearn.showcase.airline.config.CustomerCacheProperties;
 import gr.codelearn.showcase.airline.domain.BookingStatus;
 import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.FlightInventory;
 import gr.codelearn.showcase.airline.domain.Reservation;
 import gr.codelearn.showcase.airline.domain.SeatClass;
 import gr.codelearn.showcase.airline.exception.BusinessException;
 import gr.codelearn.showcase.airline.exception.NotFoundException;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
 import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeCustomerRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightInventoryRepository;
 import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeFlightRepository;
+import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeOutboxEventRepository;
 import gr.codelearn.showcase.airline.testutil.FakeRepositories.FakeReservationRepository;
 import org.junit.jupiter.api.Test;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ReservationRulesTest {
 	private final Clock fixedClock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+	private final FakeOutboxEventRepository outboxRepo = new FakeOutboxEventRepository();
+
+	private ReservationOutbox outbox() {
+		return outboxRepo.outbox(fixedClock);
+	}
 
 	private Flight createFlight() {
 		Flight flight = new Flight();
@@ -46,7 +65,8 @@ class ReservationRulesTest {
 		flight.setDepartureAt(ZonedDateTime.now(fixedClock).minusDays(1));
 		flightRepo.save(flight);
 
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 
 		assertThrows(BusinessException.class, () ->
 				service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1A"));
@@ -61,7 +81,8 @@ class ReservationRulesTest {
 		Flight flight = createFlight();
 		flightRepo.save(flight);
 
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 		var result = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1A");
 
 		assertNotNull(result.getId());
@@ -79,7 +100,8 @@ class ReservationRulesTest {
 		Flight flight = createFlight();
 		flightRepo.save(flight);
 
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 		service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1A");
 
 		assertThrows(BusinessException.class, () ->
@@ -96,7 +118,8 @@ class ReservationRulesTest {
 		flight.setCapacity(1);
 		flightRepo.save(flight);
 
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 
 		service.reserve(flight.getId(), "first@user.com", SeatClass.BUSINESS, "1A");
 		service.confirm(flight.getId());
@@ -114,7 +137,8 @@ class ReservationRulesTest {
 		Flight flight = createFlight();
 		flightRepo.save(flight);
 
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 
 		assertTrue(customerRepo.findAll().isEmpty());
 
@@ -132,7 +156,8 @@ class ReservationRulesTest {
 		Flight flight = createFlight();
 		flightRepo.save(flight);
 
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 		var res = service.reserve(flight.getId(), "test@user.com", SeatClass.ECONOMY, "2A");
 
 		assertEquals(BookingStatus.PENDING, res.getStatus());
@@ -150,7 +175,8 @@ class ReservationRulesTest {
 		Flight flight = createFlight();
 		flightRepo.save(flight);
 
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 		var res = service.reserve(flight.getId(), "test@user.com", SeatClass.ECONOMY, "2A");
 
 		service.cancel(res.getId());
@@ -168,7 +194,8 @@ class ReservationRulesTest {
 		Flight flight = createFlight();
 		flightRepo.save(flight);
 
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 		var created = service.reserve(flight.getId(), "exists@user.com", SeatClass.ECONOMY, "3A");
 
 		Optional<Reservation> fetched = service.get(created.getId());
@@ -176,6 +203,12 @@ class ReservationRulesTest {
 		assertTrue(fetched.isPresent());
 		assertEquals(created.getId(), fetched.get().getId());
 		assertEquals(created.getCustomer().getEmail(), fetched.get().getCustomer().getEmail());
+
+		var view = service.view(created.getId()).orElseThrow();
+		assertEquals(flight.getId(), view.getFlightId());
+		assertEquals("exists@user.com", view.getCustomerEmail());
+		assertEquals(BookingStatus.PENDING, view.getStatus());
+		assertTrue(service.view(999L).isEmpty());
 	}
 
 	@Test
@@ -187,7 +220,8 @@ class ReservationRulesTest {
 		Flight flight = createFlight();
 		flightRepo.save(flight);
 
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 
 		var r = service.reserve(flight.getId(), "lifecycle@user.com", SeatClass.BUSINESS, "5A");
 		assertEquals(BookingStatus.PENDING, r.getStatus());
@@ -199,12 +233,76 @@ class ReservationRulesTest {
 		assertEquals(BookingStatus.CANCELLED, reservationRepo.findById(r.getId()).orElseThrow().getStatus());
 	}
 
+	@Test
+	void reserveAllKeepsAcceptedSeatsOnPartialSuccess() {
+		var flightRepo = new FakeFlightRepository();
+		var customerRepo = new FakeCustomerRepository();
+		var reservationRepo = new FakeReservationRepository();
+
+		Flight flight = createFlight();
+		flightRepo.save(flight);
+
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		service.reserve(flight.getId(), "taken@user.com", SeatClass.ECONOMY, "1A");
+
+		List<ReservationOutcome> outcomes = service.reserveAll(List.of(
+				new ReservationRequest(flight.getId(), "group@user.com", SeatClass.ECONOMY, "1A"),
+				new ReservationRequest(flight.getId(), "group@user.com", SeatClass.ECONOMY, "1B"),
+				new ReservationRequest(flight.getId(), "other@user.com", SeatClass.ECONOMY, "1B"),
+				new ReservationRequest(999L, "group@user.com", SeatClass.ECONOMY, "1C")), false);
+
+		assertEquals("Seat already reserved.", outcomes.get(0).error());
+		assertTrue(outcomes.get(1).isReserved());
+		assertNotNull(outcomes.get(1).reservation().getId());
+		assertEquals("Seat already reserved.", outcomes.get(2).error());
+		assertEquals("Flight not found", outcomes.get(3).error());
+		assertEquals(2, reservationRepo.count());
+		assertEquals(2, customerRepo.count());
+	}
+
+	@Test
+	void reserveAllPersistsNothingWhenAllOrNothingBatchHasRejections() {
+		var flightRepo = new FakeFlightRepository();
+		var customerRepo = new FakeCustomerRepository();
+		var reservationRepo = new FakeReservationRepository();
+
+		Flight flight = createFlight();
+		flightRepo.save(flight);
+
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		service.reserve(flight.getId(), "taken@user.com", SeatClass.ECONOMY, "1A");
+
+		List<ReservationOutcome> outcomes = service.reserveAll(List.of(
+				new ReservationRequest(flight.getId(), "group@user.com", SeatClass.ECONOMY, "1A"),
+				new ReservationRequest(flight.getId(), "group@user.com", SeatClass.ECONOMY, "1B")), true);
+
+		assertTrue(outcomes.stream().noneMatch(ReservationOutcome::isReserved));
+		assertEquals(1, reservationRepo.count());
+		assertEquals(1, customerRepo.count());
+	}
+
+	@Test
+	void reserveAllRejectsMissingEmptyAndOversizedBatches() {
+		var reservationRepo = new FakeReservationRepository();
+		var service = new ReservationServiceImpl(new FakeFlightRepository(), new FakeCustomerRepository(), reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		var oversized = Collections.nCopies(1001, new ReservationRequest(1L, "group@user.com", SeatClass.ECONOMY, "1A"));
+
+		assertThrows(BusinessException.class, () -> service.reserveAll(null, false));
+		assertThrows(BusinessException.class, () -> service.reserveAll(List.of(), false));
+		assertThrows(BusinessException.class, () -> service.reserveAll(oversized, false));
+		assertEquals(0, reservationRepo.count());
+	}
+
 	@Test
 	void reserveThrowsWhenFlightDoesNotExist() {
 		var flightRepo = new FakeFlightRepository();
 		var customerRepo = new FakeCustomerRepository();
 		var reservationRepo = new FakeReservationRepository();
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 
 		assertThrows(NotFoundException.class, () ->
 				service.reserve(999L, "no@flight.com", SeatClass.ECONOMY, "10A"));
@@ -215,7 +313,8 @@ class ReservationRulesTest {
 		var flightRepo = new FakeFlightRepository();
 		var customerRepo = new FakeCustomerRepository();
 		var reservationRepo = new FakeReservationRepository();
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 
 		assertThrows(NotFoundException.class, () -> service.confirm(999L));
 	}
@@ -225,7 +324,8 @@ class ReservationRulesTest {
 		var flightRepo = new FakeFlightRepository();
 		var customerRepo = new FakeCustomerRepository();
 		var reservationRepo = new FakeReservationRepository();
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 
 		assertThrows(NotFoundException.class, () -> service.cancel(999L));
 	}
@@ -235,9 +335,240 @@ class ReservationRulesTest {
 		var flightRepo = new FakeFlightRepository();
 		var customerRepo = new FakeCustomerRepository();
 		var reservationRepo = new FakeReservationRepository();
-		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
 
 		Optional<Reservation> result = service.get(999L);
 		assertTrue(result.isEmpty());
 	}
+
+	@Test
+	void statusChangesAreRecordedInTheOutbox() {
+		var flightRepo = new FakeFlightRepository();
+		var reservationRepo = new FakeReservationRepository();
+
+		Flight flight = createFlight();
+		flight.setCapacity(4);
+		flightRepo.save(flight);
+
+		var service = new ReservationServiceImpl(flightRepo, new FakeCustomerRepository(), reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		var reservation = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1A");
+		service.confirm(reservation.getId());
+		service.confirm(reservation.getId());
+		service.cancel(reservation.getId());
+
+		var events = outboxRepo.findAll();
+		assertEquals(3, events.size());
+		assertNull(events.get(0).getPreviousStatus());
+		assertEquals(BookingStatus.PENDING, events.get(0).getStatus());
+		assertEquals(BookingStatus.PENDING, events.get(1).getPreviousStatus());
+		assertEquals(BookingStatus.CONFIRMED, events.get(1).getStatus());
+		assertEquals(BookingStatus.CONFIRMED, events.get(2).getPreviousStatus());
+		assertEquals(BookingStatus.CANCELLED, events.get(2).getStatus());
+		assertTrue(events.stream().allMatch(e -> e.getReservationId().equals(reservation.getId()) && e.getSeatNumber().equals("1A")));
+		assertTrue(events.stream().allMatch(e -> e.getFeedPosition() == null && e.getPublishedAt() == null));
+	}
+
+	@Test
+	void inventoryCountersFollowReservationLifecycle() {
+		var flightRepo = new FakeFlightRepository();
+		var customerRepo = new FakeCustomerRepository();
+		var reservationRepo = new FakeReservationRepository();
+		var inventoryRepo = new FakeFlightInventoryRepository();
+
+		Flight flight = createFlight();
+		flight.setCapacity(4);
+		flightRepo.save(flight);
+
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, inventoryRepo, fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		var first = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1A");
+		var second = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1B");
+		service.reserveAll(List.of(new ReservationRequest(flight.getId(), "c@d.com", SeatClass.BUSINESS, "2A"),
+								   new ReservationRequest(flight.getId(), "c@d.com", SeatClass.BUSINESS, "2B")), false);
+		service.confirm(first.getId());
+		service.cancel(first.getId());
+		service.cancel(second.getId());
+		service.cancel(second.getId());
+
+		var rows = inventoryRepo.findByFlightId(flight.getId());
+		assertEquals(SeatClass.ECONOMY, rows.get(0).getSeatClass());
+		assertEquals(0, rows.get(0).getPending());
+		assertEquals(0, rows.get(0).getConfirmed());
+		assertEquals(2, rows.get(0).getCancelled());
+		assertEquals(SeatClass.BUSINESS, rows.get(1).getSeatClass());
+		assertEquals(2, rows.get(1).getPending());
+		assertEquals(0, inventoryRepo.sumConfirmedByFlightId(flight.getId()));
+	}
+
+	@Test
+	void cancelledSeatCanBeReservedAgain() {
+		var flightRepo = new FakeFlightRepository();
+		var customerRepo = new FakeCustomerRepository();
+		var reservationRepo = new FakeReservationRepository();
+
+		Flight flight = createFlight();
+		flightRepo.save(flight);
+
+		var service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		var first = service.reserve(flight.getId(), "first@user.com", SeatClass.ECONOMY, "1A");
+		service.confirm(first.getId());
+		service.cancel(first.getId());
+
+		var second = service.reserve(flight.getId(), "second@user.com", SeatClass.ECONOMY, "1A");
+
+		assertEquals(BookingStatus.PENDING, second.getStatus());
+		assertEquals(BookingStatus.CANCELLED, reservationRepo.findById(first.getId()).orElseThrow().getStatus());
+		assertThrows(BusinessException.class, () ->
+				service.reserve(flight.getId(), "third@user.com", SeatClass.ECONOMY, "1A"));
+	}
+
+	@Test
+	void confirmAllAdmitsUpToCapacityAndReportsEveryId() {
+		var flightRepo = new FakeFlightRepository();
+		var reservationRepo = new FakeReservationRepository();
+		var inventoryRepo = new FakeFlightInventoryRepository();
+
+		Flight flight = createFlight();
+		flightRepo.save(flight);
+
+		var service = new ReservationServiceImpl(flightRepo, new FakeCustomerRepository(), reservationRepo, inventoryRepo, fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		var first = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1A");
+		var second = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1B");
+		var third = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1C");
+		var cancelled = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1D");
+		service.cancel(cancelled.getId());
+		service.confirm(first.getId());
+
+		var outcomes = service.confirmAll(BulkSelection.ofReservations(List.of(first.getId(), second.getId(), third.getId(),
+																				 cancelled.getId(), 99L)));
+
+		assertEquals(List.of(BulkOutcome.unchanged(first.getId(), BookingStatus.CONFIRMED),
+							 BulkOutcome.changed(second.getId(), BookingStatus.CONFIRMED),
+							 BulkOutcome.rejected(third.getId(), BookingStatus.PENDING, "Flight capacity reached."),
+							 BulkOutcome.rejected(cancelled.getId(), BookingStatus.CANCELLED, "Cannot confirm a cancelled reservation."),
+							 BulkOutcome.rejected(99L, null, "Reservation not found.")), outcomes);
+		assertEquals(BookingStatus.CONFIRMED, reservationRepo.findById(second.getId()).orElseThrow().getStatus());
+		assertEquals(1, reservationRepo.findById(second.getId()).orElseThrow().getVersion());
+		assertEquals(2, inventoryRepo.sumConfirmedByFlightId(flight.getId()));
+	}
+
+	@Test
+	void cancelAllOfFlightFreesEverySeat() {
+		var flightRepo = new FakeFlightRepository();
+		var reservationRepo = new FakeReservationRepository();
+		var inventoryRepo = new FakeFlightInventoryRepository();
+		var seatInventory = new SeatInventory();
+
+		Flight flight = createFlight();
+		flightRepo.save(flight);
+
+		var service = new ReservationServiceImpl(flightRepo, new FakeCustomerRepository(), reservationRepo, inventoryRepo, fixedClock, seatInventory, new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		var first = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1A");
+		var second = service.reserve(flight.getId(), "a@b.com", SeatClass.BUSINESS, "1B");
+		var earlier = service.reserve(flight.getId(), "a@b.com", SeatClass.BUSINESS, "1C");
+		service.cancel(earlier.getId());
+		service.confirm(first.getId());
+
+		var outcomes = service.cancelAll(BulkSelection.ofFlight(flight.getId()));
+
+		assertEquals(List.of(BulkOutcome.changed(first.getId(), BookingStatus.CANCELLED),
+							 BulkOutcome.changed(second.getId(), BookingStatus.CANCELLED)), outcomes);
+		assertEquals(0, inventoryRepo.sumConfirmedByFlightId(flight.getId()));
+		assertEquals(List.of(1L, 2L), inventoryRepo.findByFlightId(flight.getId()).stream().map(FlightInventory::getCancelled).toList());
+		assertTrue(inventoryRepo.findByFlightId(flight.getId()).stream().allMatch(i -> i.getPending() == 0));
+		assertFalse(seatInventory.isSeatTaken(flight.getId(), "1A"));
+		assertEquals(BulkOutcome.unchanged(first.getId(), BookingStatus.CANCELLED),
+					 service.cancelAll(BulkSelection.ofReservations(List.of(first.getId()))).getFirst());
+	}
+
+	@Test
+	void confirmAllOfFlightConfirmsEveryPendingReservation() {
+		var flightRepo = new FakeFlightRepository();
+		var reservationRepo = new FakeReservationRepository();
+		var inventoryRepo = new FakeFlightInventoryRepository();
+
+		Flight flight = createFlight();
+		flightRepo.save(flight);
+
+		var service = new ReservationServiceImpl(flightRepo, new FakeCustomerRepository(), reservationRepo, inventoryRepo, fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		var first = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1A");
+		var cancelled = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1B");
+		service.cancel(cancelled.getId());
+
+		var outcomes = service.confirmAll(BulkSelection.ofFlight(flight.getId()));
+
+		assertEquals(List.of(BulkOutcome.changed(first.getId(), BookingStatus.CONFIRMED)), outcomes);
+		assertEquals(BookingStatus.CONFIRMED, reservationRepo.findById(first.getId()).orElseThrow().getStatus());
+		assertEquals(BookingStatus.CANCELLED, reservationRepo.findById(cancelled.getId()).orElseThrow().getStatus());
+		assertEquals(1, inventoryRepo.sumConfirmedByFlightId(flight.getId()));
+	}
+
+	@Test
+	void seatsReleasedOnAnotherNodeCanBeBookedHere() {
+		var flightRepo = new FakeFlightRepository();
+		var reservationRepo = new FakeReservationRepository();
+		var seatInventory = new SeatInventory();
+
+		Flight flight = createFlight();
+		flightRepo.save(flight);
+		// This node saw 1A booked and the flight full, the cancellations happened elsewhere
+		seatInventory.track(flight);
+		seatInventory.seatTaken(flight.getId(), "1A");
+		seatInventory.confirmedCount(flight.getId(), flight.getCapacity());
+
+		var service = new ReservationServiceImpl(flightRepo, new FakeCustomerRepository(), reservationRepo, new FakeFlightInventoryRepository(), fixedClock, seatInventory, new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		var reservation = service.reserve(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1A");
+		service.reserveAll(List.of(new ReservationRequest(flight.getId(), "a@b.com", SeatClass.ECONOMY, "1B")), true);
+
+		assertEquals(BookingStatus.PENDING, reservation.getStatus());
+		assertTrue(reservationRepo.findActiveByFlightIdAndSeatNumber(flight.getId(), "1B").isPresent());
+		assertFalse(seatInventory.isFull(flight.getId()));
+	}
+
+	@Test
+	void bulkSelectionNeedsEitherIdsOrFlight() {
+		var service = new ReservationServiceImpl(new FakeFlightRepository(), new FakeCustomerRepository(), new FakeReservationRepository(),
+												 new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+
+		assertThrows(BusinessException.class, () -> service.cancelAll(new BulkSelection(List.of(1L), 1L)));
+		assertThrows(BusinessException.class, () -> service.cancelAll(new BulkSelection(List.of(), null)));
+		assertThrows(NotFoundException.class, () -> service.confirmAll(BulkSelection.ofFlight(42L)));
+	}
+
+	@Test
+	void listByCustomerPagesNewestFirstWithOpaqueCursor() {
+		var flightRepo = new FakeFlightRepository();
+		var reservationRepo = new FakeReservationRepository();
+
+		Flight flight = createFlight();
+		flight.setCapacity(10);
+		flightRepo.save(flight);
+
+		var service = new ReservationServiceImpl(flightRepo, new FakeCustomerRepository(), reservationRepo, new FakeFlightInventoryRepository(), fixedClock, new SeatInventory(), new FlightLocks(),
+												 new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10))), outbox());
+		// Same creation time for every reservation, the id breaks the tie
+		var ids = List.of("1A", "1B", "1C", "1D", "1E").stream()
+					  .map(seat -> service.reserve(flight.getId(), "flyer@user.com", SeatClass.ECONOMY, seat).getId())
+					  .toList();
+		service.reserve(flight.getId(), "other@user.com", SeatClass.ECONOMY, "2A");
+
+		var first = service.listByCustomer("flyer@user.com", null, 2);
+		var second = service.listByCustomer("flyer@user.com", first.nextCursor(), 2);
+		var last = service.listByCustomer("flyer@user.com", second.nextCursor(), 2);
+
+		assertEquals(List.of(ids.get(4), ids.get(3)), first.reservations().stream().map(ReservationView::getId).toList());
+		assertEquals(List.of(ids.get(2), ids.get(1)), second.reservations().stream().map(ReservationView::getId).toList());
+		assertEquals(List.of(ids.get(0)), last.reservations().stream().map(ReservationView::getId).toList());
+		assertNull(last.nextCursor());
+		assertThrows(BusinessException.class, () -> service.listByCustomer("flyer@user.com", "not-a-cursor", 2));
+		assertThrows(NotFoundException.class, () -> service.listByCustomer("nobody@user.com", null, 2));
+	}
 }
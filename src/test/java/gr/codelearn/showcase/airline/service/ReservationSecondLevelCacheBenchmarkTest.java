@@ -0,0 +1,81 @@
+package gr.codelearn.showcase.airline.service;
+
+import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.SeatClass;
+import gr.codelearn.showcase.airline.repository.FlightRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Books RESERVATIONS seats of one flight through the service against a real PostgreSQL and reads Hibernate's
+ * statistics: with the flights region enabled the flight is selected once, every later reserve finds it in the
+ * second-level cache and its SQL trace no longer contains the flights select.
+ * Run with: mvn test -DexcludedGroups= -Dgroups=benchmark
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {"spring.jpa.hibernate.ddl-auto=create-drop",
+							  "spring.jpa.properties.hibernate.generate_statistics=true",
+							  "airline.reservation-reaper.enabled=false",
+							  "airline.second-level-cache.flight.enabled=true"})
+class ReservationSecondLevelCacheBenchmarkTest {
+	private static final Logger logger = LoggerFactory.getLogger(ReservationSecondLevelCacheBenchmarkTest.class);
+	private static final int RESERVATIONS = Integer.getInteger("benchmark.rows", 2_000);
+
+	@Container
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+		registry.add("airline.postgres.user", postgres::getUsername);
+		registry.add("airline.postgres.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private ReservationService reservationService;
+	@Autowired
+	private FlightRepository flightRepo;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void reserveReadsItsFlightFromTheSecondLevelCache() {
+		var departure = ZonedDateTime.now(ZoneOffset.UTC).plusDays(30);
+		var flight = flightRepo.save(new Flight(null, "ATH", "LHR", departure, departure.plusHours(4), RESERVATIONS));
+		// Start from an empty region, as after a restart
+		entityManagerFactory.getCache().evictAll();
+		var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < RESERVATIONS; i++) {
+			reservationService.reserve(flight.getId(), "bench" + i + "@user.com", SeatClass.ECONOMY, "S" + i);
+		}
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		var flights = statistics.getDomainDataRegionStatistics("flights");
+		logger.info("Reserved {} seats in {} ms, {} statements per reserve, flights region: {} hits, {} misses, {} loads from the database",
+					RESERVATIONS, millis, (double) statistics.getPrepareStatementCount() / RESERVATIONS, flights.getHitCount(),
+					flights.getMissCount(), statistics.getEntityStatistics(Flight.class.getName()).getLoadCount());
+		assertEquals(1, statistics.getEntityStatistics(Flight.class.getName()).getLoadCount());
+		assertTrue(flights.getHitCount() >= RESERVATIONS - 1);
+	}
+}
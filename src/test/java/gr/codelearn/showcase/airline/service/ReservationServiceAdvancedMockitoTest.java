@@ -1,5 +1,10 @@
 package gr.codelearn.showcase.airline.service;
 
+import gr.codelearn.showcase.airline.component.CustomerCache;
+import gr.codelearn.showcase.airline.component.FlightLocks;
+import gr.codelearn.showcase.airline.component.ReservationOutbox;
+import gr.codelearn.showcase.airline.component.SeatInventory;
+import gr.codelearn.showcase.airline.config.CustomerCacheProperties;
 import gr.codelearn.showcase.airline.domain.BookingStatus;
 import gr.codelearn.showcase.airline.domain.Customer;
 import gr.codelearn.showcase.airline.domain.Flight;
@@ -7,6 +12,7 @@ import gr.codelearn.showcase.airline.domain.Reservation;
 import gr.codelearn.showcase.airline.domain.SeatClass;
 import gr.codelearn.showcase.airline.exception.NotFoundException;
 import gr.codelearn.showcase.airline.repository.CustomerRepository;
+import gr.codelearn.showcase.airline.repository.FlightInventoryRepository;
 import gr.codelearn.showcase.airline.repository.FlightRepository;
 import gr.codelearn.showcase.airline.repository.ReservationRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +26,7 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -37,10 +44,23 @@ class ReservationServiceAdvancedMockitoTest {
 	private CustomerRepository customerRepo;
 	@Mock
 	private ReservationRepository reservationRepo;
+	@Mock
+	private FlightInventoryRepository inventoryRepo;
+	@Mock
+	private ReservationOutbox outbox;
 
 	@Spy
 	private Clock clock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
 
+	@Spy
+	private SeatInventory seatInventory = new SeatInventory();
+
+	@Spy
+	private FlightLocks flightLocks = new FlightLocks();
+
+	@Spy
+	private CustomerCache customerCache = new CustomerCache(clock, new CustomerCacheProperties(100, Duration.ofMinutes(10)));
+
 	@InjectMocks
 	private ReservationServiceImpl service;
 
@@ -62,9 +82,9 @@ class ReservationServiceAdvancedMockitoTest {
 		Customer customer = new Customer(1L, "John Doe", "john@doe.com");
 
 		when(flightRepo.findById(1L)).thenReturn(Optional.of(flight));
-		when(customerRepo.findByEmail("john@doe.com")).thenReturn(Optional.of(customer));
-		when(reservationRepo.countByFlightIdAndStatus(1L, BookingStatus.CONFIRMED)).thenReturn(0L);
-		when(reservationRepo.findByFlightIdAndSeatNumber(1L, "1A")).thenReturn(Optional.empty());
+		when(customerRepo.upsert("john@doe.com", "john@doe.com")).thenReturn(customer);
+		when(inventoryRepo.sumConfirmedByFlightId(1L)).thenReturn(0L);
+		when(reservationRepo.findActiveByFlightIdAndSeatNumber(1L, "1A")).thenReturn(Optional.empty());
 		when(reservationRepo.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
 
 		ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
@@ -83,9 +103,9 @@ class ReservationServiceAdvancedMockitoTest {
 	@Test
 	void spyClockShouldBeInvoked() {
 		when(flightRepo.findById(1L)).thenReturn(Optional.of(flight));
-		when(customerRepo.findByEmail(anyString())).thenReturn(Optional.of(new Customer(1L, "Spy User", "spy@user.com")));
-		when(reservationRepo.findByFlightIdAndSeatNumber(anyLong(), anyString())).thenReturn(Optional.empty());
-		when(reservationRepo.countByFlightIdAndStatus(anyLong(), any())).thenReturn(0L);
+		when(customerRepo.upsert(anyString(), anyString())).thenReturn(new Customer(1L, "Spy User", "spy@user.com"));
+		when(reservationRepo.findActiveByFlightIdAndSeatNumber(anyLong(), anyString())).thenReturn(Optional.empty());
+		when(inventoryRepo.sumConfirmedByFlightId(anyLong())).thenReturn(0L);
 		when(reservationRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
 		service.reserve(1L, "spy@user.com", SeatClass.ECONOMY, "4C");
@@ -97,17 +117,17 @@ class ReservationServiceAdvancedMockitoTest {
 	@Test
 	void strictVerificationEnsuresNoExtraInteractions() {
 		when(flightRepo.findById(1L)).thenReturn(Optional.of(flight));
-		when(customerRepo.findByEmail(anyString())).thenReturn(Optional.of(new Customer(1L, "Strict User", "strict@user.com")));
-		when(reservationRepo.findByFlightIdAndSeatNumber(anyLong(), anyString())).thenReturn(Optional.empty());
-		when(reservationRepo.countByFlightIdAndStatus(anyLong(), any())).thenReturn(0L);
+		when(customerRepo.upsert(anyString(), anyString())).thenReturn(new Customer(1L, "Strict User", "strict@user.com"));
+		when(reservationRepo.findActiveByFlightIdAndSeatNumber(anyLong(), anyString())).thenReturn(Optional.empty());
+		when(inventoryRepo.sumConfirmedByFlightId(anyLong())).thenReturn(0L);
 		when(reservationRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
 		service.reserve(1L, "strict@user.com", SeatClass.ECONOMY, "2B");
 
 		verify(flightRepo).findById(1L);
-		verify(customerRepo).findByEmail("strict@user.com");
-		verify(reservationRepo).findByFlightIdAndSeatNumber(1L, "2B");
-		verify(reservationRepo).countByFlightIdAndStatus(1L, BookingStatus.CONFIRMED);
+		verify(customerRepo).upsert("strict@user.com", "strict@user.com");
+		verify(reservationRepo).findActiveByFlightIdAndSeatNumber(1L, "2B");
+		verify(inventoryRepo).sumConfirmedByFlightId(1L);
 		verify(reservationRepo).save(any(Reservation.class));
 		verifyNoMoreInteractions(flightRepo, customerRepo, reservationRepo);
 	}
@@ -130,6 +150,7 @@ class ReservationServiceAdvancedMockitoTest {
 	void confirmShouldUpdateReservationStatusWithSpyVerification() {
 		Reservation pending = spy(new Reservation());
 		pending.setId(50L);
+		pending.setFlight(flight);
 		pending.setStatus(BookingStatus.PENDING);
 
 		when(reservationRepo.findById(50L)).thenReturn(Optional.of(pending));
@@ -144,6 +165,8 @@ class ReservationServiceAdvancedMockitoTest {
 	void cancelShouldInvokeCorrectRepositoryMethods() {
 		Reservation reservation = new Reservation();
 		reservation.setId(99L);
+		reservation.setFlight(flight);
+		reservation.setSeatClass(SeatClass.ECONOMY);
 		reservation.setStatus(BookingStatus.PENDING);
 
 		when(reservationRepo.findById(99L)).thenReturn(Optional.of(reservation));
@@ -151,6 +174,7 @@ class ReservationServiceAdvancedMockitoTest {
 		service.cancel(99L);
 
 		verify(reservationRepo, times(1)).findById(99L);
+		verify(inventoryRepo).moved(1L, SeatClass.ECONOMY, BookingStatus.PENDING, BookingStatus.CANCELLED);
 		assertEquals(BookingStatus.CANCELLED, reservation.getStatus());
 	}
 
@@ -158,6 +182,8 @@ class ReservationServiceAdvancedMockitoTest {
 	void verifyOrderEnsuresCorrectSequence() {
 		Reservation reservation = new Reservation();
 		reservation.setId(7L);
+		reservation.setFlight(flight);
+		reservation.setSeatClass(SeatClass.ECONOMY);
 		reservation.setStatus(BookingStatus.PENDING);
 		when(reservationRepo.findById(7L)).thenReturn(Optional.of(reservation));
 
@@ -182,22 +208,23 @@ class ReservationServiceAdvancedMockitoTest {
 		Customer customer = new Customer(1L, "Order User", "order@demo.com");
 
 		when(flightRepo.findById(1L)).thenReturn(Optional.of(flight));
-		when(customerRepo.findByEmail("order@demo.com")).thenReturn(Optional.of(customer));
-		when(reservationRepo.findByFlightIdAndSeatNumber(1L, "2C")).thenReturn(Optional.empty());
-		when(reservationRepo.countByFlightIdAndStatus(1L, BookingStatus.CONFIRMED)).thenReturn(0L);
+		when(customerRepo.upsert("order@demo.com", "order@demo.com")).thenReturn(customer);
+		when(reservationRepo.findActiveByFlightIdAndSeatNumber(1L, "2C")).thenReturn(Optional.empty());
+		when(inventoryRepo.sumConfirmedByFlightId(1L)).thenReturn(0L);
 		when(reservationRepo.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
 
 		// When
 		service.reserve(1L, "order@demo.com", SeatClass.ECONOMY, "2C");
 
 		// Then: verify sequence across multiple mocks
-		InOrder order = inOrder(flightRepo, customerRepo, reservationRepo);
+		InOrder order = inOrder(flightRepo, inventoryRepo, customerRepo, reservationRepo);
 
 		order.verify(flightRepo).findById(1L);
-		order.verify(reservationRepo).findByFlightIdAndSeatNumber(1L, "2C");
-		order.verify(reservationRepo).countByFlightIdAndStatus(1L, BookingStatus.CONFIRMED);
-		order.verify(customerRepo).findByEmail("order@demo.com");
+		order.verify(reservationRepo).findActiveByFlightIdAndSeatNumber(1L, "2C");
+		order.verify(inventoryRepo).sumConfirmedByFlightId(1L);
+		order.verify(customerRepo).upsert("order@demo.com", "order@demo.com");
 		order.verify(reservationRepo).save(any(Reservation.class));
+		order.verify(inventoryRepo).reserved(1L, SeatClass.ECONOMY, 1);
 		order.verifyNoMoreInteractions();
 	}
 
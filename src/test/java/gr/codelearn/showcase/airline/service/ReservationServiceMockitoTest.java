@@ -1,5 +1,10 @@
 package gr.codelearn.showcase.airline.service;
 
+import gr.codelearn.showcase.airline.component.CustomerCache;
+import gr.codelearn.showcase.airline.component.FlightLocks;
+import gr.codelearn.showcase.airline.component.ReservationOutbox;
+import gr.codelearn.showcase.airline.component.SeatInventory;
+import gr.codelearn.showcase.airline.config.CustomerCacheProperties;
 import gr.codelearn.showcase.airline.domain.BookingStatus;
 import gr.codelearn.showcase.airline.domain.Customer;
 import gr.codelearn.showcase.airline.domain.Flight;
@@ -8,6 +13,7 @@ import gr.codelearn.showcase.airline.domain.SeatClass;
 import gr.codelearn.showcase.airline.exception.BusinessException;
 import gr.codelearn.showcase.airline.exception.NotFoundException;
 import gr.codelearn.showcase.airline.repository.CustomerRepository;
+import gr.codelearn.showcase.airline.repository.FlightInventoryRepository;
 import gr.codelearn.showcase.airline.repository.FlightRepository;
 import gr.codelearn.showcase.airline.repository.ReservationRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +24,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -27,6 +34,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -41,6 +49,10 @@ class ReservationServiceMockitoTest {
 	private CustomerRepository customerRepo;
 	@Mock
 	private ReservationRepository reservationRepo;
+	@Mock
+	private FlightInventoryRepository inventoryRepo;
+	@Mock
+	private ReservationOutbox outbox;
 
 	@InjectMocks
 	private ReservationServiceImpl service;
@@ -49,6 +61,10 @@ class ReservationServiceMockitoTest {
 
 	private Flight flight;
 
+	private CustomerCache customerCache;
+
+	private SeatInventory seatInventory;
+
 	private AutoCloseable closeable;
 
 	@BeforeEach
@@ -62,7 +78,10 @@ class ReservationServiceMockitoTest {
 		flight.setCapacity(2);
 
 		// Inject fixed clock manually since no Spring context
-		service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, fixedClock);
+		customerCache = new CustomerCache(fixedClock, new CustomerCacheProperties(100, Duration.ofMinutes(10)));
+		seatInventory = new SeatInventory();
+		service = new ReservationServiceImpl(flightRepo, customerRepo, reservationRepo, inventoryRepo, fixedClock, seatInventory, new FlightLocks(),
+											 customerCache, outbox);
 	}
 
 	@Test
@@ -70,9 +89,9 @@ class ReservationServiceMockitoTest {
 		Customer customer = new Customer(1L, "John Doe", "john@doe.com");
 
 		when(flightRepo.findById(1L)).thenReturn(Optional.of(flight));
-		when(customerRepo.findByEmail("john@doe.com")).thenReturn(Optional.of(customer));
-		when(reservationRepo.countByFlightIdAndStatus(1L, BookingStatus.CONFIRMED)).thenReturn(0L);
-		when(reservationRepo.findByFlightIdAndSeatNumber(1L, "1A")).thenReturn(Optional.empty());
+		when(customerRepo.upsert("john@doe.com", "john@doe.com")).thenReturn(customer);
+		when(inventoryRepo.sumConfirmedByFlightId(1L)).thenReturn(0L);
+		when(reservationRepo.findActiveByFlightIdAndSeatNumber(1L, "1A")).thenReturn(Optional.empty());
 		when(reservationRepo.save(any(Reservation.class))).thenAnswer(inv -> {
 			Reservation r = inv.getArgument(0);
 			r.setId(10L);
@@ -88,10 +107,30 @@ class ReservationServiceMockitoTest {
 		verify(reservationRepo, times(1)).save(any());
 	}
 
+	@Test
+	void reserveShouldResolveRepeatCustomerFromCache() {
+		Customer customer = new Customer(1L, "John Doe", "john@doe.com");
+
+		when(flightRepo.findById(1L)).thenReturn(Optional.of(flight));
+		when(customerRepo.upsert("john@doe.com", "john@doe.com")).thenReturn(customer);
+		when(inventoryRepo.sumConfirmedByFlightId(1L)).thenReturn(0L);
+		when(reservationRepo.findActiveByFlightIdAndSeatNumber(eq(1L), any())).thenReturn(Optional.empty());
+		when(reservationRepo.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+		service.reserve(1L, "john@doe.com", SeatClass.BUSINESS, "1A");
+		var res = service.reserve(1L, "john@doe.com", SeatClass.BUSINESS, "1B");
+
+		assertEquals(1L, res.getCustomer().getId());
+		assertEquals("john@doe.com", res.getCustomer().getEmail());
+		verify(customerRepo, times(1)).upsert("john@doe.com", "john@doe.com");
+		assertEquals(1, customerCache.hits());
+		assertEquals(1, customerCache.misses());
+	}
+
 	@Test
 	void reserveShouldThrowWhenSeatAlreadyTaken() {
 		when(flightRepo.findById(1L)).thenReturn(Optional.of(flight));
-		when(reservationRepo.findByFlightIdAndSeatNumber(1L, "1A")).thenReturn(Optional.of(new Reservation()));
+		when(reservationRepo.findActiveByFlightIdAndSeatNumber(1L, "1A")).thenReturn(Optional.of(new Reservation()));
 
 		assertThrows(BusinessException.class, () ->
 				service.reserve(1L, "someone@else.com", SeatClass.ECONOMY, "1A"));
@@ -99,6 +138,38 @@ class ReservationServiceMockitoTest {
 		verify(reservationRepo, never()).save(any());
 	}
 
+	@Test
+	void reserveShouldRejectKnownTakenSeatWithoutQueryingDatabaseWhileInventoryIsCurrent() {
+		seatInventory.synced(0, Duration.ofMinutes(1));
+		when(flightRepo.findById(1L)).thenReturn(Optional.of(flight));
+		when(reservationRepo.findActiveByFlightIdAndSeatNumber(1L, "1A")).thenReturn(Optional.of(new Reservation()));
+
+		assertThrows(BusinessException.class, () ->
+				service.reserve(1L, "first@user.com", SeatClass.ECONOMY, "1A"));
+		assertThrows(BusinessException.class, () ->
+				service.reserve(1L, "second@user.com", SeatClass.ECONOMY, "1A"));
+
+		verify(flightRepo, times(1)).findById(1L);
+		verify(reservationRepo, times(1)).findActiveByFlightIdAndSeatNumber(1L, "1A");
+		verifyNoInteractions(customerRepo);
+	}
+
+	@Test
+	void reserveShouldRecheckKnownTakenSeatAgainstDatabaseWhileInventoryIsNotCurrent() {
+		when(flightRepo.findById(1L)).thenReturn(Optional.of(flight));
+		when(reservationRepo.findActiveByFlightIdAndSeatNumber(1L, "1A")).thenReturn(Optional.of(new Reservation()));
+
+		assertThrows(BusinessException.class, () ->
+				service.reserve(1L, "first@user.com", SeatClass.ECONOMY, "1A"));
+		assertThrows(BusinessException.class, () ->
+				service.reserve(1L, "second@user.com", SeatClass.ECONOMY, "1A"));
+
+		// Not synced from the outbox feed, the seat may have been released on another node
+		verify(flightRepo, times(2)).findById(1L);
+		verify(reservationRepo, times(2)).findActiveByFlightIdAndSeatNumber(1L, "1A");
+		verifyNoInteractions(customerRepo);
+	}
+
 	@Test
 	void reserveShouldThrowWhenFlightDoesNotExist() {
 		when(flightRepo.findById(99L)).thenReturn(Optional.empty());
@@ -114,6 +185,7 @@ class ReservationServiceMockitoTest {
 	void confirmShouldChangeStatusToConfirmed() {
 		Reservation pending = new Reservation();
 		pending.setId(5L);
+		pending.setFlight(flight);
 		pending.setStatus(BookingStatus.PENDING);
 
 		when(reservationRepo.findById(5L)).thenReturn(Optional.of(pending));
@@ -139,6 +211,8 @@ class ReservationServiceMockitoTest {
 	void cancelShouldUpdateStatusToCancelled() {
 		Reservation res = new Reservation();
 		res.setId(20L);
+		res.setFlight(flight);
+		res.setSeatClass(SeatClass.ECONOMY);
 		res.setStatus(BookingStatus.PENDING);
 
 		when(reservationRepo.findById(20L)).thenReturn(Optional.of(res));
@@ -147,6 +221,7 @@ class ReservationServiceMockitoTest {
 
 		assertEquals(BookingStatus.CANCELLED, res.getStatus());
 		verify(reservationRepo, times(1)).findById(20L);
+		verify(inventoryRepo).moved(1L, SeatClass.ECONOMY, BookingStatus.PENDING, BookingStatus.CANCELLED);
 	}
 
 	@Test
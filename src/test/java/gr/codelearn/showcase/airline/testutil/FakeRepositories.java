@@ -1,34 +1,73 @@
 package gr.codelearn.showcase.airline.testutil;
 
+import gr.codelearn.showcase.airline.api.transfer.ResultPair;
+import gr.codelearn.showcase.airline.component.ReservationOutbox;
+import gr.codelearn.showcase.airline.config.OutboxProperties;
 import gr.codelearn.showcase.airline.domain.BookingStatus;
 import gr.codelearn.showcase.airline.domain.Customer;
 import gr.codelearn.showcase.airline.domain.Flight;
+import gr.codelearn.showcase.airline.domain.FlightInventory;
+import gr.codelearn.showcase.airline.domain.OutboxEvent;
 import gr.codelearn.showcase.airline.domain.Reservation;
+import gr.codelearn.showcase.airline.domain.SeatClass;
 import gr.codelearn.showcase.airline.repository.CustomerRepository;
+import gr.codelearn.showcase.airline.repository.FlightInventoryRepository;
 import gr.codelearn.showcase.airline.repository.FlightRepository;
+import gr.codelearn.showcase.airline.repository.OutboxEventRepository;
 import gr.codelearn.showcase.airline.repository.ReservationRepository;
+import gr.codelearn.showcase.airline.repository.projection.ExpiredReservation;
+import gr.codelearn.showcase.airline.repository.projection.ManifestEntry;
+import gr.codelearn.showcase.airline.repository.projection.ReservationState;
+import gr.codelearn.showcase.airline.repository.projection.ReservationView;
+import gr.codelearn.showcase.airline.repository.projection.SeatAssignment;
+import gr.codelearn.showcase.airline.repository.projection.SeatOccupancy;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.query.FluentQuery;
 
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class FakeRepositories {
 
 	// ---------- Fake Flight Repository ----------
 	public static class FakeFlightRepository implements FlightRepository {
-		private final Map<Long, Flight> flights = new HashMap<>();
+		private final Map<Long, Flight> flights = new ConcurrentHashMap<>();
 		private final AtomicLong idGen = new AtomicLong(1);
+		private final FakeFlightInventoryRepository inventory;
+
+		public FakeFlightRepository() {
+			this(new FakeFlightInventoryRepository());
+		}
+
+		public FakeFlightRepository(FakeFlightInventoryRepository inventory) {
+			this.inventory = inventory;
+		}
+
+		@Override
+		public List<Flight> findAvailable(String origin, String destination, ZonedDateTime from, ZonedDateTime to, long seats) {
+			return findByOriginAndDestinationAndDepartureAtBetween(origin, destination, from, to).stream()
+					.filter(f -> f.getCapacity() - inventory.sumConfirmedByFlightId(f.getId()) >= seats)
+					.sorted(Comparator.comparing(Flight::getDepartureAt))
+					.toList();
+		}
 
 		@Override
 		public <S extends Flight> S save(S entity) {
@@ -138,9 +177,18 @@ public class FakeRepositories {
 						  .toList();
 		}
 
+		@Override
+		public List<Flight> findByDepartureAtGreaterThanEqual(ZonedDateTime from) {
+			return flights.values().stream().filter(f -> !f.getDepartureAt().isBefore(from)).toList();
+		}
+
 		@Override
 		public <S extends Flight> List<S> saveAll(final Iterable<S> entities) {
-			return List.of();
+			List<S> list = new ArrayList<>();
+			for (S e : entities) {
+				list.add(save(e));
+			}
+			return list;
 		}
 
 		@Override
@@ -150,7 +198,9 @@ public class FakeRepositories {
 
 		@Override
 		public List<Flight> findAllById(final Iterable<Long> longs) {
-			return List.of();
+			List<Flight> list = new ArrayList<>();
+			longs.forEach(id -> findById(id).ifPresent(list::add));
+			return list;
 		}
 
 		@Override
@@ -201,7 +251,7 @@ public class FakeRepositories {
 
 	// ---------- Fake Customer Repository ----------
 	public static class FakeCustomerRepository implements CustomerRepository {
-		private final Map<String, Customer> customers = new HashMap<>();
+		private final Map<String, Customer> customers = new ConcurrentHashMap<>();
 		private final AtomicLong idGen = new AtomicLong(1);
 
 		@Override
@@ -209,6 +259,16 @@ public class FakeRepositories {
 			return Optional.ofNullable(customers.get(email));
 		}
 
+		@Override
+		public Customer upsert(String email, String fullName) {
+			return customers.computeIfAbsent(email, e -> new Customer(idGen.getAndIncrement(), fullName, e));
+		}
+
+		@Override
+		public List<Customer> upsertAll(Collection<String> emails) {
+			return emails.stream().distinct().sorted().map(email -> upsert(email, email)).toList();
+		}
+
 		@Override
 		public <S extends Customer> S save(S entity) {
 			if (entity.getId() == null) {
@@ -310,7 +370,11 @@ public class FakeRepositories {
 
 		@Override
 		public <S extends Customer> List<S> saveAll(final Iterable<S> entities) {
-			return List.of();
+			List<S> list = new ArrayList<>();
+			for (S e : entities) {
+				list.add(save(e));
+			}
+			return list;
 		}
 
 		@Override
@@ -376,9 +440,14 @@ public class FakeRepositories {
 
 	// ---------- Fake Reservation Repository ----------
 	public static class FakeReservationRepository implements ReservationRepository {
-		private final Map<Long, Reservation> reservations = new HashMap<>();
+		private final Map<Long, Reservation> reservations = new ConcurrentHashMap<>();
 		private final AtomicLong idGen = new AtomicLong(1);
 
+		@Override
+		public long nextIdBlock() {
+			return idGen.getAndAdd(Reservation.ID_ALLOCATION_SIZE);
+		}
+
 		@Override
 		public long countByFlightIdAndStatus(Long flightId, BookingStatus status) {
 			return reservations.values().stream()
@@ -388,13 +457,345 @@ public class FakeRepositories {
 		}
 
 		@Override
-		public Optional<Reservation> findByFlightIdAndSeatNumber(Long flightId, String seatNumber) {
+		public Optional<Reservation> findActiveByFlightIdAndSeatNumber(Long flightId, String seatNumber) {
 			return reservations.values().stream()
 							   .filter(r -> Objects.equals(r.getFlight().getId(), flightId)
-											&& Objects.equals(r.getSeatNumber(), seatNumber))
+											&& Objects.equals(r.getSeatNumber(), seatNumber)
+											&& r.getStatus() != BookingStatus.CANCELLED)
 							   .findFirst();
 		}
 
+		@Override
+		public Optional<ReservationView> findViewById(Long id) {
+			return Optional.ofNullable(reservations.get(id)).map(FakeReservationRepository::toReservationView);
+		}
+
+		@Override
+		public List<ReservationView> findViewsByCustomerId(Long customerId, Limit limit) {
+			return newestOfCustomer(customerId).limit(limit.max()).map(FakeReservationRepository::toReservationView).toList();
+		}
+
+		@Override
+		public List<ReservationView> findViewsByCustomerIdBefore(Long customerId, ZonedDateTime createdAt, Long id, Limit limit) {
+			return newestOfCustomer(customerId)
+					.filter(r -> r.getCreatedAt().isBefore(createdAt) || (r.getCreatedAt().isEqual(createdAt) && r.getId() < id))
+					.limit(limit.max())
+					.map(FakeReservationRepository::toReservationView)
+					.toList();
+		}
+
+		private Stream<Reservation> newestOfCustomer(Long customerId) {
+			return reservations.values().stream()
+							   .filter(r -> Objects.equals(r.getCustomer().getId(), customerId))
+							   .sorted(Comparator.comparing(Reservation::getCreatedAt).thenComparing(Reservation::getId).reversed());
+		}
+
+		private static ReservationView toReservationView(Reservation r) {
+			return new ReservationView() {
+				@Override
+				public Long getId() {
+					return r.getId();
+				}
+
+				@Override
+				public Long getFlightId() {
+					return r.getFlight().getId();
+				}
+
+				@Override
+				public String getCustomerEmail() {
+					return r.getCustomer().getEmail();
+				}
+
+				@Override
+				public String getSeatNumber() {
+					return r.getSeatNumber();
+				}
+
+				@Override
+				public SeatClass getSeatClass() {
+					return r.getSeatClass();
+				}
+
+				@Override
+				public BookingStatus getStatus() {
+					return r.getStatus();
+				}
+
+				@Override
+				public ZonedDateTime getCreatedAt() {
+					return r.getCreatedAt();
+				}
+			};
+		}
+
+		@Override
+		public List<SeatOccupancy> findSeatOccupancyByDepartureAfter(ZonedDateTime after) {
+			return reservations.values().stream()
+							   .filter(r -> r.getFlight().getDepartureAt().isAfter(after) && r.getStatus() != BookingStatus.CANCELLED)
+							   .map(FakeReservationRepository::toSeatOccupancy)
+							   .toList();
+		}
+
+		@Override
+		public List<SeatOccupancy> findSeatOccupancyByFlightIdInAndSeatNumberIn(Collection<Long> flightIds,
+																				 Collection<String> seatNumbers) {
+			return reservations.values().stream()
+							   .filter(r -> flightIds.contains(r.getFlight().getId()) && seatNumbers.contains(r.getSeatNumber())
+											&& r.getStatus() != BookingStatus.CANCELLED)
+							   .map(FakeReservationRepository::toSeatOccupancy)
+							   .toList();
+		}
+
+		@Override
+		public List<SeatAssignment> findSeatAssignmentsByFlightId(Long flightId) {
+			return reservations.values().stream()
+							   .filter(r -> Objects.equals(r.getFlight().getId(), flightId) && r.getStatus() != BookingStatus.CANCELLED)
+							   .map(r -> (SeatAssignment) new SeatAssignment() {
+								   @Override
+								   public String getSeatNumber() {
+									   return r.getSeatNumber();
+								   }
+
+								   @Override
+								   public SeatClass getSeatClass() {
+									   return r.getSeatClass();
+								   }
+
+								   @Override
+								   public BookingStatus getStatus() {
+									   return r.getStatus();
+								   }
+							   })
+							   .toList();
+		}
+
+		@Override
+		public Stream<ManifestEntry> streamManifestByFlightId(Long flightId) {
+			return reservations.values().stream()
+							   .filter(r -> Objects.equals(r.getFlight().getId(), flightId))
+							   .sorted(Comparator.comparing(Reservation::getSeatNumber))
+							   .map(FakeReservationRepository::toManifestEntry);
+		}
+
+		@Override
+		public Stream<ManifestEntry> streamManifestByDepartureBetween(ZonedDateTime from, ZonedDateTime to) {
+			return reservations.values().stream()
+							   .filter(r -> !r.getFlight().getDepartureAt().isBefore(from) && r.getFlight().getDepartureAt().isBefore(to))
+							   .sorted(Comparator.comparing((Reservation r) -> r.getFlight().getDepartureAt())
+												 .thenComparing(r -> r.getFlight().getId())
+												 .thenComparing(Reservation::getSeatNumber))
+							   .map(FakeReservationRepository::toManifestEntry);
+		}
+
+		@Override
+		public List<ExpiredReservation> lockPendingCreatedBefore(ZonedDateTime cutoff, int limit) {
+			return reservations.values().stream()
+							   .filter(r -> r.getStatus() == BookingStatus.PENDING && r.getCreatedAt().isBefore(cutoff))
+							   .sorted(Comparator.comparing(Reservation::getCreatedAt))
+							   .limit(limit)
+							   .map(FakeReservationRepository::toExpiredReservation)
+							   .toList();
+		}
+
+		@Override
+		public int deleteByIdIn(Collection<Long> ids) {
+			int deleted = 0;
+			for (Long id : ids) {
+				if (reservations.remove(id) != null) {
+					deleted++;
+				}
+			}
+			return deleted;
+		}
+
+		@Override
+		public int updateStatusByIdIn(Collection<Long> ids, BookingStatus status) {
+			int updated = 0;
+			for (Long id : ids) {
+				var reservation = reservations.get(id);
+				if (reservation != null) {
+					reservation.setStatus(status);
+					reservation.setVersion(reservation.getVersion() + 1);
+					updated++;
+				}
+			}
+			return updated;
+		}
+
+		@Override
+		public List<ReservationState> findStatesByIdIn(Collection<Long> ids) {
+			return reservations.values().stream()
+							   .filter(r -> ids.contains(r.getId()))
+							   .sorted(Comparator.comparing(Reservation::getId))
+							   .map(FakeReservationRepository::toReservationState)
+							   .toList();
+		}
+
+		@Override
+		public List<ReservationState> findActiveStatesByFlightId(Long flightId) {
+			return reservations.values().stream()
+							   .filter(r -> Objects.equals(r.getFlight().getId(), flightId) && r.getStatus() != BookingStatus.CANCELLED)
+							   .sorted(Comparator.comparing(Reservation::getId))
+							   .map(FakeReservationRepository::toReservationState)
+							   .toList();
+		}
+
+		@Override
+		public int updateStatusByIdInAndStatus(Collection<Long> ids, BookingStatus from, BookingStatus to) {
+			int updated = 0;
+			for (Long id : ids) {
+				var reservation = reservations.get(id);
+				if (reservation != null && reservation.getStatus() == from) {
+					reservation.setStatus(to);
+					reservation.setVersion(reservation.getVersion() + 1);
+					updated++;
+				}
+			}
+			return updated;
+		}
+
+		@Override
+		public int updateStatusByFlightIdAndStatus(Long flightId, BookingStatus from, BookingStatus to) {
+			return updateStatusByIdInAndStatus(reservations.values().stream()
+														   .filter(r -> Objects.equals(r.getFlight().getId(), flightId))
+														   .map(Reservation::getId)
+														   .toList(), from, to);
+		}
+
+		private static ReservationState toReservationState(Reservation r) {
+			var status = r.getStatus();
+			return new ReservationState() {
+				@Override
+				public Long getId() {
+					return r.getId();
+				}
+
+				@Override
+				public Long getFlightId() {
+					return r.getFlight().getId();
+				}
+
+				@Override
+				public int getCapacity() {
+					return r.getFlight().getCapacity();
+				}
+
+				@Override
+				public SeatClass getSeatClass() {
+					return r.getSeatClass();
+				}
+
+				@Override
+				public String getSeatNumber() {
+					return r.getSeatNumber();
+				}
+
+				@Override
+				public BookingStatus getStatus() {
+					return status;
+				}
+			};
+		}
+
+		private static ExpiredReservation toExpiredReservation(Reservation r) {
+			var flightId = r.getFlight().getId();
+			return new ExpiredReservation() {
+				@Override
+				public Long getId() {
+					return r.getId();
+				}
+
+				@Override
+				public Long getFlightId() {
+					return flightId;
+				}
+
+				@Override
+				public SeatClass getSeatClass() {
+					return r.getSeatClass();
+				}
+
+				@Override
+				public String getSeatNumber() {
+					return r.getSeatNumber();
+				}
+			};
+		}
+
+		private static ManifestEntry toManifestEntry(Reservation r) {
+			return new ManifestEntry() {
+				@Override
+				public Long getReservationId() {
+					return r.getId();
+				}
+
+				@Override
+				public Long getFlightId() {
+					return r.getFlight().getId();
+				}
+
+				@Override
+				public ZonedDateTime getDepartureAt() {
+					return r.getFlight().getDepartureAt();
+				}
+
+				@Override
+				public String getSeatNumber() {
+					return r.getSeatNumber();
+				}
+
+				@Override
+				public SeatClass getSeatClass() {
+					return r.getSeatClass();
+				}
+
+				@Override
+				public BookingStatus getStatus() {
+					return r.getStatus();
+				}
+
+				@Override
+				public String getCustomerName() {
+					return r.getCustomer().getFullName();
+				}
+
+				@Override
+				public String getCustomerEmail() {
+					return r.getCustomer().getEmail();
+				}
+
+				@Override
+				public ZonedDateTime getCreatedAt() {
+					return r.getCreatedAt();
+				}
+			};
+		}
+
+		private static SeatOccupancy toSeatOccupancy(Reservation r) {
+			return new SeatOccupancy() {
+				@Override
+				public Long getFlightId() {
+					return r.getFlight().getId();
+				}
+
+				@Override
+				public int getCapacity() {
+					return r.getFlight().getCapacity();
+				}
+
+				@Override
+				public String getSeatNumber() {
+					return r.getSeatNumber();
+				}
+
+				@Override
+				public BookingStatus getStatus() {
+					return r.getStatus();
+				}
+			};
+		}
+
 		@Override
 		public <S extends Reservation> S save(S entity) {
 			if (entity.getId() == null) {
@@ -494,7 +895,11 @@ public class FakeRepositories {
 
 		@Override
 		public <S extends Reservation> List<S> saveAll(final Iterable<S> entities) {
-			return List.of();
+			List<S> list = new ArrayList<>();
+			for (S e : entities) {
+				list.add(save(e));
+			}
+			return list;
 		}
 
 		@Override
@@ -552,4 +957,142 @@ public class FakeRepositories {
 			return null;
 		}
 	}
+
+	// ---------- Fake Flight Inventory Repository ----------
+	public static class FakeFlightInventoryRepository implements FlightInventoryRepository {
+		private final Map<FlightInventory.Key, FlightInventory> rows = new ConcurrentHashMap<>();
+
+		@Override
+		public List<FlightInventory> findByFlightId(Long flightId) {
+			return rows.values().stream()
+					   .filter(i -> Objects.equals(i.getFlightId(), flightId))
+					   .sorted(Comparator.comparing(FlightInventory::getSeatClass))
+					   .toList();
+		}
+
+		@Override
+		public long sumConfirmedByFlightId(Long flightId) {
+			return findByFlightId(flightId).stream().mapToLong(FlightInventory::getConfirmed).sum();
+		}
+
+		@Override
+		public List<ResultPair<Long, Long>> sumConfirmedByFlightIdIn(Collection<Long> flightIds) {
+			return flightIds.stream()
+							.map(flightId -> (ResultPair<Long, Long>) new ResultPair<Long, Long>() {
+								@Override
+								public Long getKey() {
+									return flightId;
+								}
+
+								@Override
+								public Long getValue() {
+									return sumConfirmedByFlightId(flightId);
+								}
+							})
+							.toList();
+		}
+
+		@Override
+		public long sumChangesByFlightId(Long flightId) {
+			return findByFlightId(flightId).stream().mapToLong(FlightInventory::getChanges).sum();
+		}
+
+		@Override
+		public void adjust(Long flightId, String seatClass, long pending, long confirmed, long cancelled) {
+			rows.compute(new FlightInventory.Key(flightId, SeatClass.valueOf(seatClass)), (key, row) -> {
+				var next = row == null ? new FlightInventory(flightId, key.getSeatClass(), 0, 0, 0, 0) : row;
+				next.setPending(next.getPending() + pending);
+				next.setConfirmed(next.getConfirmed() + confirmed);
+				next.setCancelled(next.getCancelled() + cancelled);
+				next.setChanges(next.getChanges() + 1);
+				return next;
+			});
+		}
+	}
+
+	// ---------- Fake Outbox Event Repository ----------
+	public static class FakeOutboxEventRepository implements OutboxEventRepository {
+		private final Map<Long, OutboxEvent> events = new ConcurrentHashMap<>();
+		private final AtomicLong idGen = new AtomicLong(1);
+
+		// A writer with the default settings recording into this repository
+		public ReservationOutbox outbox(Clock clock) {
+			var properties = new OutboxProperties(true, Duration.ofMillis(200), 500, 20, Duration.ofDays(7), Duration.ofHours(1),
+												  Duration.ofSeconds(30), new OutboxProperties.InProcessSink(true),
+												  new OutboxProperties.FileSink(false, Path.of("data/outbox-events.ndjson")));
+			return new ReservationOutbox(this, properties, clock);
+		}
+
+		public List<OutboxEvent> findAll() {
+			return events.values().stream().sorted(Comparator.comparing(OutboxEvent::getId)).toList();
+		}
+
+		@Override
+		public <S extends OutboxEvent> List<S> saveAll(Iterable<S> entities) {
+			List<S> saved = new ArrayList<>();
+			for (S event : entities) {
+				if (event.getId() == null) {
+					event.setId(idGen.getAndIncrement());
+				}
+				events.put(event.getId(), event);
+				saved.add(event);
+			}
+			return saved;
+		}
+
+		@Override
+		public List<OutboxEvent> lockUnpublished(int limit) {
+			return findAll().stream()
+							.filter(e -> e.getPublishedAt() == null)
+							.sorted(Comparator.comparing(OutboxEvent::getOccurredAt).thenComparing(OutboxEvent::getId))
+							.limit(limit)
+							.toList();
+		}
+
+		@Override
+		public long lockFeed(long key) {
+			return 1;
+		}
+
+		@Override
+		public boolean existsByPublishedAtIsNullAndOccurredAtBefore(ZonedDateTime cutoff) {
+			return events.values().stream().anyMatch(e -> e.getPublishedAt() == null && e.getOccurredAt().isBefore(cutoff));
+		}
+
+		@Override
+		public long maxFeedPosition() {
+			return events.values().stream()
+						 .map(OutboxEvent::getFeedPosition)
+						 .filter(Objects::nonNull)
+						 .mapToLong(Long::longValue)
+						 .max()
+						 .orElse(0);
+		}
+
+		@Override
+		public List<OutboxEvent> findByFeedPositionGreaterThanOrderByFeedPosition(long feedPosition, Limit limit) {
+			return events.values().stream()
+						 .filter(e -> e.getFeedPosition() != null && e.getFeedPosition() > feedPosition)
+						 .sorted(Comparator.comparing(OutboxEvent::getFeedPosition))
+						 .limit(limit.isLimited() ? limit.max() : Long.MAX_VALUE)
+						 .toList();
+		}
+
+		@Override
+		public int insertCreatedByReservationIdIn(Collection<Long> reservationIds) {
+			throw new UnsupportedOperationException("Reads reservations inserted by plain SQL");
+		}
+
+		@Override
+		public int deletePublishedBefore(ZonedDateTime cutoff) {
+			long last = maxFeedPosition();
+			var expired = events.values().stream()
+								.filter(e -> e.getPublishedAt() != null && e.getPublishedAt().isBefore(cutoff))
+								.filter(e -> e.getFeedPosition() < last)
+								.map(OutboxEvent::getId)
+								.toList();
+			expired.forEach(events::remove);
+			return expired.size();
+		}
+	}
 }